@@ -0,0 +1,86 @@
+package de.chritox.mimir.benchmarks;
+
+import de.chritox.mimir.models.Department;
+import de.chritox.mimir.models.Employee;
+import de.chritox.mimir.models.Training;
+import de.chritox.mimir.models.TrainingSession;
+import de.chritox.mimir.services.DataGenerator;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Benchmark datasets produced by the application's {@link DataGenerator}, either written into the database
+ * or built as an in-memory entity graph.
+ */
+final class BenchmarkData {
+    static final LocalDate TODAY = LocalDate.of(2025, 1, 1);
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * About 250 employees per department, at most 50 departments.
+     */
+    static DataGenerator.Settings settings(int employees) {
+        return new DataGenerator.Settings(Math.max(1, Math.min(50, employees / 250)), employees, 30, 6, 5, 42L, TODAY);
+    }
+
+    /**
+     * Builds the employees of the dataset with their mandatory trainings and attended sessions.
+     */
+    static List<Employee> employees(int employees) {
+        EntitySink sink = new EntitySink();
+        new DataGenerator(settings(employees)).generate(sink);
+        return sink.employees;
+    }
+
+    private static final class EntitySink implements DataGenerator.Sink {
+        private final Map<Long, Department> departments = new HashMap<>();
+        private final Map<Long, Training> trainings = new HashMap<>();
+        private final Map<Long, TrainingSession> sessions = new HashMap<>();
+        private final List<Employee> employees = new ArrayList<>();
+
+        @Override
+        public void department(long id, String name) {
+            departments.put(id, new Department(id, name, null));
+        }
+
+        @Override
+        public void training(long id, String title, Integer interval) {
+            trainings.put(id, new Training(id, interval, title, null));
+        }
+
+        @Override
+        public void session(long id, long trainingId, LocalDate date) {
+            TrainingSession session = new TrainingSession();
+            session.setId(id);
+            session.setTraining(trainings.get(trainingId));
+            session.setDate(date);
+            sessions.put(id, session);
+        }
+
+        @Override
+        public void employee(long id, String name, long departmentId) {
+            Employee employee = new Employee();
+            employee.setId(id);
+            employee.setName(name);
+            employee.setDepartment(departments.get(departmentId));
+            employees.add(employee);
+        }
+
+        @Override
+        public void mandatoryTraining(long employeeId, long trainingId) {
+            employees.get((int) employeeId - 1).getMandatoryTrainings().add(trainings.get(trainingId));
+        }
+
+        @Override
+        public void participant(long sessionId, long employeeId) {
+            // Only the employee side is needed by the report computation
+            employees.get((int) employeeId - 1).getAttendedSessions().add(sessions.get(sessionId));
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package de.chritox.mimir.benchmarks;
+
+import de.chritox.mimir.MimirApplication;
+import de.chritox.mimir.models.Department;
+import de.chritox.mimir.services.DataGeneratorService;
+import de.chritox.mimir.services.DepartmentService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrent clients requesting the printable training-needs report of every department over HTTP, with the
+ * application running on platform or on virtual threads. One operation is one round of requests, one per client;
+ * the request throughput is the score times the number of clients.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ConcurrentReportBenchmark {
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    @Param({"50", "400"})
+    private int clients;
+
+    private ConfigurableApplicationContext context;
+    private ExecutorService clientExecutor;
+    private HttpClient httpClient;
+    private List<URI> reports;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(MimirApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--spring.datasource.url=jdbc:h2:mem:concurrent-benchmarks",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.h2.console.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.de.chritox.mimir=WARN");
+
+        context.getBean(DataGeneratorService.class).generate(BenchmarkData.settings(10_000));
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        reports = new ArrayList<>();
+        for (Department department : context.getBean(DepartmentService.class).findAll()) {
+            reports.add(URI.create("http://localhost:" + port + "/reports/training-needs/print-department"
+                    + "?departmentId=" + department.getId() + "&targetDate=" + BenchmarkData.TODAY));
+        }
+        // Every client needs its own connection, the client side must not become the bottleneck
+        clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        httpClient = HttpClient.newBuilder().executor(clientExecutor).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        httpClient.close();
+        clientExecutor.shutdownNow();
+        context.close();
+    }
+
+    @Benchmark
+    public long requestReports() {
+        List<CompletableFuture<HttpResponse<byte[]>>> responses = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            HttpRequest request = HttpRequest.newBuilder(reports.get(i % reports.size())).GET().build();
+            responses.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()));
+        }
+        long bytes = 0;
+        for (CompletableFuture<HttpResponse<byte[]>> response : responses) {
+            HttpResponse<byte[]> result = response.join();
+            if (result.statusCode() != 200) {
+                throw new IllegalStateException("Unexpected status " + result.statusCode() + " for " + result.uri());
+            }
+            bytes += result.body().length;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,98 @@
+package de.chritox.mimir.benchmarks;
+
+import de.chritox.mimir.models.Employee;
+import de.chritox.mimir.models.Training;
+import de.chritox.mimir.models.TrainingSession;
+import de.chritox.mimir.services.ComplianceIndex;
+import de.chritox.mimir.services.DueDateKernel;
+import de.chritox.mimir.services.ReportMetrics;
+import de.chritox.mimir.services.ReportService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory due date computation of {@link ReportService#getDueTrainingsForEmployee} for every employee
+ * of the company, compared to the {@link DueDateKernel} writing into a reused buffer and to a scan of the
+ * {@link ComplianceIndex}. The twelve-month due timeline is the same scan bucketing every due date by month.
+ * One operation covers all employees of the dataset.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class DueTrainingsBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    private int employees;
+
+    private ReportService reportService;
+    private List<Employee> dataset;
+    private ComplianceIndex index;
+    private final DueDateKernel.Buffer buffer = new DueDateKernel.Buffer();
+    private final int today = DueDateKernel.toEpochDay(BenchmarkData.TODAY);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // The computation only uses the given employee, none of the collaborators
+        reportService = new ReportService(null, null, null, null, null,
+                new ReportMetrics(new SimpleMeterRegistry()));
+        dataset = BenchmarkData.employees(employees);
+
+        ComplianceIndex.Batch batch = new ComplianceIndex.Batch();
+        for (Employee employee : dataset) {
+            for (Training training : employee.getMandatoryTrainings()) {
+                LocalDate lastAttended = employee.getAttendedSessions().stream()
+                        .filter(session -> session.getTraining().getId().equals(training.getId()))
+                        .map(TrainingSession::getDate)
+                        .max(Comparator.naturalOrder())
+                        .orElse(null);
+                batch.add(employee.getId(), employee.getDepartment().getId(), training.getId(), training.getInterval(),
+                        lastAttended);
+            }
+        }
+        index = new ComplianceIndex();
+        index.replaceAll(batch);
+    }
+
+    @Benchmark
+    public void dueTrainingsForEmployee(Blackhole blackhole) {
+        for (Employee employee : dataset) {
+            blackhole.consume(reportService.getDueTrainingsForEmployee(employee, BenchmarkData.TODAY));
+        }
+    }
+
+    @Benchmark
+    public int dueTrainingsKernel() {
+        int due = 0;
+        for (Employee employee : dataset) {
+            due += DueDateKernel.computeDueTrainings(employee, today, buffer);
+        }
+        return due;
+    }
+
+    @Benchmark
+    public void dueTrainingsFromIndex(Blackhole blackhole) {
+        index.forEachDue(null, BenchmarkData.TODAY, (employeeId, trainingId, lastAttended, dueDate) -> {
+            blackhole.consume(employeeId);
+            blackhole.consume(trainingId);
+            blackhole.consume(dueDate);
+        });
+    }
+
+    @Benchmark
+    public void dueTimelineFromIndex(Blackhole blackhole) {
+        index.countDueByMonth(BenchmarkData.TODAY, 12, (departmentId, trainingId, counts) -> {
+            blackhole.consume(departmentId);
+            blackhole.consume(trainingId);
+            blackhole.consume(counts);
+        });
+    }
+}
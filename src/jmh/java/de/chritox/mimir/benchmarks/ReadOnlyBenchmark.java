@@ -0,0 +1,75 @@
+package de.chritox.mimir.benchmarks;
+
+import de.chritox.mimir.MimirApplication;
+import de.chritox.mimir.models.Department;
+import de.chritox.mimir.services.DataGeneratorService;
+import de.chritox.mimir.services.DepartmentService;
+import de.chritox.mimir.services.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading the employees of every department as entities, like the in-memory Excel export does, in a read-only
+ * transaction compared to a read-write one. The service methods join the surrounding transaction, so its
+ * read-only flag decides whether Hibernate keeps snapshots of the loaded entities and flushes on commit.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ReadOnlyBenchmark {
+
+    @Param({"1000", "10000"})
+    private int employees;
+
+    @Param({"true", "false"})
+    private boolean readOnly;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private EmployeeService employeeService;
+    private List<Long> departmentIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(MimirApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:read-only-benchmarks",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.de.chritox.mimir=WARN");
+
+        context.getBean(DataGeneratorService.class).generate(BenchmarkData.settings(employees));
+
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transactionTemplate.setReadOnly(readOnly);
+        employeeService = context.getBean(EmployeeService.class);
+        departmentIds = context.getBean(DepartmentService.class).findAll().stream().map(Department::getId).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int loadDepartmentEmployees() {
+        return transactionTemplate.execute(status -> {
+            int loaded = 0;
+            for (Long departmentId : departmentIds) {
+                loaded += employeeService.findByDepartmentId(departmentId).size();
+            }
+            return loaded;
+        });
+    }
+}
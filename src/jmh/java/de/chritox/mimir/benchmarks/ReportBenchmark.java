@@ -0,0 +1,88 @@
+package de.chritox.mimir.benchmarks;
+
+import de.chritox.mimir.MimirApplication;
+import de.chritox.mimir.controllers.ReportController;
+import de.chritox.mimir.services.DataGeneratorService;
+import de.chritox.mimir.services.ReportService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.ui.ExtendedModelMap;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Excel export and page rendering of the training-needs report against an in-memory database
+ * filled by the {@link DataGeneratorService}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ReportBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    private int employees;
+
+    private ConfigurableApplicationContext context;
+    private ReportService reportService;
+    private View trainingNeedsView;
+    private Map<String, Object> trainingNeedsModel;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = new SpringApplicationBuilder(MimirApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:benchmarks",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.h2.console.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.de.chritox.mimir=WARN");
+
+        context.getBean(DataGeneratorService.class).generate(BenchmarkData.settings(employees));
+
+        reportService = context.getBean(ReportService.class);
+
+        ExtendedModelMap model = new ExtendedModelMap();
+        String viewName = context.getBean(ReportController.class)
+                .trainingNeeds(null, BenchmarkData.TODAY.toString(), model);
+        trainingNeedsView = context.getBean("thymeleafViewResolver", ViewResolver.class)
+                .resolveViewName(viewName, Locale.GERMANY);
+        trainingNeedsModel = model;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] generateDepartmentTrainingReport() throws Exception {
+        return reportService.generateDepartmentTrainingReport(BenchmarkData.TODAY);
+    }
+
+    @Benchmark
+    public int renderTrainingNeeds() throws Exception {
+        WebApplicationContext webContext = (WebApplicationContext) context;
+        MockHttpServletRequest request =
+                new MockHttpServletRequest(webContext.getServletContext(), "GET", "/reports/training-needs");
+        request.setAttribute(DispatcherServlet.WEB_APPLICATION_CONTEXT_ATTRIBUTE, webContext);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        trainingNeedsView.render(trainingNeedsModel, request, response);
+        return response.getContentAsByteArray().length;
+    }
+}
@@ -0,0 +1,105 @@
+package de.chritox.mimir.benchmarks;
+
+import de.chritox.mimir.MimirApplication;
+import de.chritox.mimir.models.Employee;
+import de.chritox.mimir.models.Training;
+import de.chritox.mimir.models.TrainingSession;
+import de.chritox.mimir.services.DataGeneratorService;
+import de.chritox.mimir.services.EmployeeService;
+import de.chritox.mimir.services.ImportResult;
+import de.chritox.mimir.services.ImportService;
+import de.chritox.mimir.services.TrainingService;
+import de.chritox.mimir.services.TrainingSessionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Recording a session with its participants and importing employees, against an in-memory database filled by
+ * the {@link DataGeneratorService} with 10,000 employees. Every invocation writes new rows.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class WriteBenchmark {
+
+    /**
+     * Participants of the recorded session, or employees per imported file.
+     */
+    @Param({"10", "100", "1000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private EmployeeService employeeService;
+    private TrainingSessionService trainingSessionService;
+    private ImportService importService;
+    private Training training;
+    private List<Long> participantIds;
+    private String trainingTitles;
+    private int imports;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(MimirApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:write-benchmarks",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.de.chritox.mimir=WARN");
+
+        context.getBean(DataGeneratorService.class).generate(BenchmarkData.settings(10_000));
+
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        employeeService = context.getBean(EmployeeService.class);
+        trainingSessionService = context.getBean(TrainingSessionService.class);
+        importService = context.getBean(ImportService.class);
+        List<Training> trainings = context.getBean(TrainingService.class).findAll();
+        training = trainings.get(0);
+        trainingTitles = trainings.get(0).getTitle() + ", " + trainings.get(1).getTitle();
+        participantIds = LongStream.rangeClosed(1, rows).boxed().toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Long recordSession() {
+        return transactionTemplate.execute(status -> {
+            TrainingSession session = new TrainingSession();
+            session.setTraining(training);
+            session.setDate(BenchmarkData.TODAY);
+            List<Employee> participants = employeeService.findAllById(participantIds);
+            session.setParticipants(new HashSet<>(participants));
+            return trainingSessionService.save(session).getId();
+        });
+    }
+
+    @Benchmark
+    public ImportResult importEmployees() throws IOException {
+        StringBuilder csv = new StringBuilder("Name;Abteilung;Pflichtschulungen\n");
+        int file = imports++;
+        for (int i = 0; i < rows; i++) {
+            csv.append("Import ").append(file).append('-').append(i)
+                    .append(";Abteilung 1;").append(trainingTitles).append('\n');
+        }
+        return importService.importEmployees("mitarbeiter.csv",
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,30 @@
+package de.chritox.mimir.config;
+
+import de.chritox.mimir.services.ComplianceStatusService;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ComplianceStatusConfig {
+
+    /**
+     * Fills the compliance status table on the first start of a database that does not have it yet, and the
+     * in-memory index from it. Start with {@code --mimir.compliance.rebuild-on-startup=true} to recompute it after
+     * data was changed outside of the application. Runs once the migrations are applied but before the web server
+     * accepts requests, so no report is computed from an empty index.
+     */
+    @Bean
+    public SmartInitializingSingleton complianceStatusInitializer(
+            ComplianceStatusService complianceStatusService,
+            @Value("${mimir.compliance.rebuild-on-startup:false}") boolean rebuildOnStartup) {
+        return () -> {
+            if (rebuildOnStartup || complianceStatusService.count() == 0) {
+                complianceStatusService.rebuild();
+            } else {
+                complianceStatusService.loadIndex();
+            }
+        };
+    }
+}
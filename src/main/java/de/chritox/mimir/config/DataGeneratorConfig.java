@@ -0,0 +1,33 @@
+package de.chritox.mimir.config;
+
+import de.chritox.mimir.services.DataGenerator;
+import de.chritox.mimir.services.DataGeneratorService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.time.LocalDate;
+
+/**
+ * Fills an empty database with synthetic data for load and scale tests when started with
+ * {@code --spring.profiles.active=generate}. The size is set with the {@code mimir.generator.*} properties.
+ */
+@Configuration
+@Profile("generate")
+public class DataGeneratorConfig {
+
+    @Bean
+    public ApplicationRunner dataGenerator(
+            DataGeneratorService dataGeneratorService,
+            @Value("${mimir.generator.departments:20}") int departments,
+            @Value("${mimir.generator.employees:5000}") int employees,
+            @Value("${mimir.generator.trainings:30}") int trainings,
+            @Value("${mimir.generator.mandatory-trainings-per-employee:6}") int mandatoryTrainingsPerEmployee,
+            @Value("${mimir.generator.years:5}") int years,
+            @Value("${mimir.generator.seed:42}") long seed) {
+        return args -> dataGeneratorService.generate(new DataGenerator.Settings(
+                departments, employees, trainings, mandatoryTrainingsPerEmployee, years, seed, LocalDate.now()));
+    }
+}
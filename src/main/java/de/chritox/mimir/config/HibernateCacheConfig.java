@@ -0,0 +1,41 @@
+package de.chritox.mimir.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.spi.CachingProvider;
+import java.net.URISyntaxException;
+import java.net.URL;
+
+/**
+ * Cache manager of Hibernate's second-level cache, with the regions configured in {@code hibernate-cache.conf}.
+ * <p>
+ * The manager is created per application context. A caching provider looked up by Hibernate hands out one
+ * manager per class loader, so contexts running side by side, like integration tests with separate in-memory
+ * databases, would serve each other's cached entities.
+ */
+@Configuration
+public class HibernateCacheConfig {
+    private static final String CACHE_CONFIG = "hibernate-cache.conf";
+
+    @Bean(destroyMethod = "close")
+    public CachingProvider hibernateCachingProvider() {
+        return new CaffeineCachingProvider();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer cacheManagerCustomizer(CachingProvider hibernateCachingProvider)
+            throws URISyntaxException {
+        ClassLoader classLoader = getClass().getClassLoader();
+        URL config = classLoader.getResource(CACHE_CONFIG);
+        if (config == null) {
+            throw new IllegalStateException("Missing cache configuration " + CACHE_CONFIG);
+        }
+        CacheManager cacheManager = hibernateCachingProvider.getCacheManager(config.toURI(), classLoader);
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+    }
+}
@@ -0,0 +1,104 @@
+package de.chritox.mimir.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Records the number of SQL statements Hibernate prepares per request as {@code mimir.http.server.statements},
+ * tagged with the request's URI pattern.
+ * <p>
+ * Only statements prepared on the request thread are counted, including those of view rendering. Work handed to
+ * other threads, like the departments of the Excel export or a streamed response body, is not part of the count.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCounter());
+    }
+
+    @Override
+    public void addInterceptors(@NonNull InterceptorRegistry registry) {
+        // Web test slices come without a meter registry
+        meterRegistry.ifAvailable(meters -> registry.addInterceptor(new StatementCountInterceptor(meters))
+                .excludePathPatterns("/css/**", "/actuator/**", "/h2-console/**"));
+    }
+
+    /**
+     * Counts the statements prepared on the current thread while a count is running.
+     */
+    static class StatementCounter implements StatementInspector {
+        private static final ThreadLocal<long[]> COUNT = new ThreadLocal<>();
+
+        static void start() {
+            COUNT.set(new long[1]);
+        }
+
+        static long stop() {
+            long[] count = COUNT.get();
+            COUNT.remove();
+            return count != null ? count[0] : 0;
+        }
+
+        @Override
+        public String inspect(String sql) {
+            long[] count = COUNT.get();
+            if (count != null) {
+                count[0]++;
+            }
+            return sql;
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class StatementCountInterceptor implements AsyncHandlerInterceptor {
+        private final MeterRegistry meterRegistry;
+
+        @Override
+        public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                 @NonNull Object handler) {
+            StatementCounter.start();
+            return true;
+        }
+
+        @Override
+        public void afterConcurrentHandlingStarted(@NonNull HttpServletRequest request,
+                                                   @NonNull HttpServletResponse response, @NonNull Object handler) {
+            // The response is completed on another thread, record what the handler itself needed
+            record(request);
+        }
+
+        @Override
+        public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull Object handler, Exception ex) {
+            record(request);
+        }
+
+        private void record(HttpServletRequest request) {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder("mimir.http.server.statements")
+                    .description("SQL statements prepared by Hibernate per request")
+                    .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                    .register(meterRegistry)
+                    .record(StatementCounter.stop());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package de.chritox.mimir.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@EnableScheduling
+public class ReportConfig {
+
+    /**
+     * Bounded pool used to compute the rows of several departments in parallel during the Excel export.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService reportExecutor(@Value("${mimir.report.export-threads:4}") int threads,
+                                          Environment environment) {
+        return Executors.newFixedThreadPool(threads, threadFactory("report-", environment));
+    }
+
+    /**
+     * Runs the background export jobs. Jobs beyond the queue capacity are rejected instead of piling up.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService exportExecutor(@Value("${mimir.report.export-jobs.threads:2}") int threads,
+                                          @Value("${mimir.report.export-jobs.queue-capacity:20}") int queueCapacity,
+                                          Environment environment) {
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory("export-", environment));
+    }
+
+    /**
+     * Creates virtual threads if {@code spring.threads.virtual.enabled} is set. The pools keep their size either
+     * way, it bounds how many departments and exports use a database connection at the same time.
+     */
+    static ThreadFactory threadFactory(String prefix, Environment environment) {
+        return Threading.VIRTUAL.isActive(environment)
+                ? Thread.ofVirtual().name(prefix, 1).factory()
+                : new CustomizableThreadFactory(prefix);
+    }
+}
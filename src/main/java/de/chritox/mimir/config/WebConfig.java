@@ -6,11 +6,21 @@ import de.chritox.mimir.services.EmployeeService;
 import de.chritox.mimir.services.TrainingService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.CollectionFactory;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.convert.converter.ConditionalGenericConverter;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.format.FormatterRegistry;
 import org.springframework.lang.NonNull;
+import org.springframework.util.StringUtils;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
 @Configuration
 @RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
@@ -22,6 +32,9 @@ public class WebConfig implements WebMvcConfigurer {
     public void addFormatters(@NonNull FormatterRegistry registry) {
         registry.addConverter(new StringToTrainingConverter());
         registry.addConverter(new StringToEmployeeConverter());
+        // Multi-select fields like the participants of a session are resolved with one query for all ids
+        registry.addConverter(new IdsToEntitiesConverter<>(Training.class, trainingService::findAllById));
+        registry.addConverter(new IdsToEntitiesConverter<>(Employee.class, employeeService::findAllById));
     }
 
     private class StringToTrainingConverter implements Converter<String, Training> {
@@ -47,4 +60,56 @@ public class WebConfig implements WebMvcConfigurer {
             }
         }
     }
+
+    /**
+     * Converts the submitted ids of a multi-select field into a collection of entities, loading all of them at
+     * once instead of converting every id on its own. Ids that are not numeric or do not exist are skipped.
+     */
+    private static class IdsToEntitiesConverter<T> implements ConditionalGenericConverter {
+        private final Class<T> entityType;
+        private final Function<Collection<Long>, List<T>> findAllById;
+
+        IdsToEntitiesConverter(Class<T> entityType, Function<Collection<Long>, List<T>> findAllById) {
+            this.entityType = entityType;
+            this.findAllById = findAllById;
+        }
+
+        @Override
+        public Set<ConvertiblePair> getConvertibleTypes() {
+            // A single checked box is submitted as a plain string
+            return Set.of(new ConvertiblePair(String[].class, Collection.class),
+                    new ConvertiblePair(String.class, Collection.class));
+        }
+
+        @Override
+        public boolean matches(@NonNull TypeDescriptor sourceType, @NonNull TypeDescriptor targetType) {
+            TypeDescriptor elementType = targetType.getElementTypeDescriptor();
+            return elementType != null && entityType.isAssignableFrom(elementType.getType());
+        }
+
+        @Override
+        public Object convert(Object source, @NonNull TypeDescriptor sourceType, @NonNull TypeDescriptor targetType) {
+            if (source == null) {
+                return null;
+            }
+            String[] values = source instanceof String value
+                    ? StringUtils.commaDelimitedListToStringArray(value)
+                    : (String[]) source;
+            List<Long> ids = new ArrayList<>(values.length);
+            for (String value : values) {
+                try {
+                    ids.add(Long.parseLong(value.trim()));
+                } catch (NumberFormatException e) {
+                    // Skipped like an unknown id
+                }
+            }
+
+            Collection<Object> entities =
+                    CollectionFactory.createCollection(targetType.getType(), entityType, ids.size());
+            if (!ids.isEmpty()) {
+                entities.addAll(findAllById.apply(ids));
+            }
+            return entities;
+        }
+    }
 }
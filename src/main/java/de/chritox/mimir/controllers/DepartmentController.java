@@ -52,7 +52,7 @@ public class DepartmentController {
         Department department = departmentService.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Invalid department Id: " + id));
         model.addAttribute("department", department);
-        model.addAttribute("employees", employeeService.findByDepartmentId(id));
+        model.addAttribute("employees", employeeService.findRowsByDepartmentId(id));
         return "departments/detail";
     }
 }
@@ -1,14 +1,23 @@
 package de.chritox.mimir.controllers;
 
 import de.chritox.mimir.models.Employee;
+import de.chritox.mimir.repositories.EmployeeListItem;
 import de.chritox.mimir.services.DepartmentService;
 import de.chritox.mimir.services.EmployeeService;
 import de.chritox.mimir.services.TrainingService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Controller
 @RequestMapping("/employees")
 @RequiredArgsConstructor
@@ -18,8 +27,44 @@ public class EmployeeController {
     private final TrainingService trainingService;
 
     @GetMapping
-    public String list(Model model) {
-        model.addAttribute("employees", employeeService.findAll());
+    public String list(
+            @RequestParam(required = false) Long departmentId,
+            @RequestParam(required = false) Long trainingId,
+            @RequestParam(required = false) String afterName,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) String sort,
+            @PageableDefault(size = 50, sort = {"name", "id"}) Pageable pageable,
+            Model model) {
+        
+        if (afterId != null) {
+            // Keyset mode: continue after the given employee, independent of the page depth
+            Map<String, Object> keys = new HashMap<>();
+            keys.put("name", afterName);
+            keys.put("id", afterId);
+            Window<EmployeeListItem> window = employeeService.findWindow(departmentId, trainingId,
+                    ListSorts.withIdTieBreaker(pageable.getSort()), ScrollPosition.forward(keys),
+                    pageable.getPageSize());
+            model.addAttribute("employees", window.getContent());
+            if (window.hasNext() && !window.isEmpty()) {
+                model.addAttribute("next", window.getContent().get(window.size() - 1));
+            }
+        } else {
+            Page<EmployeeListItem> page = employeeService.findPage(departmentId, trainingId,
+                    ListSorts.withIdTieBreaker(pageable));
+            model.addAttribute("employees", page.getContent());
+            model.addAttribute("page", page);
+            if (page.hasNext()) {
+                // The next page continues in keyset mode, deep pages do not need an offset
+                model.addAttribute("next", page.getContent().get(page.getNumberOfElements() - 1));
+            }
+        }
+        
+        model.addAttribute("departments", departmentService.findAll());
+        model.addAttribute("trainings", trainingService.findAll());
+        model.addAttribute("selectedDepartmentId", departmentId);
+        model.addAttribute("selectedTrainingId", trainingId);
+        model.addAttribute("sort", sort);
+        model.addAttribute("pageSize", pageable.getPageSize());
         return "employees/list";
     }
 
@@ -33,7 +78,7 @@ public class EmployeeController {
 
     @GetMapping("/edit/{id}")
     public String showEditForm(@PathVariable Long id, Model model) {
-        Employee employee = employeeService.findById(id)
+        Employee employee = employeeService.findWithMandatoryTrainingsById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Invalid employee Id: " + id));
         model.addAttribute("employee", employee);
         model.addAttribute("departments", departmentService.findAll());
@@ -55,7 +100,7 @@ public class EmployeeController {
 
     @GetMapping("/{id}")
     public String detail(@PathVariable Long id, Model model) {
-        Employee employee = employeeService.findById(id)
+        Employee employee = employeeService.findWithComplianceDataById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Invalid employee Id: " + id));
         model.addAttribute("employee", employee);
         return "employees/detail";
@@ -0,0 +1,149 @@
+package de.chritox.mimir.controllers;
+
+import de.chritox.mimir.services.ExportJob;
+import de.chritox.mimir.services.ExportJobService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Background variant of the training-needs export: a job is started with a POST, its progress is polled or
+ * streamed as server-sent events and the finished workbook is downloaded later.
+ */
+@RestController
+@RequestMapping("/reports/training-needs/export/jobs")
+@RequiredArgsConstructor
+public class ExportJobController {
+    private static final Duration EVENTS_TIMEOUT = Duration.ofMinutes(30);
+
+    // Request attributes of Tomcat's sendfile support, which hands the file to the kernel after the handler returns
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String EXPIRED_MESSAGE = "Export ist nicht mehr verfügbar";
+
+    private final ExportJobService exportJobService;
+
+    @PostMapping
+    public ResponseEntity<ExportJob.Status> enqueue(
+            @RequestParam(required = false) Long departmentId,
+            @RequestParam(required = false) String targetDate) {
+
+        LocalDate date = targetDate != null && !targetDate.isEmpty()
+            ? LocalDate.parse(targetDate)
+            : LocalDate.now();
+
+        ExportJob job;
+        try {
+            job = exportJobService.enqueue(date, departmentId);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .build();
+        }
+
+        return ResponseEntity.accepted()
+                .location(URI.create("/reports/training-needs/export/jobs/" + job.getId()))
+                .body(job.getStatus());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ExportJob.Status> status(@PathVariable String id) {
+        return ResponseEntity.of(exportJobService.findById(id).map(ExportJob::getStatus));
+    }
+
+    /**
+     * Sends the status on every change until the job is finished.
+     */
+    @GetMapping(path = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> events(@PathVariable String id) {
+        Optional<ExportJob> job = exportJobService.findById(id);
+        if (job.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        SseEmitter emitter = new SseEmitter(EVENTS_TIMEOUT.toMillis());
+        Consumer<ExportJob.Status> subscriber = new Consumer<>() {
+            @Override
+            public void accept(ExportJob.Status status) {
+                try {
+                    emitter.send(SseEmitter.event().name("status").data(status, MediaType.APPLICATION_JSON));
+                    if (status.state() == ExportJob.State.DONE || status.state() == ExportJob.State.FAILED) {
+                        emitter.complete();
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // Client is gone
+                    job.get().unsubscribe(this);
+                }
+            }
+        };
+        emitter.onCompletion(() -> job.get().unsubscribe(subscriber));
+        emitter.onTimeout(() -> job.get().unsubscribe(subscriber));
+        job.get().subscribe(subscriber);
+        return ResponseEntity.ok(emitter);
+    }
+
+    @GetMapping("/{id}/download")
+    public void download(@PathVariable String id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Optional<ExportJob> job = exportJobService.findById(id);
+        if (job.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (!job.get().isDone()) {
+            response.sendError(HttpServletResponse.SC_CONFLICT, "Export ist noch nicht abgeschlossen");
+            return;
+        }
+
+        Optional<Path> file = exportJobService.download(job.get());
+        if (file.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_GONE, EXPIRED_MESSAGE);
+            return;
+        }
+
+        try {
+            long size = Files.size(file.get());
+            response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+            response.setContentLengthLong(size);
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    "attachment; filename=\"schulungsbedarf_" + job.get().getTargetDate() + ".xlsx\"");
+
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+                request.setAttribute(SENDFILE_FILENAME, file.get().toAbsolutePath().toString());
+                request.setAttribute(SENDFILE_START, 0L);
+                request.setAttribute(SENDFILE_END, size);
+            } else {
+                Files.copy(file.get(), response.getOutputStream());
+            }
+        } catch (NoSuchFileException e) {
+            // Deleted outside of the cleanup, e.g. with the temporary directory; nothing was written yet
+            response.reset();
+            response.sendError(HttpServletResponse.SC_GONE, EXPIRED_MESSAGE);
+        }
+    }
+}
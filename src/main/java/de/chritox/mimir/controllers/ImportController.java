@@ -0,0 +1,61 @@
+package de.chritox.mimir.controllers;
+
+import de.chritox.mimir.services.ImportResult;
+import de.chritox.mimir.services.ImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Upload of CSV or XLSX files with employees or attendance records, see {@link ImportService}.
+ */
+@Controller
+@RequestMapping("/import")
+@RequiredArgsConstructor
+public class ImportController {
+    private final ImportService importService;
+
+    @GetMapping
+    public String showForm() {
+        return "import/form";
+    }
+
+    @PostMapping("/employees")
+    public String importEmployees(@RequestParam MultipartFile file, Model model) {
+        return runImport(file, "Mitarbeiter", model, importService::importEmployees);
+    }
+
+    @PostMapping("/attendances")
+    public String importAttendances(@RequestParam MultipartFile file, Model model) {
+        return runImport(file, "Teilnahmen", model, importService::importAttendances);
+    }
+
+    private String runImport(MultipartFile file, String label, Model model, Importer importer) {
+        model.addAttribute("importLabel", label);
+        model.addAttribute("filename", file.getOriginalFilename());
+        if (file.isEmpty()) {
+            model.addAttribute("error", "Bitte eine Datei auswählen");
+            return "import/form";
+        }
+
+        try (InputStream inputStream = file.getInputStream()) {
+            model.addAttribute("result", importer.run(file.getOriginalFilename(), inputStream));
+        } catch (IllegalArgumentException | IOException e) {
+            model.addAttribute("error", e.getMessage());
+        }
+        return "import/form";
+    }
+
+    @FunctionalInterface
+    private interface Importer {
+        ImportResult run(String filename, InputStream inputStream) throws IOException;
+    }
+}
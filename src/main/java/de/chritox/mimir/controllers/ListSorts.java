@@ -0,0 +1,31 @@
+package de.chritox.mimir.controllers;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Sort orders of the paginated lists.
+ */
+final class ListSorts {
+
+    private ListSorts() {
+    }
+
+    /**
+     * Appends the id to the sort unless it is sorted by already, in the direction of the first order. Rows with
+     * equal names or dates then keep their position, so neither a page nor a keyset window skips or repeats them.
+     */
+    static Sort withIdTieBreaker(Sort sort) {
+        if (sort.getOrderFor("id") != null) {
+            return sort;
+        }
+        Sort.Direction direction = sort.stream().findFirst().map(Sort.Order::getDirection).orElse(Sort.Direction.ASC);
+        return sort.and(Sort.by(direction, "id"));
+    }
+
+    static Pageable withIdTieBreaker(Pageable pageable) {
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                withIdTieBreaker(pageable.getSort()));
+    }
+}
@@ -1,8 +1,12 @@
 package de.chritox.mimir.controllers;
 
 import de.chritox.mimir.models.Employee;
+import de.chritox.mimir.models.Department;
 import de.chritox.mimir.models.Training;
+import de.chritox.mimir.repositories.EmployeeRow;
+import de.chritox.mimir.services.ComplianceService;
 import de.chritox.mimir.services.DepartmentService;
+import de.chritox.mimir.services.DueTimeline;
 import de.chritox.mimir.services.EmployeeService;
 import de.chritox.mimir.services.ReportService;
 import lombok.RequiredArgsConstructor;
@@ -14,9 +18,11 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -25,9 +31,13 @@ import java.util.Map;
 @RequestMapping("/reports")
 @RequiredArgsConstructor
 public class ReportController {
+    /** Longest horizon of the due timeline, ten years. */
+    private static final int MAX_TIMELINE_MONTHS = 120;
+    
     private final DepartmentService departmentService;
     private final EmployeeService employeeService;
     private final ReportService reportService;
+    private final ComplianceService complianceService;
 
     @GetMapping("/training-needs")
     public String trainingNeeds(
@@ -46,14 +56,9 @@ public class ReportController {
         
         if (departmentId != null) {
             // Single department view
-            List<Employee> employees = employeeService.findByDepartmentId(departmentId);
-            
-            // Calculate due trainings for each employee
-            Map<Long, Map<Training, LocalDate>> employeeDueTrainings = new HashMap<>();
-            for (Employee employee : employees) {
-                Map<Training, LocalDate> dueTrainings = reportService.getDueTrainingsForEmployee(employee, date);
-                employeeDueTrainings.put(employee.getId(), dueTrainings);
-            }
+            List<EmployeeRow> employees = employeeService.findRowsByDepartmentId(departmentId);
+            Map<Long, Map<Training, LocalDate>> employeeDueTrainings =
+                    complianceService.getDueTrainingsForDepartment(departmentId, date);
             
             model.addAttribute("employees", employees);
             model.addAttribute("employeeDueTrainings", employeeDueTrainings);
@@ -61,23 +66,7 @@ public class ReportController {
                 departmentService.findById(departmentId).orElse(null));
         } else {
             // Show all departments
-            Map<Long, List<Employee>> departmentEmployees = new HashMap<>();
-            Map<Long, Map<Long, Map<Training, LocalDate>>> allDueTrainings = new HashMap<>();
-            
-            for (var department : allDepartments) {
-                List<Employee> employees = employeeService.findByDepartmentId(department.getId());
-                departmentEmployees.put(department.getId(), employees);
-                
-                Map<Long, Map<Training, LocalDate>> employeeDueTrainings = new HashMap<>();
-                for (Employee employee : employees) {
-                    Map<Training, LocalDate> dueTrainings = reportService.getDueTrainingsForEmployee(employee, date);
-                    employeeDueTrainings.put(employee.getId(), dueTrainings);
-                }
-                allDueTrainings.put(department.getId(), employeeDueTrainings);
-            }
-            
-            model.addAttribute("departmentEmployees", departmentEmployees);
-            model.addAttribute("allDueTrainings", allDueTrainings);
+            addAllDepartmentsDueTrainings(allDepartments, date, model);
         }
         
         return "reports/training-needs";
@@ -103,6 +92,69 @@ public class ReportController {
                 .body(excelData);
     }
     
+    @GetMapping("/training-needs/export/stream")
+    public ResponseEntity<StreamingResponseBody> streamTrainingNeeds(
+            @RequestParam(required = false) String targetDate) {
+        
+        LocalDate date = targetDate != null && !targetDate.isEmpty() 
+            ? LocalDate.parse(targetDate) 
+            : LocalDate.now();
+        
+        // Rows are written straight to the response while the workbook is being built
+        StreamingResponseBody body = outputStream -> reportService.writeDepartmentTrainingReport(date, outputStream);
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        headers.setContentDispositionFormData("attachment", 
+            "schulungsbedarf_" + date.toString() + ".xlsx");
+        
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(body);
+    }
+    
+    /**
+     * Forecast of the trainings becoming due per month, department and training, as JSON.
+     */
+    @GetMapping(path = "/timeline", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<DueTimeline> dueTimeline(
+            @RequestParam(required = false) String startDate,
+            @RequestParam(defaultValue = "12") int months) {
+        
+        if (months < 1 || months > MAX_TIMELINE_MONTHS) {
+            return ResponseEntity.badRequest().build();
+        }
+        LocalDate date = startDate != null && !startDate.isEmpty() 
+            ? LocalDate.parse(startDate) 
+            : LocalDate.now();
+        
+        return ResponseEntity.ok(complianceService.getDueTimeline(date, months));
+    }
+    
+    @GetMapping("/timeline/export")
+    public ResponseEntity<byte[]> exportDueTimeline(
+            @RequestParam(required = false) String startDate,
+            @RequestParam(defaultValue = "12") int months) throws IOException {
+        
+        if (months < 1 || months > MAX_TIMELINE_MONTHS) {
+            return ResponseEntity.badRequest().build();
+        }
+        LocalDate date = startDate != null && !startDate.isEmpty() 
+            ? LocalDate.parse(startDate) 
+            : LocalDate.now();
+        
+        byte[] excelData = reportService.generateDueTimelineReport(date, months);
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        headers.setContentDispositionFormData("attachment", 
+            "faelligkeiten_" + date.toString() + ".xlsx");
+        
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(excelData);
+    }
+    
     @GetMapping("/training-needs/print")
     public String printAllDepartments(
             @RequestParam(required = false) String targetDate,
@@ -112,27 +164,12 @@ public class ReportController {
             ? LocalDate.parse(targetDate) 
             : LocalDate.now();
         
-        model.addAttribute("departments", departmentService.findAll());
+        var allDepartments = departmentService.findAll();
+        model.addAttribute("departments", allDepartments);
         model.addAttribute("targetDate", date);
         
         // Calculate due trainings for all departments
-        Map<Long, List<Employee>> departmentEmployees = new HashMap<>();
-        Map<Long, Map<Long, Map<Training, LocalDate>>> allDueTrainings = new HashMap<>();
-        
-        for (var department : departmentService.findAll()) {
-            List<Employee> employees = employeeService.findByDepartmentId(department.getId());
-            departmentEmployees.put(department.getId(), employees);
-            
-            Map<Long, Map<Training, LocalDate>> employeeDueTrainings = new HashMap<>();
-            for (Employee employee : employees) {
-                Map<Training, LocalDate> dueTrainings = reportService.getDueTrainingsForEmployee(employee, date);
-                employeeDueTrainings.put(employee.getId(), dueTrainings);
-            }
-            allDueTrainings.put(department.getId(), employeeDueTrainings);
-        }
-        
-        model.addAttribute("departmentEmployees", departmentEmployees);
-        model.addAttribute("allDueTrainings", allDueTrainings);
+        addAllDepartmentsDueTrainings(allDepartments, date, model);
         
         return "reports/print-all";
     }
@@ -149,16 +186,16 @@ public class ReportController {
         
         var department = departmentService.findById(departmentId)
                 .orElseThrow(() -> new IllegalArgumentException("Invalid department Id: " + departmentId));
-        List<Employee> employees = employeeService.findByDepartmentId(departmentId);
+        List<EmployeeRow> employees = employeeService.findRowsByDepartmentId(departmentId);
         
-        // Calculate due trainings for each employee and count statistics
-        Map<Long, Map<Training, LocalDate>> employeeDueTrainings = new HashMap<>();
+        // Calculate due trainings for the department and count statistics
+        Map<Long, Map<Training, LocalDate>> employeeDueTrainings =
+                complianceService.getDueTrainingsForDepartment(departmentId, date);
         int employeesWithNeeds = 0;
         int overdueCount = 0;
         
-        for (Employee employee : employees) {
-            Map<Training, LocalDate> dueTrainings = reportService.getDueTrainingsForEmployee(employee, date);
-            employeeDueTrainings.put(employee.getId(), dueTrainings);
+        for (EmployeeRow employee : employees) {
+            Map<Training, LocalDate> dueTrainings = employeeDueTrainings.getOrDefault(employee.id(), Map.of());
             
             if (!dueTrainings.isEmpty()) {
                 employeesWithNeeds++;
@@ -190,12 +227,12 @@ public class ReportController {
             ? LocalDate.parse(targetDate) 
             : LocalDate.now();
         
-        model.addAttribute("employees", employeeService.findAll());
+        model.addAttribute("employees", employeeService.findAllRows());
         model.addAttribute("selectedEmployeeId", employeeId);
         model.addAttribute("targetDate", date);
         
         if (employeeId != null) {
-            Employee employee = employeeService.findById(employeeId)
+            Employee employee = employeeService.findWithComplianceDataById(employeeId)
                     .orElseThrow(() -> new IllegalArgumentException("Invalid employee Id: " + employeeId));
             
             Map<Training, LocalDate> dueTrainings = reportService.getDueTrainingsForEmployee(employee, date);
@@ -217,7 +254,7 @@ public class ReportController {
             ? LocalDate.parse(targetDate) 
             : LocalDate.now();
         
-        Employee employee = employeeService.findById(employeeId)
+        Employee employee = employeeService.findWithComplianceDataById(employeeId)
                 .orElseThrow(() -> new IllegalArgumentException("Invalid employee Id: " + employeeId));
         
         Map<Training, LocalDate> dueTrainings = reportService.getDueTrainingsForEmployee(employee, date);
@@ -234,4 +271,27 @@ public class ReportController {
         
         return "reports/print-employee";
     }
+    
+    private void addAllDepartmentsDueTrainings(List<Department> departments, LocalDate date, Model model) {
+        Map<Long, List<EmployeeRow>> departmentEmployees = new HashMap<>();
+        Map<Long, Map<Long, Map<Training, LocalDate>>> allDueTrainings = new HashMap<>();
+        for (Department department : departments) {
+            departmentEmployees.put(department.getId(), new ArrayList<>());
+            allDueTrainings.put(department.getId(), new HashMap<>());
+        }
+        
+        Map<Long, Map<Training, LocalDate>> dueTrainings = complianceService.getDueTrainings(date);
+        for (EmployeeRow employee : employeeService.findAllRows()) {
+            if (employee.departmentId() == null || !departmentEmployees.containsKey(employee.departmentId())) {
+                continue;
+            }
+            Long departmentId = employee.departmentId();
+            departmentEmployees.get(departmentId).add(employee);
+            allDueTrainings.get(departmentId).put(employee.id(),
+                    dueTrainings.getOrDefault(employee.id(), new HashMap<>()));
+        }
+        
+        model.addAttribute("departmentEmployees", departmentEmployees);
+        model.addAttribute("allDueTrainings", allDueTrainings);
+    }
 }
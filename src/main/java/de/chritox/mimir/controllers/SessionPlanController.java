@@ -0,0 +1,67 @@
+package de.chritox.mimir.controllers;
+
+import de.chritox.mimir.models.Employee;
+import de.chritox.mimir.models.TrainingSession;
+import de.chritox.mimir.services.SessionPlanner;
+import de.chritox.mimir.services.TrainingSessionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Proposes sessions for the employees due within a horizon, see {@link SessionPlanner}. The plan is previewed
+ * first and saved with a second request; both compute it from the same request body.
+ */
+@RestController
+@RequestMapping("/sessions/plan")
+@RequiredArgsConstructor
+public class SessionPlanController {
+    private final SessionPlanner sessionPlanner;
+    private final TrainingSessionService sessionService;
+
+    @PostMapping
+    public ResponseEntity<List<PlannedSession>> preview(@RequestBody SessionPlanner.Request request) {
+        List<TrainingSession> sessions;
+        try {
+            sessions = sessionPlanner.plan(request);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(sessions.stream().map(PlannedSession::of).toList());
+    }
+
+    /**
+     * Saves the proposed sessions in one transaction.
+     */
+    @PostMapping("/save")
+    public ResponseEntity<List<PlannedSession>> save(@RequestBody SessionPlanner.Request request) {
+        List<TrainingSession> sessions;
+        try {
+            sessions = sessionPlanner.plan(request);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<TrainingSession> saved = sessionService.saveAll(sessions);
+        return ResponseEntity.status(HttpStatus.CREATED).body(saved.stream().map(PlannedSession::of).toList());
+    }
+
+    /**
+     * A proposed or saved session; the id is {@code null} until it is saved.
+     */
+    public record PlannedSession(Long id, Long trainingId, String training, LocalDate date,
+                                 List<Long> participantIds) {
+
+        static PlannedSession of(TrainingSession session) {
+            return new PlannedSession(session.getId(), session.getTraining().getId(),
+                    session.getTraining().getTitle(), session.getDate(),
+                    session.getParticipants().stream().map(Employee::getId).sorted().toList());
+        }
+    }
+}
@@ -1,14 +1,26 @@
 package de.chritox.mimir.controllers;
 
 import de.chritox.mimir.models.TrainingSession;
+import de.chritox.mimir.repositories.TrainingSessionListItem;
+import de.chritox.mimir.services.DepartmentService;
 import de.chritox.mimir.services.EmployeeService;
 import de.chritox.mimir.services.TrainingService;
 import de.chritox.mimir.services.TrainingSessionService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
 @Controller
 @RequestMapping("/sessions")
 @RequiredArgsConstructor
@@ -16,10 +28,54 @@ public class TrainingSessionController {
     private final TrainingSessionService sessionService;
     private final TrainingService trainingService;
     private final EmployeeService employeeService;
+    private final DepartmentService departmentService;
 
     @GetMapping
-    public String list(Model model) {
-        model.addAttribute("sessions", sessionService.findAll());
+    public String list(
+            @RequestParam(required = false) Long trainingId,
+            @RequestParam(required = false) Long departmentId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String afterDate,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) String sort,
+            @PageableDefault(size = 50, sort = {"date", "id"}, direction = Sort.Direction.DESC) Pageable pageable,
+            Model model) {
+        
+        LocalDate fromDate = from != null && !from.isEmpty() ? LocalDate.parse(from) : null;
+        LocalDate toDate = to != null && !to.isEmpty() ? LocalDate.parse(to) : null;
+        
+        if (afterId != null) {
+            // Keyset mode: continue after the given session, independent of the page depth
+            Map<String, Object> keys = new HashMap<>();
+            keys.put("date", afterDate != null && !afterDate.isEmpty() ? LocalDate.parse(afterDate) : null);
+            keys.put("id", afterId);
+            Window<TrainingSessionListItem> window = sessionService.findWindow(trainingId, departmentId,
+                    fromDate, toDate, ListSorts.withIdTieBreaker(pageable.getSort()), ScrollPosition.forward(keys),
+                    pageable.getPageSize());
+            model.addAttribute("sessions", window.getContent());
+            if (window.hasNext() && !window.isEmpty()) {
+                model.addAttribute("next", window.getContent().get(window.size() - 1));
+            }
+        } else {
+            Page<TrainingSessionListItem> page = sessionService.findPage(trainingId, departmentId,
+                    fromDate, toDate, ListSorts.withIdTieBreaker(pageable));
+            model.addAttribute("sessions", page.getContent());
+            model.addAttribute("page", page);
+            if (page.hasNext()) {
+                // The next page continues in keyset mode, deep pages do not need an offset
+                model.addAttribute("next", page.getContent().get(page.getNumberOfElements() - 1));
+            }
+        }
+        
+        model.addAttribute("trainings", trainingService.findAll());
+        model.addAttribute("departments", departmentService.findAll());
+        model.addAttribute("selectedTrainingId", trainingId);
+        model.addAttribute("selectedDepartmentId", departmentId);
+        model.addAttribute("from", fromDate);
+        model.addAttribute("to", toDate);
+        model.addAttribute("sort", sort);
+        model.addAttribute("pageSize", pageable.getPageSize());
         return "sessions/list";
     }
 
@@ -27,17 +83,17 @@ public class TrainingSessionController {
     public String showCreateForm(Model model) {
         model.addAttribute("trainingSession", new TrainingSession());
         model.addAttribute("trainings", trainingService.findAll());
-        model.addAttribute("employees", employeeService.findAll());
+        model.addAttribute("employees", employeeService.findAllRows());
         return "sessions/form";
     }
 
     @GetMapping("/edit/{id}")
     public String showEditForm(@PathVariable Long id, Model model) {
-        TrainingSession trainingSession = sessionService.findById(id)
+        TrainingSession trainingSession = sessionService.findWithParticipantsById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Invalid session Id: " + id));
         model.addAttribute("trainingSession", trainingSession);
         model.addAttribute("trainings", trainingService.findAll());
-        model.addAttribute("employees", employeeService.findAll());
+        model.addAttribute("employees", employeeService.findAllRows());
         return "sessions/form";
     }
 
@@ -55,7 +111,7 @@ public class TrainingSessionController {
 
     @GetMapping("/{id}")
     public String detail(@PathVariable Long id, Model model) {
-        TrainingSession trainingSession = sessionService.findById(id)
+        TrainingSession trainingSession = sessionService.findWithParticipantsById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Invalid session Id: " + id));
         model.addAttribute("trainingSession", trainingSession);
         return "sessions/detail";
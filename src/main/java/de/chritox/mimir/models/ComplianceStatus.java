@@ -0,0 +1,56 @@
+package de.chritox.mimir.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Materialized compliance state of one mandatory training of one employee.
+ * <p>
+ * Rows are maintained by {@code ComplianceStatusService} and can always be rebuilt from the
+ * mandatory trainings and attended sessions.
+ */
+@Entity
+@Table(name = "compliance_status")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString(exclude = {"employee", "training"})
+@EqualsAndHashCode(of = "id")
+public class ComplianceStatus {
+    /**
+     * Next due date of trainings that were never attended; sorts before every real target date.
+     */
+    public static final LocalDate DUE_IMMEDIATELY = LocalDate.EPOCH;
+
+    @EmbeddedId
+    private Key id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @MapsId("employeeId")
+    @JoinColumn(name = "employee_id")
+    private Employee employee;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @MapsId("trainingId")
+    @JoinColumn(name = "training_id")
+    private Training training;
+
+    private LocalDate lastAttended;
+
+    /**
+     * {@link #DUE_IMMEDIATELY} if never attended, {@code null} if never due again.
+     */
+    private LocalDate nextDue;
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long employeeId;
+        private Long trainingId;
+    }
+}
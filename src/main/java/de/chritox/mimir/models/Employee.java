@@ -14,7 +14,7 @@ import java.util.Set;
 @EqualsAndHashCode(exclude = {"mandatoryTrainings", "attendedSessions"})
 public class Employee {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     private Long id;
 
     private String name;
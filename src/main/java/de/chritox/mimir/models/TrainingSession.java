@@ -15,7 +15,7 @@ import java.util.Set;
 @EqualsAndHashCode(exclude = {"participants"})
 public class TrainingSession {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     private Long id;
 
     @ManyToOne
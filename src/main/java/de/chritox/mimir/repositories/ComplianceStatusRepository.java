@@ -0,0 +1,25 @@
+package de.chritox.mimir.repositories;
+
+import de.chritox.mimir.models.ComplianceStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface ComplianceStatusRepository extends JpaRepository<ComplianceStatus, ComplianceStatus.Key> {
+
+    @Modifying
+    @Query("delete from ComplianceStatus c where c.id.employeeId in :employeeIds")
+    void deleteByEmployeeIds(Collection<Long> employeeIds);
+
+    @Modifying
+    @Query("delete from ComplianceStatus c where c.id.trainingId in :trainingIds and c.id.employeeId in :employeeIds")
+    void deleteByTrainingIdsAndEmployeeIds(Collection<Long> trainingIds, Collection<Long> employeeIds);
+
+    @Modifying
+    @Query("delete from ComplianceStatus c where c.id.trainingId = :trainingId")
+    void deleteByTrainingId(Long trainingId);
+}
@@ -0,0 +1,7 @@
+package de.chritox.mimir.repositories;
+
+/**
+ * Read-only projection of a row of the employee list.
+ */
+public record EmployeeListItem(Long id, String name, String departmentName, int mandatoryTrainingCount) {
+}
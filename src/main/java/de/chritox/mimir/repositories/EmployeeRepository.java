@@ -1,12 +1,71 @@
 package de.chritox.mimir.repositories;
 
 import de.chritox.mimir.models.Employee;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, JpaSpecificationExecutor<Employee> {
+    @Override
+    @EntityGraph(attributePaths = "department")
+    List<Employee> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = "department")
+    List<Employee> findAllById(Iterable<Long> ids);
+
+    @EntityGraph(attributePaths = "department")
     List<Employee> findByDepartmentId(Long departmentId);
+
+    /**
+     * Loads an employee together with everything needed to compute its due trainings,
+     * so that {@code ReportService.getDueTrainingsForEmployee} does not trigger lazy loading.
+     */
+    @EntityGraph(attributePaths = {"department", "mandatoryTrainings", "attendedSessions", "attendedSessions.training"})
+    @Query("select e from Employee e where e.id = :id")
+    Optional<Employee> findWithComplianceDataById(Long id);
+
+    /**
+     * Loads an employee together with the associations bound by the employee form.
+     */
+    @EntityGraph(attributePaths = {"department", "mandatoryTrainings"})
+    @Query("select e from Employee e where e.id = :id")
+    Optional<Employee> findWithMandatoryTrainingsById(Long id);
+
+    @Query("select new de.chritox.mimir.repositories.EmployeeRow(e.id, e.name, d.id, d.name) " +
+            "from Employee e left join e.department d")
+    List<EmployeeRow> findAllRows();
+
+    @Query("select new de.chritox.mimir.repositories.EmployeeRow(e.id, e.name, d.id, d.name) " +
+            "from Employee e join e.department d where d.id = :departmentId")
+    List<EmployeeRow> findRowsByDepartmentId(Long departmentId);
+
+    @Query("select new de.chritox.mimir.repositories.EmployeeListItem(" +
+            "e.id, e.name, d.name, size(e.mandatoryTrainings)) " +
+            "from Employee e left join e.department d where e.id in :ids")
+    List<EmployeeListItem> findListItemsByIdIn(Collection<Long> ids);
+
+    long countByDepartmentId(Long departmentId);
+
+    @Query("select distinct e.department.id from Employee e where e.id in :ids and e.department is not null")
+    List<Long> findDepartmentIds(Collection<Long> ids);
+
+    /**
+     * Scrolls through the employees of a department without loading them into the persistence context.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select e.id as id, e.name as name from Employee e where e.department.id = :departmentId order by e.id")
+    Stream<EmployeeSummary> streamByDepartmentId(Long departmentId);
 }
@@ -0,0 +1,7 @@
+package de.chritox.mimir.repositories;
+
+/**
+ * Read-only projection of an employee with the name of its department, for reports and selection lists.
+ */
+public record EmployeeRow(Long id, String name, Long departmentId, String departmentName) {
+}
@@ -0,0 +1,25 @@
+package de.chritox.mimir.repositories;
+
+import de.chritox.mimir.models.Employee;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Filters for the employee list. Every filter is a no-op if its argument is {@code null}.
+ */
+public final class EmployeeSpecifications {
+
+    private EmployeeSpecifications() {
+    }
+
+    public static Specification<Employee> inDepartment(Long departmentId) {
+        return (root, query, cb) -> departmentId == null
+                ? null
+                : cb.equal(root.get("department").get("id"), departmentId);
+    }
+
+    public static Specification<Employee> hasMandatoryTraining(Long trainingId) {
+        return (root, query, cb) -> trainingId == null
+                ? null
+                : cb.equal(root.join("mandatoryTrainings").get("id"), trainingId);
+    }
+}
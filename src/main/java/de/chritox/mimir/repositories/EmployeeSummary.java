@@ -0,0 +1,10 @@
+package de.chritox.mimir.repositories;
+
+/**
+ * Read-only projection of the employee columns needed to render a report row.
+ */
+public interface EmployeeSummary {
+    Long getId();
+
+    String getName();
+}
@@ -0,0 +1,7 @@
+package de.chritox.mimir.repositories;
+
+/**
+ * Read-only projection of a participant of a session together with the session's training.
+ */
+public record SessionParticipant(Long trainingId, Long employeeId) {
+}
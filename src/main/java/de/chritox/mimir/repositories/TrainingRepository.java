@@ -1,9 +1,20 @@
 package de.chritox.mimir.repositories;
 
 import de.chritox.mimir.models.Training;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface TrainingRepository extends JpaRepository<Training, Long> {
+    /**
+     * Served from the query cache until a training is written.
+     */
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Training> findAll();
 }
@@ -0,0 +1,9 @@
+package de.chritox.mimir.repositories;
+
+import java.time.LocalDate;
+
+/**
+ * Read-only projection of a row of the session lists.
+ */
+public record TrainingSessionListItem(Long id, LocalDate date, String trainingTitle, int participantCount) {
+}
@@ -1,14 +1,45 @@
 package de.chritox.mimir.repositories;
 
 import de.chritox.mimir.models.TrainingSession;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface TrainingSessionRepository extends JpaRepository<TrainingSession, Long> {
+public interface TrainingSessionRepository extends JpaRepository<TrainingSession, Long>, JpaSpecificationExecutor<TrainingSession> {
     List<TrainingSession> findByTrainingId(Long trainingId);
-    List<TrainingSession> findByDateAfter(LocalDate date);
+
+    /**
+     * Loads a session together with its training and its participants' departments.
+     */
+    @EntityGraph(attributePaths = {"training", "participants", "participants.department"})
+    @Query("select s from TrainingSession s where s.id = :id")
+    Optional<TrainingSession> findWithParticipantsById(Long id);
+
+    @Query("select new de.chritox.mimir.repositories.TrainingSessionListItem(" +
+            "s.id, s.date, t.title, size(s.participants)) " +
+            "from TrainingSession s left join s.training t where s.id in :ids")
+    List<TrainingSessionListItem> findListItemsByIdIn(Collection<Long> ids);
+
+    @Query("select new de.chritox.mimir.repositories.TrainingSessionListItem(" +
+            "s.id, s.date, t.title, size(s.participants)) " +
+            "from TrainingSession s left join s.training t where s.date > :date order by s.date, s.id")
+    List<TrainingSessionListItem> findListItemsByDateAfter(LocalDate date);
+
+    @Query("select p.id from TrainingSession s join s.participants p where s.id = :sessionId")
+    List<Long> findParticipantIds(Long sessionId);
+
+    @Query("select s.training.id from TrainingSession s where s.id = :sessionId")
+    Optional<Long> findTrainingId(Long sessionId);
+
+    @Query("select new de.chritox.mimir.repositories.SessionParticipant(s.training.id, p.id) " +
+            "from TrainingSession s join s.participants p where s.id in :sessionIds")
+    List<SessionParticipant> findParticipantsBySessionIdIn(Collection<Long> sessionIds);
 }
@@ -0,0 +1,43 @@
+package de.chritox.mimir.repositories;
+
+import de.chritox.mimir.models.TrainingSession;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+/**
+ * Filters for the session list. Every filter is a no-op if its argument is {@code null}.
+ */
+public final class TrainingSessionSpecifications {
+
+    private TrainingSessionSpecifications() {
+    }
+
+    public static Specification<TrainingSession> forTraining(Long trainingId) {
+        return (root, query, cb) -> trainingId == null
+                ? null
+                : cb.equal(root.get("training").get("id"), trainingId);
+    }
+
+    public static Specification<TrainingSession> withParticipantFromDepartment(Long departmentId) {
+        return (root, query, cb) -> {
+            if (departmentId == null) {
+                return null;
+            }
+            query.distinct(true);
+            return cb.equal(root.join("participants").get("department").get("id"), departmentId);
+        };
+    }
+
+    public static Specification<TrainingSession> onOrAfter(LocalDate from) {
+        return (root, query, cb) -> from == null
+                ? null
+                : cb.greaterThanOrEqualTo(root.get("date"), from);
+    }
+
+    public static Specification<TrainingSession> onOrBefore(LocalDate to) {
+        return (root, query, cb) -> to == null
+                ? null
+                : cb.lessThanOrEqualTo(root.get("date"), to);
+    }
+}
@@ -0,0 +1,12 @@
+package de.chritox.mimir.repositories;
+
+import java.time.LocalDate;
+
+/**
+ * Read-only projection of the session columns the session list is sorted and scrolled by.
+ */
+public interface TrainingSessionSummary {
+    Long getId();
+
+    LocalDate getDate();
+}
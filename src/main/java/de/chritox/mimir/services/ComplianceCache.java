@@ -0,0 +1,97 @@
+package de.chritox.mimir.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caches the results of {@link ComplianceService} per department, or the whole company, and target date.
+ * <p>
+ * Entries are bounded in number and age. The writing services evict the departments affected by a change;
+ * evictions run after the transaction has committed and the {@link ComplianceIndex} was updated, so a
+ * concurrent reader cannot cache the state before the commit again. A result computed while an eviction happened
+ * is returned but not cached. Hits and misses are published as the {@code cache.gets} metric of the
+ * {@code compliance} cache.
+ */
+@Component
+public class ComplianceCache implements MeterBinder {
+
+    enum View {
+        DUE_DATES, DETAILS
+    }
+
+    private final Cache<Key, Object> cache;
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ComplianceCache(@Value("${mimir.compliance.cache.maximum-size:1000}") long maximumSize,
+                           @Value("${mimir.compliance.cache.time-to-live:10m}") Duration timeToLive) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached result for the given department ({@code null} for the whole company) and target date,
+     * computing and caching it if absent.
+     */
+    @SuppressWarnings("unchecked")
+    <T> T get(View view, Long departmentId, LocalDate targetDate, Supplier<T> loader) {
+        Key key = new Key(view, departmentId, targetDate);
+        T result = (T) cache.getIfPresent(key);
+        if (result == null) {
+            long evictionsBefore = evictions.get();
+            result = loader.get();
+            cache.put(key, result);
+            if (evictions.get() != evictionsBefore) {
+                // The result may have been computed from the state before the eviction
+                cache.invalidate(key);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Evicts the results of the given departments and of the whole company once the current transaction commits.
+     */
+    public void evictDepartments(Collection<Long> departmentIds) {
+        Set<Long> evicted = Set.copyOf(departmentIds);
+        afterCommit(() -> cache.asMap().keySet()
+                .removeIf(key -> key.departmentId() == null || evicted.contains(key.departmentId())));
+    }
+
+    /**
+     * Evicts all results once the current transaction commits.
+     */
+    public void evictAll() {
+        afterCommit(cache::invalidateAll);
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "compliance");
+    }
+
+    private void afterCommit(Runnable eviction) {
+        TransactionCallbacks.afterCommit(() -> {
+            evictions.incrementAndGet();
+            eviction.run();
+        });
+    }
+
+    private record Key(View view, Long departmentId, LocalDate targetDate) {
+    }
+}
@@ -0,0 +1,61 @@
+package de.chritox.mimir.services;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Domain events of changes that affect the due trainings, published by the writing services within their
+ * transaction. {@link ComplianceStatusService} recomputes the affected rows of the compliance status table right
+ * away and updates the {@link ComplianceIndex} once per transaction, after it has committed.
+ */
+public sealed interface ComplianceChange {
+
+    /**
+     * A session was saved or deleted. Only the given trainings of the given participants are affected: the
+     * session's training and participants before and after the change.
+     */
+    record SessionChanged(Set<Long> trainingIds, Set<Long> participantIds) implements ComplianceChange {
+        public SessionChanged {
+            trainingIds = Set.copyOf(trainingIds);
+            participantIds = Set.copyOf(participantIds);
+        }
+    }
+
+    /**
+     * Employees were created, or their mandatory trainings or department changed.
+     */
+    record MandatoryTrainingsChanged(Set<Long> employeeIds) implements ComplianceChange {
+        public MandatoryTrainingsChanged {
+            employeeIds = Set.copyOf(employeeIds);
+        }
+    }
+
+    /**
+     * Employees attended trainings later than recorded so far, e.g. during a bulk import. The other trainings of
+     * the employees are not affected.
+     */
+    record Attended(List<Attendance> attendances) implements ComplianceChange {
+        public Attended {
+            attendances = List.copyOf(attendances);
+        }
+    }
+
+    record IntervalChanged(Long trainingId) implements ComplianceChange {
+    }
+
+    /**
+     * Published before the employee is deleted.
+     */
+    record EmployeeDeleted(Long employeeId) implements ComplianceChange {
+    }
+
+    /**
+     * Published before the training is deleted.
+     */
+    record TrainingDeleted(Long trainingId) implements ComplianceChange {
+    }
+
+    record Attendance(long employeeId, long trainingId, LocalDate date) {
+    }
+}
@@ -0,0 +1,510 @@
+package de.chritox.mimir.services;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory copy of the compliance status table that answers due date queries without the database.
+ * <p>
+ * Every employee with mandatory trainings has one packed {@code int[]} row with three values per training: the
+ * training's slot, the epoch day of the last attendance and the epoch day on which the training is due next.
+ * Employee and training ids are mapped to their slots by primitive hash maps, and the interval of every training
+ * is kept in an {@code int[]} by slot. A query walks the rows and compares integers, it allocates nothing but its
+ * results.
+ * <p>
+ * {@link ComplianceStatusService} loads the index on startup and updates it whenever the table changed.
+ * Queries and updates are separated by a read-write lock.
+ */
+@Component
+public class ComplianceIndex implements MeterBinder {
+    /**
+     * Last attendance passed to a {@link DueConsumer} for trainings that were never attended.
+     */
+    public static final int NEVER_ATTENDED = DueDateKernel.NEVER_ATTENDED;
+
+    /** Next due date of trainings that were never attended; sorts before every target date. */
+    private static final int DUE_IMMEDIATELY = Integer.MIN_VALUE;
+    /** Next due date of attended trainings without interval. */
+    private static final int NEVER_DUE = Integer.MAX_VALUE;
+    private static final int NO_INTERVAL = DueDateKernel.NO_INTERVAL;
+    private static final long NO_DEPARTMENT = 0;
+    /** Values per training in a row: training slot, last attendance, next due date. */
+    private static final int FIELDS = 3;
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final LongIntHashMap trainingSlots = new LongIntHashMap();
+    private long[] trainingIds = new long[16];
+    private int[] intervals = new int[16];
+    private int trainingCount;
+
+    private final LongIntHashMap employeeSlots = new LongIntHashMap(INITIAL_CAPACITY);
+    private long[] employeeIds = new long[INITIAL_CAPACITY];
+    private long[] departmentIds = new long[INITIAL_CAPACITY];
+    private int[][] rows = new int[INITIAL_CAPACITY][];
+    private int employeeCount;
+
+    /**
+     * Receives the due trainings of a query. Dates are epoch days.
+     */
+    @FunctionalInterface
+    public interface DueConsumer {
+        /**
+         * @param lastAttended the last attendance, or {@link #NEVER_ATTENDED}
+         * @param dueDate      the date on which the training is or was due; the target date if never attended
+         */
+        void accept(long employeeId, long trainingId, int lastAttended, int dueDate);
+    }
+
+    /**
+     * Receives the due counts of a timeline, one call per department and training with due trainings.
+     */
+    @FunctionalInterface
+    public interface DueCountConsumer {
+        /**
+         * @param departmentId the department, or {@code null} for employees without department
+         * @param counts       the number of trainings overdue on the start date, followed by the number due in
+         *                     every month of the horizon; only valid during the call
+         */
+        void accept(Long departmentId, long trainingId, int[] counts);
+    }
+
+    /**
+     * Passes every mandatory training that is due on or before the target date to the consumer, of the employees
+     * of the given department or of all employees if {@code departmentId} is {@code null}. Trainings are passed
+     * per employee in the order of their ids. The consumer runs while the index is locked for reading.
+     */
+    public void forEachDue(Long departmentId, LocalDate targetDate, DueConsumer consumer) {
+        boolean allDepartments = departmentId == null;
+        long department = allDepartments ? NO_DEPARTMENT : departmentId;
+        int target = DueDateKernel.toEpochDay(targetDate);
+        lock.readLock().lock();
+        try {
+            for (int slot = 0; slot < employeeCount; slot++) {
+                if (!allDepartments && departmentIds[slot] != department) {
+                    continue;
+                }
+                int[] row = rows[slot];
+                for (int i = 0; i < row.length; i += FIELDS) {
+                    int nextDue = row[i + 2];
+                    if (nextDue <= target) {
+                        consumer.accept(employeeIds[slot], trainingIds[row[i]], row[i + 1],
+                                nextDue == DUE_IMMEDIATELY ? target : nextDue);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the mandatory trainings that become due within a number of calendar months, starting with the month
+     * of the start date, per department and training in a single pass over the index. Trainings due before the
+     * start date, including the ones never attended, are counted as overdue. Only the next due date of every
+     * training is counted, later repetitions depend on when it will actually be attended.
+     * The consumer runs while the index is locked for reading.
+     */
+    public void countDueByMonth(LocalDate startDate, int months, DueCountConsumer consumer) {
+        if (months < 1) {
+            throw new IllegalArgumentException("Invalid number of months: " + months);
+        }
+        int start = DueDateKernel.toEpochDay(startDate);
+        int firstOfMonth = DueDateKernel.toEpochDay(startDate.withDayOfMonth(1));
+        int end = DueDateKernel.addMonths(firstOfMonth, months);
+        // Bucket of every day of the horizon, a lookup is cheaper than searching the month of every due date
+        int[] buckets = new int[end - firstOfMonth];
+        for (int month = 0; month < months; month++) {
+            int monthStart = Math.max(DueDateKernel.addMonths(firstOfMonth, month), start);
+            int monthEnd = DueDateKernel.addMonths(firstOfMonth, month + 1);
+            Arrays.fill(buckets, monthStart - firstOfMonth, monthEnd - firstOfMonth, month + 1);
+        }
+        lock.readLock().lock();
+        try {
+            // Counts by department and training slot, the first department holds the employees without one
+            LongIntHashMap departmentSlots = new LongIntHashMap();
+            List<Long> departments = new ArrayList<>();
+            List<int[][]> counts = new ArrayList<>();
+            departments.add(null);
+            counts.add(new int[trainingCount][]);
+            for (int slot = 0; slot < employeeCount; slot++) {
+                int[] row = rows[slot];
+                int[][] departmentCounts = null;
+                for (int i = 0; i < row.length; i += FIELDS) {
+                    int nextDue = row[i + 2];
+                    if (nextDue >= end) {
+                        continue;
+                    }
+                    if (departmentCounts == null) {
+                        departmentCounts = departmentCounts(departmentIds[slot], departmentSlots, departments, counts);
+                    }
+                    int[] trainingCounts = departmentCounts[row[i]];
+                    if (trainingCounts == null) {
+                        trainingCounts = departmentCounts[row[i]] = new int[months + 1];
+                    }
+                    // Days before the start date are in the overdue bucket 0
+                    trainingCounts[nextDue < firstOfMonth ? 0 : buckets[nextDue - firstOfMonth]]++;
+                }
+            }
+            for (int department = 0; department < counts.size(); department++) {
+                int[][] departmentCounts = counts.get(department);
+                Long departmentId = departments.get(department);
+                for (int training = 0; training < departmentCounts.length; training++) {
+                    if (departmentCounts[training] != null) {
+                        consumer.accept(departmentId, trainingIds[training], departmentCounts[training]);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Discards the index and fills it from the given batch.
+     */
+    public void replaceAll(Batch batch) {
+        lock.writeLock().lock();
+        try {
+            trainingSlots.clear();
+            trainingCount = 0;
+            employeeSlots.clear();
+            int capacity = Math.max(INITIAL_CAPACITY, batch.employees);
+            employeeIds = new long[capacity];
+            departmentIds = new long[capacity];
+            rows = new int[capacity][];
+            employeeCount = 0;
+            putAll(batch, false);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the rows of the given employees by the ones in the batch. Employees that are not contained in the
+     * batch have no mandatory trainings, or no longer exist, and are removed.
+     */
+    public void replaceEmployees(Collection<Long> changedEmployeeIds, Batch batch) {
+        lock.writeLock().lock();
+        try {
+            changedEmployeeIds.forEach(this::removeEmployee);
+            putAll(batch, false);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces one training in the rows of the given employees by the rows in the batch, which must only contain
+     * that training. The other trainings of the employees are kept, the row stays ordered by training id.
+     */
+    public void replaceTraining(long trainingId, Collection<Long> changedEmployeeIds, Batch batch) {
+        lock.writeLock().lock();
+        try {
+            int training = trainingSlots.get(trainingId);
+            if (training != LongIntHashMap.MISSING) {
+                for (Long employeeId : changedEmployeeIds) {
+                    int employee = employeeSlots.get(employeeId);
+                    if (employee != LongIntHashMap.MISSING) {
+                        rows[employee] = withoutTraining(rows[employee], training);
+                    }
+                }
+            }
+            putAll(batch, true);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeEmployees(Collection<Long> removedEmployeeIds) {
+        lock.writeLock().lock();
+        try {
+            removedEmployeeIds.forEach(this::removeEmployee);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Changes the interval of a training and recomputes its next due dates.
+     */
+    public void updateInterval(long trainingId, Integer interval) {
+        lock.writeLock().lock();
+        try {
+            int slot = trainingSlots.get(trainingId);
+            if (slot == LongIntHashMap.MISSING) {
+                return;
+            }
+            int months = interval != null ? interval : NO_INTERVAL;
+            intervals[slot] = months;
+            for (int employee = 0; employee < employeeCount; employee++) {
+                int[] row = rows[employee];
+                for (int i = 0; i < row.length; i += FIELDS) {
+                    if (row[i] == slot) {
+                        row[i + 2] = nextDue(row[i + 1], months);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a training from the rows of all employees. Its slot is not reused.
+     */
+    public void removeTraining(long trainingId) {
+        lock.writeLock().lock();
+        try {
+            int slot = trainingSlots.get(trainingId);
+            if (slot == LongIntHashMap.MISSING) {
+                return;
+            }
+            for (int employee = 0; employee < employeeCount; employee++) {
+                rows[employee] = withoutTraining(rows[employee], slot);
+            }
+            trainingSlots.remove(trainingId);
+            trainingIds[slot] = 0;
+            intervals[slot] = NO_INTERVAL;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Number of employees with mandatory trainings.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return employeeCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Heap used by the index, assuming compressed references.
+     */
+    public long estimatedSizeInBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = arrayBytes(employeeIds.length, Long.BYTES) + arrayBytes(departmentIds.length, Long.BYTES)
+                    + arrayBytes(rows.length, Integer.BYTES) + employeeSlots.estimatedSizeInBytes()
+                    + arrayBytes(trainingIds.length, Long.BYTES) + arrayBytes(intervals.length, Integer.BYTES)
+                    + trainingSlots.estimatedSizeInBytes();
+            for (int employee = 0; employee < employeeCount; employee++) {
+                bytes += arrayBytes(rows[employee].length, Integer.BYTES);
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder("mimir.compliance.index.employees", this, ComplianceIndex::size)
+                .description("Employees with mandatory trainings in the in-memory compliance index")
+                .register(registry);
+        Gauge.builder("mimir.compliance.index.memory", this, ComplianceIndex::estimatedSizeInBytes)
+                .description("Estimated heap used by the in-memory compliance index")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    /**
+     * Adds the rows of the batch; the trainings of employees in the index either replace or extend their row.
+     * Rows of the batch are ordered by training id, extended rows are merged to keep that order.
+     */
+    private void putAll(Batch batch, boolean extend) {
+        for (int employee = 0; employee < batch.employees; employee++) {
+            int first = batch.firstEntries[employee];
+            int end = employee + 1 < batch.employees ? batch.firstEntries[employee + 1] : batch.entries;
+            int[] row = new int[(end - first) * FIELDS];
+            for (int entry = first, i = 0; entry < end; entry++, i += FIELDS) {
+                int training = trainingSlot(batch.trainingIds[entry], batch.intervals[entry]);
+                row[i] = training;
+                row[i + 1] = batch.lastAttended[entry];
+                row[i + 2] = nextDue(batch.lastAttended[entry], intervals[training]);
+            }
+            putEmployee(batch.employeeIds[employee], batch.departmentIds[employee], row, extend);
+        }
+    }
+
+    private int[][] departmentCounts(long departmentId, LongIntHashMap departmentSlots, List<Long> departments,
+                                     List<int[][]> counts) {
+        if (departmentId == NO_DEPARTMENT) {
+            return counts.get(0);
+        }
+        int slot = departmentSlots.get(departmentId);
+        if (slot == LongIntHashMap.MISSING) {
+            slot = counts.size();
+            departmentSlots.put(departmentId, slot);
+            departments.add(departmentId);
+            counts.add(new int[trainingCount][]);
+        }
+        return counts.get(slot);
+    }
+
+    private int trainingSlot(long trainingId, int interval) {
+        int slot = trainingSlots.get(trainingId);
+        if (slot == LongIntHashMap.MISSING) {
+            slot = trainingCount++;
+            if (slot == trainingIds.length) {
+                trainingIds = Arrays.copyOf(trainingIds, slot * 2);
+                intervals = Arrays.copyOf(intervals, slot * 2);
+            }
+            trainingIds[slot] = trainingId;
+            trainingSlots.put(trainingId, slot);
+        }
+        intervals[slot] = interval;
+        return slot;
+    }
+
+    private void putEmployee(long employeeId, long departmentId, int[] row, boolean extend) {
+        int slot = employeeSlots.get(employeeId);
+        if (slot != LongIntHashMap.MISSING && extend) {
+            row = merge(rows[slot], row);
+        } else if (slot == LongIntHashMap.MISSING) {
+            slot = employeeCount++;
+            if (slot == employeeIds.length) {
+                employeeIds = Arrays.copyOf(employeeIds, slot * 2);
+                departmentIds = Arrays.copyOf(departmentIds, slot * 2);
+                rows = Arrays.copyOf(rows, slot * 2);
+            }
+            employeeIds[slot] = employeeId;
+            employeeSlots.put(employeeId, slot);
+        }
+        departmentIds[slot] = departmentId;
+        rows[slot] = row;
+    }
+
+    private void removeEmployee(long employeeId) {
+        int slot = employeeSlots.get(employeeId);
+        if (slot == LongIntHashMap.MISSING) {
+            return;
+        }
+        // Move the last employee into the free slot
+        int last = --employeeCount;
+        if (slot != last) {
+            employeeIds[slot] = employeeIds[last];
+            departmentIds[slot] = departmentIds[last];
+            rows[slot] = rows[last];
+            employeeSlots.put(employeeIds[slot], slot);
+        }
+        rows[last] = null;
+        employeeSlots.remove(employeeId);
+    }
+
+    /**
+     * Merges two rows that are both ordered by training id.
+     */
+    private int[] merge(int[] first, int[] second) {
+        int[] merged = new int[first.length + second.length];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < first.length || j < second.length) {
+            boolean takeFirst = j == second.length
+                    || i < first.length && trainingIds[first[i]] <= trainingIds[second[j]];
+            int[] source = takeFirst ? first : second;
+            int position = takeFirst ? i : j;
+            System.arraycopy(source, position, merged, k, FIELDS);
+            k += FIELDS;
+            if (takeFirst) {
+                i += FIELDS;
+            } else {
+                j += FIELDS;
+            }
+        }
+        return merged;
+    }
+
+    private static int[] withoutTraining(int[] row, int slot) {
+        for (int i = 0; i < row.length; i += FIELDS) {
+            if (row[i] == slot) {
+                int[] remaining = new int[row.length - FIELDS];
+                System.arraycopy(row, 0, remaining, 0, i);
+                System.arraycopy(row, i + FIELDS, remaining, i, row.length - i - FIELDS);
+                return remaining;
+            }
+        }
+        return row;
+    }
+
+    private static int nextDue(int lastAttended, int interval) {
+        if (lastAttended == NEVER_ATTENDED) {
+            return DUE_IMMEDIATELY;
+        }
+        if (interval == NO_INTERVAL) {
+            return NEVER_DUE;
+        }
+        return DueDateKernel.addMonths(lastAttended, interval);
+    }
+
+    /**
+     * Size of an array on a 64-bit JVM with compressed class pointers, aligned to eight bytes.
+     */
+    static long arrayBytes(int length, int elementBytes) {
+        return (16 + (long) length * elementBytes + 7) & ~7L;
+    }
+
+    /**
+     * Mandatory trainings of several employees, collected from the database and applied to the index at once.
+     * The trainings of one employee must be added one after another, ordered by training id.
+     */
+    public static final class Batch {
+        private long[] employeeIds = new long[16];
+        private long[] departmentIds = new long[16];
+        private int[] firstEntries = new int[16];
+        private int employees;
+
+        private long[] trainingIds = new long[64];
+        private int[] intervals = new int[64];
+        private int[] lastAttended = new int[64];
+        private int entries;
+
+        /**
+         * Adds a mandatory training of an employee.
+         *
+         * @param interval     the training's interval in months, {@code null} if it is never due again
+         * @param lastAttended the employee's last attendance, {@code null} if never attended
+         */
+        public void add(long employeeId, Long departmentId, long trainingId, Integer interval,
+                        LocalDate lastAttended) {
+            if (employees == 0 || employeeIds[employees - 1] != employeeId) {
+                if (employees == employeeIds.length) {
+                    employeeIds = Arrays.copyOf(employeeIds, employees * 2);
+                    departmentIds = Arrays.copyOf(departmentIds, employees * 2);
+                    firstEntries = Arrays.copyOf(firstEntries, employees * 2);
+                }
+                employeeIds[employees] = employeeId;
+                departmentIds[employees] = departmentId != null ? departmentId : NO_DEPARTMENT;
+                firstEntries[employees] = entries;
+                employees++;
+            }
+            if (entries == trainingIds.length) {
+                trainingIds = Arrays.copyOf(trainingIds, entries * 2);
+                intervals = Arrays.copyOf(intervals, entries * 2);
+                this.lastAttended = Arrays.copyOf(this.lastAttended, entries * 2);
+            }
+            trainingIds[entries] = trainingId;
+            intervals[entries] = interval != null ? interval : NO_INTERVAL;
+            this.lastAttended[entries] = lastAttended != null ? DueDateKernel.toEpochDay(lastAttended) : NEVER_ATTENDED;
+            entries++;
+        }
+    }
+}
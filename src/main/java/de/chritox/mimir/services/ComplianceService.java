@@ -0,0 +1,147 @@
+package de.chritox.mimir.services;
+
+import de.chritox.mimir.models.Department;
+import de.chritox.mimir.models.Training;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Computes due trainings for many employees at once.
+ * <p>
+ * The due trainings are read from the {@link ComplianceIndex}, the in-memory copy of the materialized
+ * {@code compliance_status} table, instead of walking every employee's attended sessions. Results are kept in
+ * the {@link ComplianceCache} and must not be modified.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ComplianceService {
+    private final ComplianceIndex complianceIndex;
+    private final TrainingService trainingService;
+    private final DepartmentService departmentService;
+    private final ComplianceCache complianceCache;
+
+    /**
+     * Returns the due trainings of every employee in the company, keyed by employee id.
+     * Employees without due trainings are not contained in the result.
+     */
+    public Map<Long, Map<Training, LocalDate>> getDueTrainings(LocalDate targetDate) {
+        return complianceCache.get(ComplianceCache.View.DUE_DATES, null, targetDate,
+                () -> toDueDates(findDueTrainings(null, targetDate)));
+    }
+
+    /**
+     * Returns the due trainings of every employee in the given department, keyed by employee id.
+     * Employees without due trainings are not contained in the result.
+     */
+    public Map<Long, Map<Training, LocalDate>> getDueTrainingsForDepartment(Long departmentId, LocalDate targetDate) {
+        return complianceCache.get(ComplianceCache.View.DUE_DATES, departmentId, targetDate,
+                () -> toDueDates(getDueTrainingDetailsForDepartment(departmentId, targetDate)));
+    }
+
+    /**
+     * Like {@link #getDueTrainingsForDepartment(Long, LocalDate)}, but also carries the last attendance date
+     * of every due training.
+     */
+    public Map<Long, List<DueTraining>> getDueTrainingDetailsForDepartment(Long departmentId, LocalDate targetDate) {
+        return complianceCache.get(ComplianceCache.View.DETAILS, departmentId, targetDate,
+                () -> findDueTrainings(departmentId, targetDate));
+    }
+
+    /**
+     * Returns how many mandatory trainings become due in each of the next months, per department and training,
+     * counted in a single pass over the index. Entries are sorted by department and training; the ones of
+     * employees without department come last.
+     *
+     * @param months number of calendar months, starting with the month of the start date
+     */
+    public DueTimeline getDueTimeline(LocalDate startDate, int months) {
+        Map<Long, Training> trainings = trainingService.findAll().stream()
+                .collect(Collectors.toMap(Training::getId, Function.identity()));
+        // Names are optional, which Collectors.toMap does not allow
+        Map<Long, String> departments = new HashMap<>();
+        for (Department department : departmentService.findAll()) {
+            departments.put(department.getId(), department.getName());
+        }
+        List<DueTimeline.Entry> entries = new ArrayList<>();
+        complianceIndex.countDueByMonth(startDate, months, (departmentId, trainingId, counts) -> {
+            Training training = trainings.get(trainingId);
+            if (training == null || departmentId != null && !departments.containsKey(departmentId)) {
+                // Created or deleted concurrently
+                return;
+            }
+            List<Integer> dueByMonth = new ArrayList<>(months);
+            for (int month = 1; month <= months; month++) {
+                dueByMonth.add(counts[month]);
+            }
+            entries.add(new DueTimeline.Entry(departmentId, departments.get(departmentId), trainingId,
+                    training.getTitle(), counts[0], Collections.unmodifiableList(dueByMonth)));
+        });
+        Comparator<String> byName = Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER);
+        // Employees without department last, departments of the same name kept apart by their id
+        entries.sort(Comparator.comparing((DueTimeline.Entry entry) -> entry.departmentId() == null)
+                .thenComparing(DueTimeline.Entry::department, byName)
+                .thenComparing(DueTimeline.Entry::departmentId, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(DueTimeline.Entry::training, byName)
+                .thenComparing(DueTimeline.Entry::trainingId));
+        YearMonth firstMonth = YearMonth.from(startDate);
+        List<YearMonth> timelineMonths = new ArrayList<>(months);
+        for (int month = 0; month < months; month++) {
+            timelineMonths.add(firstMonth.plusMonths(month));
+        }
+        return new DueTimeline(startDate, Collections.unmodifiableList(timelineMonths),
+                Collections.unmodifiableList(entries));
+    }
+
+    /**
+     * Collects the due trainings of the given department, or the whole company if {@code null}.
+     */
+    private Map<Long, List<DueTraining>> findDueTrainings(Long departmentId, LocalDate targetDate) {
+        Map<Long, Training> trainings = trainingService.findAll().stream()
+                .collect(Collectors.toMap(Training::getId, Function.identity()));
+        Map<Long, List<DueTraining>> dueTrainings = new HashMap<>();
+        complianceIndex.forEachDue(departmentId, targetDate, (employeeId, trainingId, lastAttended, dueDate) -> {
+            Training training = trainings.get(trainingId);
+            if (training == null) {
+                // Created or deleted concurrently, the result is evicted once the index caught up
+                return;
+            }
+            dueTrainings.computeIfAbsent(employeeId, id -> new ArrayList<>()).add(new DueTraining(training,
+                    lastAttended == ComplianceIndex.NEVER_ATTENDED ? null : LocalDate.ofEpochDay(lastAttended),
+                    LocalDate.ofEpochDay(dueDate)));
+        });
+        dueTrainings.replaceAll((employeeId, employeeDueTrainings) ->
+                Collections.unmodifiableList(employeeDueTrainings));
+        return Collections.unmodifiableMap(dueTrainings);
+    }
+
+    private static Map<Long, Map<Training, LocalDate>> toDueDates(Map<Long, List<DueTraining>> dueTrainings) {
+        Map<Long, Map<Training, LocalDate>> dueDates = new HashMap<>();
+        dueTrainings.forEach((employeeId, employeeDueTrainings) -> {
+            Map<Training, LocalDate> employeeDueDates = new HashMap<>();
+            for (DueTraining dueTraining : employeeDueTrainings) {
+                employeeDueDates.put(dueTraining.training(), dueTraining.dueDate());
+            }
+            dueDates.put(employeeId, Collections.unmodifiableMap(employeeDueDates));
+        });
+        return Collections.unmodifiableMap(dueDates);
+    }
+
+    /**
+     * A mandatory training that is due, together with its last attendance ({@code null} if never attended).
+     */
+    public record DueTraining(Training training, LocalDate lastAttended, LocalDate dueDate) {
+    }
+}
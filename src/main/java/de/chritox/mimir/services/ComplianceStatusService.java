@@ -0,0 +1,285 @@
+package de.chritox.mimir.services;
+
+import de.chritox.mimir.models.ComplianceStatus;
+import de.chritox.mimir.repositories.ComplianceStatusRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Maintains the {@code compliance_status} table, one row per mandatory training of an employee.
+ * <p>
+ * The writing services publish a {@link ComplianceChange} within their own transaction, so the table is
+ * updated together with the change that affects it. Only the rows of the affected employees, trainings or
+ * pairs of both are recomputed; {@link #rebuild()} recomputes everything. Rows are computed by the
+ * database in a single statement, so even a full rebuild does not load any rows into memory.
+ * <p>
+ * The {@link ComplianceIndex} follows the table: the changes of a transaction are collected, and once it has
+ * committed the changed rows are read again in a transaction of their own and replace the ones in the index.
+ * Saving a session with 500 participants, or importing thousands of attendances, updates the index in one pass.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ComplianceStatusService {
+    /**
+     * Computes the rows of the mandatory trainings matching the scope condition on {@code m}. The next due date
+     * is the last attendance plus the training's interval, {@code :dueImmediately} if never attended and
+     * {@code null} for trainings without interval. Joining the participants through their employee index keeps
+     * H2 from aggregating all sessions of a training for every row.
+     */
+    private static final String INSERT_SQL = """
+            insert into compliance_status (employee_id, training_id, last_attended, next_due)
+            select m.employee_id, m.training_id, max(s.date),
+                   case when max(s.date) is null then :dueImmediately
+                        when t.interval_months is null then null
+                        else dateadd(month, t.interval_months, max(s.date)) end
+            from mandatory_training m
+            join training t on t.id = m.training_id
+            left join training_session_participants p on p.employee_id = m.employee_id
+            left join training_session s on s.id = p.session_id and s.training_id = m.training_id
+            where %s
+            group by m.employee_id, m.training_id, t.interval_months
+            """;
+
+    /**
+     * Reads the rows matching the scope condition on {@code c} in the order expected by
+     * {@link ComplianceIndex.Batch}, with everything needed to compute their next due dates.
+     */
+    private static final String INDEX_SQL = """
+            select c.employee_id, e.department_id, c.training_id, t.interval_months, c.last_attended
+            from compliance_status c
+            join employee e on e.id = c.employee_id
+            join training t on t.id = c.training_id
+            where %s
+            order by c.employee_id, c.training_id
+            """;
+
+    /**
+     * Moves the row of a mandatory training forward to a later attendance, with the next due date computed as in
+     * {@link #INSERT_SQL}. Trainings that are not mandatory for the employee have no row and are left alone.
+     */
+    private static final String ATTENDED_SQL = """
+            update compliance_status c
+            set last_attended = :date,
+                next_due = (select case when t.interval_months is null then null
+                                        else dateadd(month, t.interval_months, cast(:date as date)) end
+                            from training t where t.id = c.training_id)
+            where c.employee_id = :employeeId and c.training_id = :trainingId
+              and (c.last_attended is null or c.last_attended < :date)
+            """;
+
+    /** Ids per {@code in} condition when reading changed rows for the index. */
+    private static final int CHUNK_SIZE = 1000;
+
+    private final ComplianceStatusRepository complianceStatusRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ComplianceCache complianceCache;
+    private final ComplianceIndex complianceIndex;
+    private final PlatformTransactionManager transactionManager;
+    /**
+     * Serializes the updates of the index, so an update reading an older state cannot overwrite a later one.
+     */
+    private final Lock indexLock = new ReentrantLock();
+    /** Binds the {@link PendingChanges} of a transaction. */
+    private final Object pendingChangesKey = new Object();
+
+    public long count() {
+        return complianceStatusRepository.count();
+    }
+
+    /**
+     * Recomputes the rows affected by a change within the publisher's transaction, which must have flushed the
+     * change already. The index follows in one pass for all changes of the transaction once it has committed.
+     */
+    @EventListener
+    @Transactional
+    public void onChange(ComplianceChange change) {
+        PendingChanges pending = pendingChanges();
+        switch (change) {
+            case ComplianceChange.SessionChanged(Set<Long> trainingIds, Set<Long> participantIds) -> {
+                if (trainingIds.isEmpty() || participantIds.isEmpty()) {
+                    return;
+                }
+                complianceStatusRepository.deleteByTrainingIdsAndEmployeeIds(trainingIds, participantIds);
+                insert("m.training_id in (:trainingIds) and m.employee_id in (:employeeIds)",
+                        new MapSqlParameterSource("trainingIds", trainingIds)
+                                .addValue("employeeIds", participantIds));
+                trainingIds.forEach(trainingId -> pending.attended(trainingId, participantIds));
+            }
+            case ComplianceChange.MandatoryTrainingsChanged(Set<Long> employeeIds) -> {
+                if (employeeIds.isEmpty()) {
+                    return;
+                }
+                complianceStatusRepository.deleteByEmployeeIds(employeeIds);
+                insert("m.employee_id in (:employeeIds)", new MapSqlParameterSource("employeeIds", employeeIds));
+                pending.employeeIds.addAll(employeeIds);
+            }
+            case ComplianceChange.Attended(List<ComplianceChange.Attendance> attendances) -> {
+                // Attendances only ever move a training forward, the rows need not be recomputed
+                jdbcTemplate.batchUpdate(ATTENDED_SQL, attendances.stream()
+                        .map(attendance -> new MapSqlParameterSource()
+                                .addValue("employeeId", attendance.employeeId())
+                                .addValue("trainingId", attendance.trainingId())
+                                .addValue("date", attendance.date()))
+                        .toArray(SqlParameterSource[]::new));
+                attendances.forEach(attendance ->
+                        pending.attended(attendance.trainingId(), Set.of(attendance.employeeId())));
+            }
+            case ComplianceChange.IntervalChanged(Long trainingId) -> {
+                complianceStatusRepository.deleteByTrainingId(trainingId);
+                insert("m.training_id = :trainingId", new MapSqlParameterSource("trainingId", trainingId));
+                pending.intervalTrainingIds.add(trainingId);
+            }
+            case ComplianceChange.EmployeeDeleted(Long employeeId) -> {
+                complianceStatusRepository.deleteByEmployeeIds(List.of(employeeId));
+                pending.deletedEmployeeIds.add(employeeId);
+            }
+            case ComplianceChange.TrainingDeleted(Long trainingId) -> {
+                complianceStatusRepository.deleteByTrainingId(trainingId);
+                pending.deletedTrainingIds.add(trainingId);
+            }
+        }
+    }
+
+    /**
+     * Discards and recomputes the whole table from the mandatory trainings and attended sessions.
+     */
+    @Transactional
+    public void rebuild() {
+        complianceStatusRepository.deleteAllInBatch();
+        insert("1 = 1", new MapSqlParameterSource());
+        pendingChanges().rebuilt = true;
+        complianceCache.evictAll();
+    }
+
+    /**
+     * Fills the index from the table, e.g. on startup when the table is not rebuilt. Results cached before are
+     * evicted once the index is filled.
+     */
+    public void loadIndex() {
+        pendingChanges().rebuilt = true;
+        complianceCache.evictAll();
+    }
+
+    private void insert(String scope, MapSqlParameterSource parameters) {
+        jdbcTemplate.update(INSERT_SQL.formatted(scope),
+                parameters.addValue("dueImmediately", ComplianceStatus.DUE_IMMEDIATELY));
+    }
+
+    /**
+     * Returns the changes collected in the current transaction, registering their index update on first use.
+     * The update runs after the commit, before the cached results are evicted.
+     */
+    private PendingChanges pendingChanges() {
+        return TransactionCallbacks.collect(pendingChangesKey, PendingChanges::new, TransactionCallbacks.SOURCE_ORDER,
+                this::updateIndex);
+    }
+
+    private void updateIndex(PendingChanges changes) {
+        indexLock.lock();
+        try {
+            if (changes.rebuilt) {
+                complianceIndex.replaceAll(load("1 = 1", new MapSqlParameterSource()));
+                return;
+            }
+            changes.deletedTrainingIds.forEach(complianceIndex::removeTraining);
+            complianceIndex.removeEmployees(changes.deletedEmployeeIds);
+            for (List<Long> trainingIds : chunks(changes.intervalTrainingIds)) {
+                readOnly(() -> {
+                    jdbcTemplate.query("select id, interval_months from training where id in (:trainingIds)",
+                            new MapSqlParameterSource("trainingIds", trainingIds), resultSet -> {
+                                complianceIndex.updateInterval(resultSet.getLong(1),
+                                        resultSet.getObject(2, Integer.class));
+                            });
+                    return null;
+                });
+            }
+            for (List<Long> employeeIds : chunks(changes.employeeIds)) {
+                complianceIndex.replaceEmployees(employeeIds, load("c.employee_id in (:employeeIds)",
+                        new MapSqlParameterSource("employeeIds", employeeIds)));
+            }
+            changes.attendedEmployeeIds.forEach((trainingId, employeeIds) -> {
+                // Employees reloaded entirely are up to date
+                employeeIds.removeAll(changes.employeeIds);
+                for (List<Long> chunk : chunks(employeeIds)) {
+                    complianceIndex.replaceTraining(trainingId, chunk,
+                            load("c.training_id = :trainingId and c.employee_id in (:employeeIds)",
+                                    new MapSqlParameterSource("trainingId", trainingId)
+                                            .addValue("employeeIds", chunk)));
+                }
+            });
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    private ComplianceIndex.Batch load(String scope, MapSqlParameterSource parameters) {
+        return readOnly(() -> {
+            ComplianceIndex.Batch batch = new ComplianceIndex.Batch();
+            jdbcTemplate.query(INDEX_SQL.formatted(scope), parameters, resultSet -> {
+                batch.add(resultSet.getLong(1), resultSet.getObject(2, Long.class), resultSet.getLong(3),
+                        resultSet.getObject(4, Integer.class), resultSet.getObject(5, LocalDate.class));
+            });
+            return batch;
+        });
+    }
+
+    /**
+     * Reads in a new transaction, the one that changed the table has already completed.
+     */
+    private <T> T readOnly(Supplier<T> query) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transactionTemplate.setReadOnly(true);
+        return transactionTemplate.execute(status -> query.get());
+    }
+
+    /**
+     * Splits ids into lists short enough for an {@code in} condition.
+     */
+    private static List<List<Long>> chunks(Collection<Long> ids) {
+        List<Long> list = List.copyOf(ids);
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += CHUNK_SIZE) {
+            chunks.add(list.subList(from, Math.min(from + CHUNK_SIZE, list.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * Changes of one transaction to apply to the index.
+     */
+    private static final class PendingChanges {
+        private boolean rebuilt;
+        private final Set<Long> employeeIds = new HashSet<>();
+        /** Employees whose row of a training changed, by training. */
+        private final Map<Long, Set<Long>> attendedEmployeeIds = new HashMap<>();
+        private final Set<Long> intervalTrainingIds = new HashSet<>();
+        private final Set<Long> deletedEmployeeIds = new HashSet<>();
+        private final Set<Long> deletedTrainingIds = new HashSet<>();
+
+        private void attended(Long trainingId, Collection<Long> employeeIds) {
+            attendedEmployeeIds.computeIfAbsent(trainingId, id -> new HashSet<>()).addAll(employeeIds);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package de.chritox.mimir.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads UTF-8 CSV files as written by Excel and most other systems. The delimiter is taken from the header line:
+ * semicolon (German Excel), tab or comma. Quoted cells may contain delimiters, line breaks and doubled quotes.
+ */
+public class CsvRowReader implements RowReader {
+    private static final char QUOTE = '"';
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    @Override
+    public void read(InputStream inputStream, RowHandler handler) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        String line = reader.readLine();
+        if (line == null) {
+            return;
+        }
+        if (!line.isEmpty() && line.charAt(0) == BYTE_ORDER_MARK) {
+            line = line.substring(1);
+        }
+        char delimiter = detectDelimiter(line);
+
+        int lineNumber = 0;
+        while (line != null) {
+            lineNumber++;
+            int rowNumber = lineNumber;
+            List<String> cells = new ArrayList<>();
+            StringBuilder cell = new StringBuilder();
+            boolean quoted = false;
+            int i = 0;
+            while (true) {
+                if (i == line.length()) {
+                    if (!quoted) {
+                        break;
+                    }
+                    // Line break inside a quoted cell
+                    line = reader.readLine();
+                    if (line == null) {
+                        break;
+                    }
+                    lineNumber++;
+                    cell.append('\n');
+                    i = 0;
+                    continue;
+                }
+                char c = line.charAt(i++);
+                if (quoted) {
+                    if (c == QUOTE && i < line.length() && line.charAt(i) == QUOTE) {
+                        cell.append(QUOTE);
+                        i++;
+                    } else if (c == QUOTE) {
+                        quoted = false;
+                    } else {
+                        cell.append(c);
+                    }
+                } else if (c == QUOTE) {
+                    quoted = true;
+                } else if (c == delimiter) {
+                    cells.add(cell.toString().trim());
+                    cell.setLength(0);
+                } else {
+                    cell.append(c);
+                }
+            }
+            cells.add(cell.toString().trim());
+
+            if (!isBlank(cells)) {
+                handler.row(rowNumber, cells);
+            }
+            line = reader.readLine();
+        }
+    }
+
+    private static char detectDelimiter(String header) {
+        if (header.indexOf(';') >= 0) {
+            return ';';
+        }
+        if (header.indexOf('\t') >= 0) {
+            return '\t';
+        }
+        return ',';
+    }
+
+    private static boolean isBlank(List<String> cells) {
+        return cells.stream().allMatch(String::isEmpty);
+    }
+}
@@ -0,0 +1,152 @@
+package de.chritox.mimir.services;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generates a reproducible synthetic company for load and scale tests.
+ * <p>
+ * Department sizes are skewed (a few large, many small departments). Most trainings recur yearly or every
+ * two years, some only have to be attended once. Every employee has the company-wide trainings plus trainings
+ * of their department's catalogue as mandatory trainings and attends them roughly on schedule; about one in
+ * ten attendances is missed. Sessions take place once a month per training over the configured history.
+ * <p>
+ * Rows are handed to a {@link Sink} with ids starting at 1, departments, trainings and sessions first, then
+ * every employee together with its mandatory trainings and attendances.
+ */
+public class DataGenerator {
+    private static final Integer[] INTERVALS = {12, 12, 12, 12, 24, 24, 24, 36, 36, null, null};
+    private static final int COMPANY_WIDE_TRAININGS = 2;
+    private static final double MISSED_ATTENDANCE_RATE = 0.1;
+    private static final double ONE_TIME_ATTENDANCE_RATE = 0.85;
+
+    private final Settings settings;
+
+    public DataGenerator(Settings settings) {
+        this.settings = settings;
+    }
+
+    public void generate(Sink sink) {
+        Random random = new Random(settings.seed());
+        int months = settings.years() * 12;
+
+        double[] departmentWeights = new double[settings.departments()];
+        double totalWeight = 0;
+        for (int d = 0; d < settings.departments(); d++) {
+            sink.department(d + 1, "Abteilung " + (d + 1));
+            totalWeight += 1 / Math.pow(d + 1, 0.8);
+            departmentWeights[d] = totalWeight;
+        }
+
+        Integer[] intervals = new Integer[settings.trainings()];
+        for (int t = 0; t < settings.trainings(); t++) {
+            intervals[t] = INTERVALS[random.nextInt(INTERVALS.length)];
+            sink.training(t + 1, "Schulung " + (t + 1), intervals[t]);
+        }
+
+        long[][] sessionIds = new long[settings.trainings()][months];
+        LocalDate start = settings.today().minusMonths(months).withDayOfMonth(1);
+        long sessionId = 0;
+        for (int t = 0; t < settings.trainings(); t++) {
+            for (int m = 0; m < months; m++) {
+                sessionIds[t][m] = ++sessionId;
+                sink.session(sessionId, t + 1, start.plusMonths(m).plusDays(random.nextInt(28)));
+            }
+        }
+
+        List<List<Integer>> catalogues = createCatalogues(random);
+        for (long e = 1; e <= settings.employees(); e++) {
+            int department = Arrays.binarySearch(departmentWeights, random.nextDouble() * totalWeight);
+            department = department < 0 ? -department - 1 : department;
+            sink.employee(e, "Mitarbeiter " + e, department + 1);
+
+            Set<Integer> mandatoryTrainings = new LinkedHashSet<>();
+            for (int t = 0; t < Math.min(COMPANY_WIDE_TRAININGS, settings.trainings()); t++) {
+                mandatoryTrainings.add(t);
+            }
+            List<Integer> catalogue = catalogues.get(department);
+            while (mandatoryTrainings.size() < settings.mandatoryTrainingsPerEmployee()
+                    && mandatoryTrainings.size() < COMPANY_WIDE_TRAININGS + catalogue.size()) {
+                mandatoryTrainings.add(catalogue.get(random.nextInt(catalogue.size())));
+            }
+
+            for (int t : mandatoryTrainings) {
+                sink.mandatoryTraining(e, t + 1);
+                attend(sink, random, e, intervals[t], sessionIds[t]);
+            }
+        }
+    }
+
+    /**
+     * Every department requires a random selection of the trainings that are not company-wide.
+     */
+    private List<List<Integer>> createCatalogues(Random random) {
+        List<Integer> optionalTrainings = new ArrayList<>();
+        for (int t = COMPANY_WIDE_TRAININGS; t < settings.trainings(); t++) {
+            optionalTrainings.add(t);
+        }
+        List<List<Integer>> catalogues = new ArrayList<>();
+        for (int d = 0; d < settings.departments(); d++) {
+            Collections.shuffle(optionalTrainings, random);
+            catalogues.add(List.copyOf(optionalTrainings.subList(0,
+                    Math.min(optionalTrainings.size(), 2 * settings.mandatoryTrainingsPerEmployee()))));
+        }
+        return catalogues;
+    }
+
+    private static void attend(Sink sink, Random random, long employeeId, Integer interval, long[] sessionIds) {
+        if (sessionIds.length == 0) {
+            return;
+        }
+        if (interval == null) {
+            if (random.nextDouble() < ONE_TIME_ATTENDANCE_RATE) {
+                sink.participant(sessionIds[random.nextInt(sessionIds.length)], employeeId);
+            }
+            return;
+        }
+        // First attendance within the first interval, afterwards on schedule give or take a month
+        for (int month = random.nextInt(Math.min(interval, sessionIds.length)); month < sessionIds.length;
+             month += interval + random.nextInt(3) - 1) {
+            if (random.nextDouble() >= MISSED_ATTENDANCE_RATE) {
+                sink.participant(sessionIds[month], employeeId);
+            }
+        }
+    }
+
+    /**
+     * Size of the generated company. The session history ends in the month before {@code today}.
+     */
+    public record Settings(int departments, int employees, int trainings, int mandatoryTrainingsPerEmployee,
+                           int years, long seed, LocalDate today) {
+        public Settings {
+            if (departments < 1 || employees < 0 || trainings < 1 || mandatoryTrainingsPerEmployee < 0 || years < 1) {
+                throw new IllegalArgumentException("Invalid generator settings: " + departments + " departments, "
+                        + employees + " employees, " + trainings + " trainings, " + mandatoryTrainingsPerEmployee
+                        + " mandatory trainings per employee, " + years + " years");
+            }
+        }
+    }
+
+    /**
+     * Receives the generated rows.
+     */
+    public interface Sink {
+        void department(long id, String name);
+
+        void training(long id, String title, Integer interval);
+
+        void session(long id, long trainingId, LocalDate date);
+
+        void employee(long id, String name, long departmentId);
+
+        void mandatoryTraining(long employeeId, long trainingId);
+
+        void participant(long sessionId, long employeeId);
+    }
+}
@@ -0,0 +1,164 @@
+package de.chritox.mimir.services;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fills an empty database with a {@link DataGenerator} company using JDBC batch inserts.
+ */
+@Service
+@RequiredArgsConstructor
+public class DataGeneratorService {
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ComplianceStatusService complianceStatusService;
+    private final EntityManagerFactory entityManagerFactory;
+    private final IdSequences idSequences;
+
+    @Transactional
+    public void generate(DataGenerator.Settings settings) {
+        Long employees = jdbcTemplate.queryForObject("select count(*) from employee", Long.class);
+        if (employees != null && employees > 0) {
+            throw new IllegalStateException("Test data can only be generated into an empty database");
+        }
+
+        JdbcSink sink = new JdbcSink();
+        new DataGenerator(settings).generate(sink);
+        sink.flush();
+
+        // The generator assigns ids itself, continue the sequences after them
+        idSequences.restartAfterExistingIds();
+
+        // The rows were written past Hibernate, drop anything it may have cached for these tables
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        complianceStatusService.rebuild();
+    }
+
+    /**
+     * Collects rows per table and writes all tables in foreign key order once one of them is full.
+     * Values are bound with typed setters, {@code setObject} would make H2 convert every value.
+     * <p>
+     * The generated ids are shifted past the ids that are taken already, including blocks Hibernate holds.
+     */
+    private final class JdbcSink implements DataGenerator.Sink {
+        private final long departmentOffset = idSequences.highestTakenId(IdSequences.DEPARTMENT);
+        private final long trainingOffset = idSequences.highestTakenId(IdSequences.TRAINING);
+        private final long sessionOffset = idSequences.highestTakenId(IdSequences.TRAINING_SESSION);
+        private final long employeeOffset = idSequences.highestTakenId(IdSequences.EMPLOYEE);
+
+        private final List<Department> departments = new ArrayList<>();
+        private final List<Training> trainings = new ArrayList<>();
+        private final List<Session> sessions = new ArrayList<>();
+        private final List<Employee> employees = new ArrayList<>();
+        private final List<long[]> mandatoryTrainings = new ArrayList<>();
+        private final List<long[]> participants = new ArrayList<>();
+
+        @Override
+        public void department(long id, String name) {
+            add(departments, new Department(departmentOffset + id, name));
+        }
+
+        @Override
+        public void training(long id, String title, Integer interval) {
+            add(trainings, new Training(trainingOffset + id, title, interval));
+        }
+
+        @Override
+        public void session(long id, long trainingId, LocalDate date) {
+            add(sessions, new Session(sessionOffset + id, trainingOffset + trainingId, date));
+        }
+
+        @Override
+        public void employee(long id, String name, long departmentId) {
+            add(employees, new Employee(employeeOffset + id, name, departmentOffset + departmentId));
+        }
+
+        @Override
+        public void mandatoryTraining(long employeeId, long trainingId) {
+            add(mandatoryTrainings, new long[]{employeeOffset + employeeId, trainingOffset + trainingId});
+        }
+
+        @Override
+        public void participant(long sessionId, long employeeId) {
+            add(participants, new long[]{sessionOffset + sessionId, employeeOffset + employeeId});
+        }
+
+        private <T> void add(List<T> rows, T row) {
+            rows.add(row);
+            if (rows.size() >= BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() {
+            write("insert into department (id, name) values (?, ?)", departments, (statement, department) -> {
+                statement.setLong(1, department.id());
+                statement.setString(2, department.name());
+            });
+            write("insert into training (id, title, interval_months) values (?, ?, ?)", trainings,
+                    (statement, training) -> {
+                        statement.setLong(1, training.id());
+                        statement.setString(2, training.title());
+                        if (training.interval() != null) {
+                            statement.setInt(3, training.interval());
+                        } else {
+                            statement.setNull(3, Types.INTEGER);
+                        }
+                    });
+            write("insert into training_session (id, training_id, date) values (?, ?, ?)", sessions,
+                    (statement, session) -> {
+                        statement.setLong(1, session.id());
+                        statement.setLong(2, session.trainingId());
+                        statement.setDate(3, Date.valueOf(session.date()));
+                    });
+            write("insert into employee (id, name, department_id) values (?, ?, ?)", employees,
+                    (statement, employee) -> {
+                        statement.setLong(1, employee.id());
+                        statement.setString(2, employee.name());
+                        statement.setLong(3, employee.departmentId());
+                    });
+            write("insert into mandatory_training (employee_id, training_id) values (?, ?)", mandatoryTrainings,
+                    DataGeneratorService::setIds);
+            write("insert into training_session_participants (session_id, employee_id) values (?, ?)", participants,
+                    DataGeneratorService::setIds);
+        }
+
+        private <T> void write(String sql, List<T> rows, ParameterizedPreparedStatementSetter<T> setter) {
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(sql, rows, rows.size(), setter);
+                rows.clear();
+            }
+        }
+    }
+
+    private static void setIds(PreparedStatement statement, long[] ids) throws SQLException {
+        statement.setLong(1, ids[0]);
+        statement.setLong(2, ids[1]);
+    }
+
+    private record Department(long id, String name) {
+    }
+
+    private record Training(long id, String title, Integer interval) {
+    }
+
+    private record Session(long id, long trainingId, LocalDate date) {
+    }
+
+    private record Employee(long id, String name, long departmentId) {
+    }
+}
@@ -11,8 +11,10 @@ import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class DepartmentService {
     private final DepartmentRepository departmentRepository;
+    private final ComplianceCache complianceCache;
 
     public List<Department> findAll() {
         return departmentRepository.findAll();
@@ -22,6 +24,9 @@ public class DepartmentService {
         return departmentRepository.findById(id);
     }
 
+    /**
+     * Saves a department. The cached due trainings do not contain any department data and stay valid.
+     */
     @Transactional
     public Department save(Department department) {
         return departmentRepository.save(department);
@@ -30,5 +35,6 @@ public class DepartmentService {
     @Transactional
     public void deleteById(Long id) {
         departmentRepository.deleteById(id);
+        complianceCache.evictDepartments(List.of(id));
     }
 }
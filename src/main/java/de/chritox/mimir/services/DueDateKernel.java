@@ -0,0 +1,212 @@
+package de.chritox.mimir.services;
+
+import de.chritox.mimir.models.Employee;
+import de.chritox.mimir.models.Training;
+import de.chritox.mimir.models.TrainingSession;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Due date computation on epoch days.
+ * <p>
+ * Adding the interval of a training to the last attendance is a lookup in a table of the first day of every month
+ * from {@value #FIRST_YEAR} to {@value #LAST_YEAR}, with the day clamped to the length of the target month like
+ * {@link LocalDate#plusMonths(long)} does. Dates outside of the table fall back to {@code LocalDate}.
+ * The due trainings of an employee are written into a reusable {@link Buffer}, so computing them for a whole
+ * company allocates nothing per employee.
+ */
+public final class DueDateKernel {
+    /**
+     * Last attendance of a training that was never attended.
+     */
+    public static final int NEVER_ATTENDED = Integer.MIN_VALUE;
+
+    /**
+     * Interval of a training that is never due again once attended.
+     */
+    public static final int NO_INTERVAL = -1;
+
+    /**
+     * Due date of a training that is not due on or before the target date.
+     */
+    public static final int NOT_DUE = Integer.MAX_VALUE;
+
+    private static final int FIRST_YEAR = 1900;
+    private static final int LAST_YEAR = 2299;
+    private static final int MONTHS = (LAST_YEAR - FIRST_YEAR + 1) * 12;
+    /** Epoch day of the first day of every month, followed by the first day after the last month. */
+    private static final int[] MONTH_STARTS = new int[MONTHS + 1];
+
+    static {
+        LocalDate month = LocalDate.of(FIRST_YEAR, 1, 1);
+        for (int i = 0; i <= MONTHS; i++) {
+            MONTH_STARTS[i] = (int) month.toEpochDay();
+            month = month.plusMonths(1);
+        }
+    }
+
+    private DueDateKernel() {
+    }
+
+    /**
+     * Returns the epoch day a number of months later, like {@link LocalDate#plusMonths(long)}.
+     */
+    public static int addMonths(int epochDay, int months) {
+        int month = monthIndex(epochDay);
+        int target = month + months;
+        if (month < 0 || target < 0 || target >= MONTHS) {
+            return toEpochDay(LocalDate.ofEpochDay(epochDay).plusMonths(months));
+        }
+        int dayOfMonth = epochDay - MONTH_STARTS[month];
+        int lastDayOfMonth = MONTH_STARTS[target + 1] - MONTH_STARTS[target] - 1;
+        return MONTH_STARTS[target] + Math.min(dayOfMonth, lastDayOfMonth);
+    }
+
+    /**
+     * Returns the epoch day on which a training is due, or {@link #NOT_DUE} if it is not due on or before the
+     * target date. Trainings never attended are due on the target date.
+     *
+     * @param lastAttended the last attendance, or {@link #NEVER_ATTENDED}
+     * @param interval     the training's interval in months, or {@link #NO_INTERVAL}
+     */
+    public static int dueDate(int lastAttended, int interval, int targetDate) {
+        if (lastAttended == NEVER_ATTENDED) {
+            return targetDate;
+        }
+        if (interval == NO_INTERVAL) {
+            return NOT_DUE;
+        }
+        int nextDue = addMonths(lastAttended, interval);
+        return nextDue > targetDate ? NOT_DUE : nextDue;
+    }
+
+    /**
+     * Computes the due date of every mandatory training of the employee into the buffer, replacing its previous
+     * content. The employee's mandatory trainings and attended sessions must be loaded.
+     *
+     * @return the number of trainings that are due on or before the target date
+     */
+    public static int computeDueTrainings(Employee employee, int targetDate, Buffer buffer) {
+        buffer.clear();
+        Set<Training> mandatoryTrainings = employee.getMandatoryTrainings();
+        if (mandatoryTrainings == null || mandatoryTrainings.isEmpty()) {
+            return 0;
+        }
+        buffer.setTrainings(mandatoryTrainings);
+        Set<TrainingSession> attendedSessions = employee.getAttendedSessions();
+        if (attendedSessions != null && !attendedSessions.isEmpty()) {
+            // Copied into the buffer, hash sets copy their elements without allocating an iterator
+            TrainingSession[] sessions = attendedSessions.toArray(buffer.sessions);
+            buffer.sessions = sessions;
+            for (int i = 0, count = attendedSessions.size(); i < count; i++) {
+                TrainingSession session = sessions[i];
+                if (session.getTraining() != null && session.getDate() != null) {
+                    buffer.attended(session.getTraining().getId(), toEpochDay(session.getDate()));
+                }
+                sessions[i] = null;
+            }
+        }
+        int due = 0;
+        for (int i = 0; i < buffer.size; i++) {
+            buffer.dueDates[i] = dueDate(buffer.lastAttended[i], buffer.intervals[i], targetDate);
+            if (buffer.dueDates[i] != NOT_DUE) {
+                due++;
+            }
+        }
+        return due;
+    }
+
+    public static int toEpochDay(LocalDate date) {
+        return Math.toIntExact(date.toEpochDay());
+    }
+
+    private static int monthIndex(int epochDay) {
+        if (epochDay < MONTH_STARTS[0] || epochDay >= MONTH_STARTS[MONTHS]) {
+            return -1;
+        }
+        // 146097 days in 400 years; the estimate is at most one month off
+        int month = (int) ((epochDay - MONTH_STARTS[0]) * 4800L / 146097);
+        month = Math.min(month, MONTHS - 1);
+        while (MONTH_STARTS[month] > epochDay) {
+            month--;
+        }
+        while (MONTH_STARTS[month + 1] <= epochDay) {
+            month++;
+        }
+        return month;
+    }
+
+    /**
+     * The mandatory trainings of one employee with their last attendance and due date, reused from employee to
+     * employee. Not thread-safe.
+     */
+    public static final class Buffer {
+        private Training[] trainings = new Training[8];
+        private TrainingSession[] sessions = new TrainingSession[32];
+        private int[] intervals = new int[8];
+        private int[] lastAttended = new int[8];
+        private int[] dueDates = new int[8];
+        private int size;
+
+        /**
+         * Number of mandatory trainings of the last computed employee.
+         */
+        public int size() {
+            return size;
+        }
+
+        public Training training(int index) {
+            return trainings[index];
+        }
+
+        /**
+         * The last attendance as epoch day, or {@link #NEVER_ATTENDED}.
+         */
+        public int lastAttended(int index) {
+            return lastAttended[index];
+        }
+
+        /**
+         * The due date as epoch day, or {@link #NOT_DUE}.
+         */
+        public int dueDate(int index) {
+            return dueDates[index];
+        }
+
+        public boolean isDue(int index) {
+            return dueDates[index] != NOT_DUE;
+        }
+
+        private void clear() {
+            // Do not keep the trainings of the last employee reachable
+            Arrays.fill(trainings, 0, size, null);
+            size = 0;
+        }
+
+        private void setTrainings(Set<Training> mandatoryTrainings) {
+            trainings = mandatoryTrainings.toArray(trainings);
+            size = mandatoryTrainings.size();
+            if (intervals.length < size) {
+                intervals = new int[trainings.length];
+                lastAttended = new int[trainings.length];
+                dueDates = new int[trainings.length];
+            }
+            for (int i = 0; i < size; i++) {
+                Integer interval = trainings[i].getInterval();
+                intervals[i] = interval != null ? interval : NO_INTERVAL;
+                lastAttended[i] = NEVER_ATTENDED;
+            }
+        }
+
+        private void attended(Long trainingId, int date) {
+            // Employees have a handful of mandatory trainings, a scan beats hashing
+            for (int i = 0; i < size; i++) {
+                if (trainingId != null && trainingId.equals(trainings[i].getId()) && date > lastAttended[i]) {
+                    lastAttended[i] = date;
+                }
+            }
+        }
+    }
+}
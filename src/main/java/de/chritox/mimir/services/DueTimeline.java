@@ -0,0 +1,30 @@
+package de.chritox.mimir.services;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Forecast of the mandatory trainings that become due per month, department and training, see
+ * {@link ComplianceService#getDueTimeline(LocalDate, int)}. The first month starts on the start date.
+ */
+public record DueTimeline(LocalDate startDate, List<YearMonth> months, List<Entry> entries) {
+
+    /**
+     * Due trainings of one training in one department.
+     *
+     * @param departmentId {@code null} for employees without department
+     * @param overdue      trainings already due before the start date, including the ones never attended
+     * @param dueByMonth   trainings becoming due in each of the {@link #months()}
+     * @param total        the overdue trainings and all trainings becoming due within the horizon
+     */
+    public record Entry(Long departmentId, String department, Long trainingId, String training,
+                        int overdue, List<Integer> dueByMonth, int total) {
+
+        public Entry(Long departmentId, String department, Long trainingId, String training,
+                     int overdue, List<Integer> dueByMonth) {
+            this(departmentId, department, trainingId, training, overdue, dueByMonth,
+                    overdue + dueByMonth.stream().mapToInt(Integer::intValue).sum());
+        }
+    }
+}
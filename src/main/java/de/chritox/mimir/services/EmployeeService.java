@@ -1,38 +1,150 @@
 package de.chritox.mimir.services;
 
 import de.chritox.mimir.models.Employee;
+import de.chritox.mimir.repositories.EmployeeListItem;
 import de.chritox.mimir.repositories.EmployeeRepository;
+import de.chritox.mimir.repositories.EmployeeRow;
+import de.chritox.mimir.repositories.EmployeeSpecifications;
+import de.chritox.mimir.repositories.EmployeeSummary;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class EmployeeService {
     private final EmployeeRepository employeeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ComplianceCache complianceCache;
 
     public List<Employee> findAll() {
         return employeeRepository.findAll();
     }
 
+    /**
+     * Returns one page of the filtered employee list. Filters that are {@code null} are ignored.
+     */
+    public Page<EmployeeListItem> findPage(Long departmentId, Long trainingId, Pageable pageable) {
+        Page<EmployeeSummary> page = employeeRepository.findBy(filter(departmentId, trainingId), query -> query
+                .as(EmployeeSummary.class)
+                .page(pageable));
+        Map<Long, EmployeeListItem> items = listItems(page.getContent());
+        return page.map(employee -> items.get(employee.getId()));
+    }
+
+    /**
+     * Returns the employees following the given keyset position in the given order, which has to end with the id.
+     * Unlike {@link #findPage}, the cost does not grow with the position in the list.
+     */
+    public Window<EmployeeListItem> findWindow(Long departmentId, Long trainingId, Sort sort,
+                                               ScrollPosition position, int size) {
+        Window<EmployeeSummary> window = employeeRepository.findBy(filter(departmentId, trainingId), query -> query
+                .as(EmployeeSummary.class)
+                .sortBy(sort)
+                .limit(size)
+                .scroll(position));
+        Map<Long, EmployeeListItem> items = listItems(window.getContent());
+        return window.map(employee -> items.get(employee.getId()));
+    }
+
     public Optional<Employee> findById(Long id) {
         return employeeRepository.findById(id);
     }
 
+    public List<Employee> findAllById(Collection<Long> ids) {
+        return employeeRepository.findAllById(ids);
+    }
+
+    public Optional<Employee> findWithComplianceDataById(Long id) {
+        return employeeRepository.findWithComplianceDataById(id);
+    }
+
+    public Optional<Employee> findWithMandatoryTrainingsById(Long id) {
+        return employeeRepository.findWithMandatoryTrainingsById(id);
+    }
+
     public List<Employee> findByDepartmentId(Long departmentId) {
         return employeeRepository.findByDepartmentId(departmentId);
     }
 
+    public List<EmployeeRow> findAllRows() {
+        return employeeRepository.findAllRows();
+    }
+
+    public List<EmployeeRow> findRowsByDepartmentId(Long departmentId) {
+        return employeeRepository.findRowsByDepartmentId(departmentId);
+    }
+
+    public long countByDepartmentId(Long departmentId) {
+        return employeeRepository.countByDepartmentId(departmentId);
+    }
+
+    public Stream<EmployeeSummary> streamByDepartmentId(Long departmentId) {
+        return employeeRepository.streamByDepartmentId(departmentId);
+    }
+
     @Transactional
     public Employee save(Employee employee) {
-        return employeeRepository.save(employee);
+        // An employee moving to another department leaves the cached results of the old one outdated
+        Set<Long> affectedDepartmentIds = employee.getId() != null
+                ? new HashSet<>(employeeRepository.findDepartmentIds(List.of(employee.getId())))
+                : new HashSet<>();
+        Employee saved = employeeRepository.saveAndFlush(employee);
+        if (saved.getDepartment() != null) {
+            affectedDepartmentIds.add(saved.getDepartment().getId());
+        }
+        eventPublisher.publishEvent(new ComplianceChange.MandatoryTrainingsChanged(Set.of(saved.getId())));
+        complianceCache.evictDepartments(affectedDepartmentIds);
+        return saved;
     }
 
     @Transactional
     public void deleteById(Long id) {
+        complianceCache.evictDepartments(employeeRepository.findDepartmentIds(List.of(id)));
+        eventPublisher.publishEvent(new ComplianceChange.EmployeeDeleted(id));
         employeeRepository.deleteById(id);
     }
+
+    /**
+     * Returns the departments of the given employees.
+     */
+    public List<Long> findDepartmentIds(Collection<Long> employeeIds) {
+        return employeeIds.isEmpty() ? List.of() : employeeRepository.findDepartmentIds(employeeIds);
+    }
+
+    /**
+     * Loads the list rows of the given employees with one query, keyed by id.
+     */
+    private Map<Long, EmployeeListItem> listItems(List<EmployeeSummary> employees) {
+        if (employees.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> ids = employees.stream().map(EmployeeSummary::getId).toList();
+        return employeeRepository.findListItemsByIdIn(ids).stream()
+                .collect(Collectors.toMap(EmployeeListItem::id, Function.identity()));
+    }
+
+    private static Specification<Employee> filter(Long departmentId, Long trainingId) {
+        return Specification.allOf(
+                EmployeeSpecifications.inDepartment(departmentId),
+                EmployeeSpecifications.hasMandatoryTraining(trainingId));
+    }
 }
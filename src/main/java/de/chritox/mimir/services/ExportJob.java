@@ -0,0 +1,159 @@
+package de.chritox.mimir.services;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * An Excel export running in the background, see {@link ExportJobService}.
+ * <p>
+ * Rows are counted as they are written; subscribers are notified whenever the state changes or a department
+ * is finished, not for every row.
+ */
+public class ExportJob implements ExportProgress {
+
+    public enum State {
+        QUEUED, RUNNING, DONE, FAILED
+    }
+
+    /**
+     * Progress of a job at one point in time.
+     */
+    public record Status(String id, State state, LocalDate targetDate, Long departmentId,
+                         int departmentsDone, int departmentsTotal, long rows, String error) {
+    }
+
+    @Getter
+    private final String id;
+    @Getter
+    private final LocalDate targetDate;
+    @Getter
+    private final Long departmentId;
+
+    private final AtomicInteger departmentsDone = new AtomicInteger();
+    private final AtomicLong rows = new AtomicLong();
+    private final List<Consumer<Status>> subscribers = new ArrayList<>();
+    /**
+     * Guards the subscribers. Not a monitor, since subscribers write to the network while notified and would pin
+     * a virtual thread to its carrier.
+     */
+    private final ReentrantLock subscribersLock = new ReentrantLock();
+
+    private volatile State state = State.QUEUED;
+    private volatile int departmentsTotal;
+    private volatile String error;
+    @Getter
+    private volatile Path file;
+    @Getter
+    private volatile Instant finishedAt;
+    @Getter
+    private volatile Instant downloadedAt;
+
+    ExportJob(String id, LocalDate targetDate, Long departmentId) {
+        this.id = id;
+        this.targetDate = targetDate;
+        this.departmentId = departmentId;
+    }
+
+    public Status getStatus() {
+        return new Status(id, state, targetDate, departmentId, departmentsDone.get(), departmentsTotal,
+                rows.get(), error);
+    }
+
+    public boolean isDone() {
+        return state == State.DONE;
+    }
+
+    public boolean isFinished() {
+        return state == State.DONE || state == State.FAILED;
+    }
+
+    /**
+     * Registers a subscriber and passes it the current status. Finished jobs only pass their final status.
+     */
+    public void subscribe(Consumer<Status> subscriber) {
+        subscribersLock.lock();
+        try {
+            subscriber.accept(getStatus());
+            if (!isFinished()) {
+                subscribers.add(subscriber);
+            }
+        } finally {
+            subscribersLock.unlock();
+        }
+    }
+
+    public void unsubscribe(Consumer<Status> subscriber) {
+        subscribersLock.lock();
+        try {
+            subscribers.remove(subscriber);
+        } finally {
+            subscribersLock.unlock();
+        }
+    }
+
+    void running(Path file) {
+        this.file = file;
+        state = State.RUNNING;
+        publish();
+    }
+
+    void completed() {
+        finishedAt = Instant.now();
+        state = State.DONE;
+        publish();
+    }
+
+    void failed(String error) {
+        this.error = error;
+        file = null;
+        finishedAt = Instant.now();
+        state = State.FAILED;
+        publish();
+    }
+
+    void downloaded(Instant downloadedAt) {
+        this.downloadedAt = downloadedAt;
+    }
+
+    @Override
+    public void started(int departments) {
+        departmentsTotal = departments;
+        publish();
+    }
+
+    @Override
+    public void rowWritten() {
+        rows.incrementAndGet();
+    }
+
+    @Override
+    public void departmentWritten() {
+        departmentsDone.incrementAndGet();
+        publish();
+    }
+
+    private void publish() {
+        subscribersLock.lock();
+        try {
+            Status status = getStatus();
+            // Subscribers may unsubscribe while being notified
+            for (Consumer<Status> subscriber : List.copyOf(subscribers)) {
+                subscriber.accept(status);
+            }
+            if (isFinished()) {
+                subscribers.clear();
+            }
+        } finally {
+            subscribersLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package de.chritox.mimir.services;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs Excel exports in the background and keeps the finished workbooks in temporary files for download.
+ * <p>
+ * Jobs run on the bounded export executor, which rejects new jobs once its queue is full. A job for the same
+ * target date and department as a queued, running or recently finished job is not started again, the
+ * existing job is returned instead. Finished jobs and their files are discarded by a scheduled cleanup once the
+ * retention period has passed since they finished or were last downloaded.
+ */
+@Service
+public class ExportJobService {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ReportService reportService;
+    private final ExecutorService exportExecutor;
+    private final Duration dedupeWindow;
+    private final Duration retention;
+
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+    /** Latest job per target date and department, guarded by {@code this}. */
+    private final Map<JobKey, ExportJob> latestJobs = new HashMap<>();
+
+    public ExportJobService(ReportService reportService, ExecutorService exportExecutor,
+                            @Value("${mimir.report.export-jobs.dedupe-window:1m}") Duration dedupeWindow,
+                            @Value("${mimir.report.export-jobs.retention:30m}") Duration retention) {
+        this.reportService = reportService;
+        this.exportExecutor = exportExecutor;
+        this.dedupeWindow = dedupeWindow;
+        this.retention = retention;
+    }
+
+    /**
+     * Starts an export of the given department, or of all departments if {@code departmentId} is {@code null}.
+     *
+     * @throws RejectedExecutionException if too many exports are waiting already
+     */
+    public synchronized ExportJob enqueue(LocalDate targetDate, Long departmentId) {
+        Instant now = Instant.now();
+        JobKey key = new JobKey(targetDate, departmentId);
+        ExportJob latest = latestJobs.get(key);
+        if (latest != null && isReusable(latest, now)) {
+            return latest;
+        }
+
+        ExportJob job = new ExportJob(UUID.randomUUID().toString(), targetDate, departmentId);
+        exportExecutor.execute(() -> run(job));
+        jobs.put(job.getId(), job);
+        latestJobs.put(key, job);
+        return job;
+    }
+
+    public Optional<ExportJob> findById(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    /**
+     * Returns the workbook of a finished job for download, or nothing once the job was discarded. The file is kept
+     * for another retention period, so the cleanup does not delete it before it is sent.
+     */
+    public synchronized Optional<Path> download(ExportJob job) {
+        if (!job.isDone() || jobs.get(job.getId()) != job) {
+            return Optional.empty();
+        }
+        job.downloaded(Instant.now());
+        return Optional.of(job.getFile());
+    }
+
+    private boolean isReusable(ExportJob job, Instant now) {
+        return switch (job.getStatus().state()) {
+            case QUEUED, RUNNING -> true;
+            case DONE -> job.getFinishedAt().plus(dedupeWindow).isAfter(now);
+            case FAILED -> false;
+        };
+    }
+
+    private void run(ExportJob job) {
+        Path file = null;
+        try {
+            file = Files.createTempFile("mimir-export-", ".xlsx");
+            job.running(file);
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE)) {
+                reportService.writeDepartmentTrainingReport(job.getTargetDate(), job.getDepartmentId(),
+                        outputStream, job);
+            }
+            job.completed();
+        } catch (Exception e) {
+            deleteQuietly(file);
+            job.failed(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Discards the jobs that finished, and were last downloaded, longer than the retention period ago, together with
+     * their files.
+     */
+    @Scheduled(fixedDelayString = "${mimir.report.export-jobs.cleanup-interval:1m}")
+    public synchronized void discardExpired() {
+        Instant now = Instant.now();
+        for (Iterator<ExportJob> iterator = jobs.values().iterator(); iterator.hasNext(); ) {
+            ExportJob job = iterator.next();
+            if (job.isFinished() && lastUsed(job).plus(retention).isBefore(now)) {
+                iterator.remove();
+                latestJobs.remove(new JobKey(job.getTargetDate(), job.getDepartmentId()), job);
+                deleteQuietly(job.getFile());
+            }
+        }
+    }
+
+    private static Instant lastUsed(ExportJob job) {
+        return job.getDownloadedAt() != null ? job.getDownloadedAt() : job.getFinishedAt();
+    }
+
+    @PreDestroy
+    void deleteFiles() {
+        jobs.values().forEach(job -> deleteQuietly(job.getFile()));
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // Left to the cleanup of the temporary directory
+        }
+    }
+
+    private record JobKey(LocalDate targetDate, Long departmentId) {
+    }
+}
@@ -0,0 +1,18 @@
+package de.chritox.mimir.services;
+
+/**
+ * Receives the progress of an Excel export. All methods are called on the exporting thread.
+ */
+public interface ExportProgress {
+    ExportProgress NONE = new ExportProgress() {
+    };
+
+    default void started(int departments) {
+    }
+
+    default void rowWritten() {
+    }
+
+    default void departmentWritten() {
+    }
+}
@@ -0,0 +1,98 @@
+package de.chritox.mimir.services;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The id sequences of the entities. Hibernate uses them with its pooled optimizer: every value fetched from a
+ * sequence reserves the block of {@link #ALLOCATION_SIZE} ids that ends at this value.
+ * <p>
+ * On startup every sequence is moved past the highest id of its table. This migrates databases whose ids came
+ * from identity columns before the entities used sequences, and covers rows inserted with explicit ids, e.g. by
+ * the {@link DataGeneratorService}. The sequences are created by the schema migrations, which run first.
+ */
+@Component
+@DependsOnDatabaseInitialization
+@RequiredArgsConstructor
+public class IdSequences {
+    /**
+     * Allocation size of JPA's default sequence generator, Hibernate creates the sequences with this increment.
+     */
+    public static final int ALLOCATION_SIZE = 50;
+
+    public static final String DEPARTMENT = "department_seq";
+    public static final String EMPLOYEE = "employee_seq";
+    public static final String TRAINING = "training_seq";
+    public static final String TRAINING_SESSION = "training_session_seq";
+
+    private static final Map<String, String> TABLES = Map.of(
+            DEPARTMENT, "department",
+            EMPLOYEE, "employee",
+            TRAINING, "training",
+            TRAINING_SESSION, "training_session");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Restarts every sequence whose next block could contain an id that is in use already. Sequences are only
+     * ever moved forward.
+     */
+    @PostConstruct
+    public void restartAfterExistingIds() {
+        TABLES.keySet().forEach(sequence -> {
+            long restartWith = maxId(sequence) + ALLOCATION_SIZE;
+            if (nextValue(sequence) < restartWith) {
+                jdbcTemplate.execute("alter sequence " + sequence + " restart with " + restartWith);
+            }
+        });
+    }
+
+    /**
+     * The highest id that is in use or may still be assigned from a block Hibernate has fetched already. Rows with
+     * higher ids can be inserted without the sequence, as long as {@link #restartAfterExistingIds()} follows.
+     */
+    public long highestTakenId(String sequence) {
+        return Math.max(maxId(sequence), nextValue(sequence) - ALLOCATION_SIZE);
+    }
+
+    /**
+     * Reserves new ids for rows that are inserted past Hibernate, in blocks like Hibernate does.
+     */
+    public List<Long> allocate(String sequence, int count) {
+        int blocks = (count + ALLOCATION_SIZE - 1) / ALLOCATION_SIZE;
+        List<Long> blockEnds = jdbcTemplate.queryForList(
+                "select next value for " + sequence + " from system_range(1, ?)", Long.class, blocks);
+
+        List<Long> ids = new ArrayList<>(count);
+        for (long blockEnd : blockEnds) {
+            for (long id = blockEnd - ALLOCATION_SIZE + 1; id <= blockEnd && ids.size() < count; id++) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private long maxId(String sequence) {
+        Long maxId = jdbcTemplate.queryForObject(
+                "select coalesce(max(id), 0) from " + TABLES.get(sequence), Long.class);
+        return maxId != null ? maxId : 0;
+    }
+
+    private long nextValue(String sequence) {
+        Long nextValue = jdbcTemplate.queryForObject(
+                "select base_value from information_schema.sequences where sequence_name = ?",
+                Long.class, sequence.toUpperCase(Locale.ROOT));
+        if (nextValue == null) {
+            throw new IllegalStateException("Missing sequence: " + sequence);
+        }
+        return nextValue;
+    }
+}
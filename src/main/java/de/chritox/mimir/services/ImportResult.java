@@ -0,0 +1,14 @@
+package de.chritox.mimir.services;
+
+import java.util.List;
+
+/**
+ * Outcome of an import. Rows that are already present are skipped, rows that cannot be imported are counted as
+ * failed and reported with their row number; only the first {@link #MAX_REPORTED_ERRORS} errors are kept.
+ */
+public record ImportResult(int rows, int imported, int skipped, int failed, List<RowError> errors) {
+    public static final int MAX_REPORTED_ERRORS = 100;
+
+    public record RowError(int row, String message) {
+    }
+}
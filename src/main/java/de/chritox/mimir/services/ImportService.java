@@ -0,0 +1,424 @@
+package de.chritox.mimir.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Imports employees and attendance records from CSV or XLSX files, e.g. when migrating from another system.
+ * <p>
+ * Files are read row by row. Departments, trainings, employees and sessions are resolved through lookup maps that
+ * are loaded once per import, and rows are written with JDBC batch inserts. After every batch the compliance status
+ * of the affected employees is updated. A file is imported in one transaction; rows with errors are reported and
+ * left out, all other rows are imported. Names and titles are matched case-insensitively.
+ */
+@Service
+public class ImportService {
+    static final String EMPLOYEE_NAME = "Name";
+    static final String EMPLOYEE_DEPARTMENT = "Abteilung";
+    static final String EMPLOYEE_TRAININGS = "Pflichtschulungen";
+    static final String ATTENDANCE_EMPLOYEE = "Mitarbeiter";
+    static final String ATTENDANCE_TRAINING = "Schulung";
+    static final String ATTENDANCE_DATE = "Datum";
+
+    private static final DateTimeFormatter GERMAN_DATE = DateTimeFormatter.ofPattern("d.M.uuuu");
+    private static final EmployeeRef AMBIGUOUS = new EmployeeRef(-1, null);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ComplianceCache complianceCache;
+    private final IdSequences idSequences;
+    private final int batchSize;
+
+    public ImportService(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher,
+                         ComplianceCache complianceCache, IdSequences idSequences,
+                         @Value("${mimir.import.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.complianceCache = complianceCache;
+        this.idSequences = idSequences;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Imports employees from the columns {@value #EMPLOYEE_NAME}, {@value #EMPLOYEE_DEPARTMENT} (optional) and
+     * {@value #EMPLOYEE_TRAININGS} (optional, comma-separated training titles). Employees whose name exists
+     * already are skipped.
+     *
+     * @throws IllegalArgumentException if the file type is not supported or a column is missing
+     */
+    @Transactional
+    public ImportResult importEmployees(String filename, InputStream inputStream) throws IOException {
+        EmployeeImport employeeImport = new EmployeeImport();
+        RowReader.forFilename(filename).read(inputStream, employeeImport);
+        return employeeImport.finish();
+    }
+
+    /**
+     * Imports attendances from the columns {@value #ATTENDANCE_EMPLOYEE}, {@value #ATTENDANCE_TRAINING} and
+     * {@value #ATTENDANCE_DATE}. A session of the training on that date is created unless it exists. Attendances
+     * that are recorded already are skipped.
+     *
+     * @throws IllegalArgumentException if the file type is not supported or a column is missing
+     */
+    @Transactional
+    public ImportResult importAttendances(String filename, InputStream inputStream) throws IOException {
+        AttendanceImport attendanceImport = new AttendanceImport();
+        RowReader.forFilename(filename).read(inputStream, attendanceImport);
+        return attendanceImport.finish();
+    }
+
+    /**
+     * Common part of both imports: locates the columns in the header row, collects parsed rows into batches and
+     * keeps the counts and errors.
+     */
+    private abstract class BatchImport<T> implements RowReader.RowHandler {
+        private final List<String> columns;
+        private final List<String> requiredColumns;
+        private int[] columnIndexes;
+        private final List<T> batch = new ArrayList<>();
+        private final List<ImportResult.RowError> errors = new ArrayList<>();
+        private int rows;
+        private int imported;
+        private int skipped;
+        private int failed;
+        /** Departments of the imported rows, their cached compliance views are evicted at the end. */
+        protected final Set<Long> departmentIds = new HashSet<>();
+
+        BatchImport(List<String> columns, List<String> requiredColumns) {
+            this.columns = columns;
+            this.requiredColumns = requiredColumns;
+        }
+
+        /**
+         * Returns the row to import, or {@code null} if it is present already.
+         *
+         * @throws RowException if the row cannot be imported
+         */
+        abstract T parse(String[] values);
+
+        abstract void write(List<T> batch);
+
+        @Override
+        public void row(int rowNumber, List<String> cells) {
+            if (columnIndexes == null) {
+                columnIndexes = locateColumns(cells);
+                return;
+            }
+
+            rows++;
+            String[] values = new String[columns.size()];
+            for (int i = 0; i < values.length; i++) {
+                int index = columnIndexes[i];
+                values[i] = index >= 0 && index < cells.size() ? cells.get(index) : "";
+            }
+            try {
+                T row = parse(values);
+                if (row == null) {
+                    skipped++;
+                    return;
+                }
+                batch.add(row);
+                if (batch.size() >= batchSize) {
+                    flush();
+                }
+            } catch (RowException e) {
+                failed++;
+                if (errors.size() < ImportResult.MAX_REPORTED_ERRORS) {
+                    errors.add(new ImportResult.RowError(rowNumber, e.getMessage()));
+                }
+            }
+        }
+
+        ImportResult finish() {
+            if (columnIndexes == null) {
+                throw new IllegalArgumentException("Die Datei enthält keine Kopfzeile");
+            }
+            flush();
+            if (imported > 0) {
+                departmentIds.remove(null);
+                complianceCache.evictDepartments(departmentIds);
+            }
+            return new ImportResult(rows, imported, skipped, failed, List.copyOf(errors));
+        }
+
+        private void flush() {
+            if (!batch.isEmpty()) {
+                write(batch);
+                imported += batch.size();
+                batch.clear();
+            }
+        }
+
+        private int[] locateColumns(List<String> header) {
+            int[] indexes = new int[columns.size()];
+            for (int i = 0; i < indexes.length; i++) {
+                String column = columns.get(i);
+                indexes[i] = -1;
+                for (int j = 0; j < header.size(); j++) {
+                    if (header.get(j).equalsIgnoreCase(column)) {
+                        indexes[i] = j;
+                        break;
+                    }
+                }
+                if (indexes[i] < 0 && requiredColumns.contains(column)) {
+                    throw new IllegalArgumentException("Die Spalte '" + column + "' fehlt");
+                }
+            }
+            return indexes;
+        }
+    }
+
+    private final class EmployeeImport extends BatchImport<NewEmployee> {
+        private final Map<String, Long> departments = loadIds("select id, name from department");
+        private final Map<String, Long> trainings = loadIds("select id, title from training");
+        private final Set<String> employeeNames = new HashSet<>();
+
+        EmployeeImport() {
+            super(List.of(EMPLOYEE_NAME, EMPLOYEE_DEPARTMENT, EMPLOYEE_TRAININGS), List.of(EMPLOYEE_NAME));
+            jdbcTemplate.query("select name from employee where name is not null",
+                    resultSet -> {
+                        employeeNames.add(normalize(resultSet.getString(1)));
+                    });
+        }
+
+        @Override
+        NewEmployee parse(String[] values) {
+            String name = values[0];
+            if (name.isEmpty()) {
+                throw new RowException("Der Name fehlt");
+            }
+
+            Long departmentId = null;
+            if (!values[1].isEmpty()) {
+                departmentId = departments.get(normalize(values[1]));
+                if (departmentId == null) {
+                    throw new RowException("Unbekannte Abteilung: " + values[1]);
+                }
+            }
+
+            Set<Long> trainingIds = new LinkedHashSet<>();
+            for (String title : values[2].split(",")) {
+                if (!title.isBlank()) {
+                    Long trainingId = trainings.get(normalize(title));
+                    if (trainingId == null) {
+                        throw new RowException("Unbekannte Schulung: " + title.trim());
+                    }
+                    trainingIds.add(trainingId);
+                }
+            }
+
+            if (!employeeNames.add(normalize(name))) {
+                return null;
+            }
+            return new NewEmployee(name, departmentId, trainingIds);
+        }
+
+        @Override
+        void write(List<NewEmployee> batch) {
+            List<Long> ids = idSequences.allocate(IdSequences.EMPLOYEE, batch.size());
+            jdbcTemplate.batchUpdate("insert into employee (id, name, department_id) values (?, ?, ?)",
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(@NonNull PreparedStatement statement, int i) throws SQLException {
+                            NewEmployee employee = batch.get(i);
+                            statement.setLong(1, ids.get(i));
+                            statement.setString(2, employee.name());
+                            if (employee.departmentId() != null) {
+                                statement.setLong(3, employee.departmentId());
+                            } else {
+                                statement.setNull(3, Types.BIGINT);
+                            }
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return batch.size();
+                        }
+                    });
+
+            List<long[]> mandatoryTrainings = new ArrayList<>();
+            for (int i = 0; i < batch.size(); i++) {
+                NewEmployee employee = batch.get(i);
+                for (Long trainingId : employee.trainingIds()) {
+                    mandatoryTrainings.add(new long[]{ids.get(i), trainingId});
+                }
+                departmentIds.add(employee.departmentId());
+            }
+            if (!mandatoryTrainings.isEmpty()) {
+                jdbcTemplate.batchUpdate("insert into mandatory_training (employee_id, training_id) values (?, ?)",
+                        mandatoryTrainings, mandatoryTrainings.size(), ImportService::setIds);
+            }
+            eventPublisher.publishEvent(new ComplianceChange.MandatoryTrainingsChanged(Set.copyOf(ids)));
+        }
+    }
+
+    private final class AttendanceImport extends BatchImport<AttendanceRow> {
+        private final Map<String, Long> trainings = loadIds("select id, title from training");
+        private final Map<String, EmployeeRef> employees = new HashMap<>();
+        private final Map<SessionKey, Long> sessions = new HashMap<>();
+        private final Set<AttendanceKey> attendances = new HashSet<>();
+
+        AttendanceImport() {
+            super(List.of(ATTENDANCE_EMPLOYEE, ATTENDANCE_TRAINING, ATTENDANCE_DATE),
+                    List.of(ATTENDANCE_EMPLOYEE, ATTENDANCE_TRAINING, ATTENDANCE_DATE));
+            jdbcTemplate.query("select id, name, department_id from employee where name is not null",
+                    resultSet -> {
+                        EmployeeRef employee = new EmployeeRef(resultSet.getLong(1),
+                                resultSet.getObject(3, Long.class));
+                        employees.merge(normalize(resultSet.getString(2)), employee, (first, second) -> AMBIGUOUS);
+                    });
+            jdbcTemplate.query("select id, training_id, date from training_session "
+                            + "where training_id is not null and date is not null",
+                    resultSet -> {
+                        sessions.put(new SessionKey(resultSet.getLong(2), resultSet.getDate(3).toLocalDate()),
+                                resultSet.getLong(1));
+                    });
+            jdbcTemplate.query("""
+                    select p.employee_id, s.training_id, s.date
+                    from training_session_participants p
+                    join training_session s on s.id = p.session_id
+                    where s.training_id is not null and s.date is not null
+                    """,
+                    resultSet -> {
+                        attendances.add(new AttendanceKey(resultSet.getLong(1), resultSet.getLong(2),
+                                resultSet.getDate(3).toLocalDate()));
+                    });
+        }
+
+        @Override
+        AttendanceRow parse(String[] values) {
+            EmployeeRef employee = employees.get(normalize(values[0]));
+            if (employee == null) {
+                throw new RowException("Unbekannter Mitarbeiter: " + values[0]);
+            }
+            if (employee == AMBIGUOUS) {
+                throw new RowException("Der Mitarbeitername ist nicht eindeutig: " + values[0]);
+            }
+            Long trainingId = trainings.get(normalize(values[1]));
+            if (trainingId == null) {
+                throw new RowException("Unbekannte Schulung: " + values[1]);
+            }
+            LocalDate date = parseDate(values[2]);
+
+            if (!attendances.add(new AttendanceKey(employee.id(), trainingId, date))) {
+                return null;
+            }
+            return new AttendanceRow(employee, new SessionKey(trainingId, date));
+        }
+
+        @Override
+        void write(List<AttendanceRow> batch) {
+            List<SessionKey> newSessions = batch.stream()
+                    .map(AttendanceRow::session)
+                    .filter(session -> !sessions.containsKey(session))
+                    .distinct()
+                    .toList();
+            if (!newSessions.isEmpty()) {
+                List<Long> ids = idSequences.allocate(IdSequences.TRAINING_SESSION, newSessions.size());
+                List<Object[]> rows = new ArrayList<>(newSessions.size());
+                for (int i = 0; i < newSessions.size(); i++) {
+                    SessionKey session = newSessions.get(i);
+                    sessions.put(session, ids.get(i));
+                    rows.add(new Object[]{ids.get(i), session.trainingId(), Date.valueOf(session.date())});
+                }
+                jdbcTemplate.batchUpdate("insert into training_session (id, training_id, date) values (?, ?, ?)",
+                        rows, new int[]{Types.BIGINT, Types.BIGINT, Types.DATE});
+            }
+
+            List<long[]> participants = new ArrayList<>(batch.size());
+            List<ComplianceChange.Attendance> attendances = new ArrayList<>(batch.size());
+            for (AttendanceRow attendance : batch) {
+                long employeeId = attendance.employee().id();
+                participants.add(new long[]{sessions.get(attendance.session()), employeeId});
+                attendances.add(new ComplianceChange.Attendance(employeeId, attendance.session().trainingId(),
+                        attendance.session().date()));
+                departmentIds.add(attendance.employee().departmentId());
+            }
+            jdbcTemplate.batchUpdate(
+                    "insert into training_session_participants (session_id, employee_id) values (?, ?)",
+                    participants, participants.size(), ImportService::setIds);
+            eventPublisher.publishEvent(new ComplianceChange.Attended(attendances));
+        }
+    }
+
+    /**
+     * Maps the normalized names in the second column to the ids in the first.
+     */
+    private Map<String, Long> loadIds(String sql) {
+        Map<String, Long> ids = new HashMap<>();
+        jdbcTemplate.query(sql, resultSet -> {
+            String name = resultSet.getString(2);
+            if (name != null) {
+                ids.putIfAbsent(normalize(name), resultSet.getLong(1));
+            }
+        });
+        return ids;
+    }
+
+    /**
+     * Parses ISO dates as written by the XLSX reader and German dates like 15.01.2025.
+     */
+    private static LocalDate parseDate(String value) {
+        try {
+            return value.contains(".") ? LocalDate.parse(value, GERMAN_DATE) : LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new RowException("Ungültiges Datum: " + value);
+        }
+    }
+
+    private static void setIds(PreparedStatement statement, long[] ids) throws SQLException {
+        statement.setLong(1, ids[0]);
+        statement.setLong(2, ids[1]);
+    }
+
+    private static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * A row that cannot be imported, the message is shown to the user.
+     */
+    private static final class RowException extends RuntimeException {
+        RowException(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    private record NewEmployee(String name, Long departmentId, Set<Long> trainingIds) {
+    }
+
+    private record EmployeeRef(long id, Long departmentId) {
+    }
+
+    private record SessionKey(long trainingId, LocalDate date) {
+    }
+
+    private record AttendanceKey(long employeeId, long trainingId, LocalDate date) {
+    }
+
+    private record AttendanceRow(EmployeeRef employee, SessionKey session) {
+    }
+}
@@ -0,0 +1,137 @@
+package de.chritox.mimir.services;
+
+import java.util.Arrays;
+
+/**
+ * Hash map from {@code long} keys to {@code int} values without boxing, used to find the slots of entity ids.
+ * <p>
+ * Open addressing with linear probing; removals shift the following entries back instead of leaving tombstones.
+ * The key {@code 0} marks free entries and cannot be stored, entity ids start at 1. Not thread-safe.
+ */
+final class LongIntHashMap {
+    /**
+     * Returned by {@link #get(long)} for keys that are not contained.
+     */
+    static final int MISSING = -1;
+
+    private static final int MINIMUM_CAPACITY = 16;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+
+    LongIntHashMap() {
+        this(MINIMUM_CAPACITY);
+    }
+
+    LongIntHashMap(int expectedSize) {
+        int capacity = MINIMUM_CAPACITY;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        keys = new long[capacity];
+        values = new int[capacity];
+    }
+
+    int get(long key) {
+        if (key == 0) {
+            return MISSING;
+        }
+        int mask = keys.length - 1;
+        for (int i = index(key, mask); ; i = (i + 1) & mask) {
+            long candidate = keys[i];
+            if (candidate == key) {
+                return values[i];
+            }
+            if (candidate == 0) {
+                return MISSING;
+            }
+        }
+    }
+
+    void put(long key, int value) {
+        if (key == 0) {
+            throw new IllegalArgumentException("Key 0 cannot be stored");
+        }
+        int mask = keys.length - 1;
+        int i = index(key, mask);
+        while (keys[i] != 0 && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        if (keys[i] == key) {
+            values[i] = value;
+            return;
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+    }
+
+    void remove(long key) {
+        if (key == 0) {
+            return;
+        }
+        int mask = keys.length - 1;
+        int gap = index(key, mask);
+        while (keys[gap] != key) {
+            if (keys[gap] == 0) {
+                return;
+            }
+            gap = (gap + 1) & mask;
+        }
+        // Move back every following entry whose home slot is not between the gap and its position
+        for (int i = (gap + 1) & mask; keys[i] != 0; i = (i + 1) & mask) {
+            int home = index(keys[i], mask);
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+        keys[gap] = 0;
+        size--;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        Arrays.fill(keys, 0);
+        size = 0;
+    }
+
+    /**
+     * Heap used by the arrays of the map, assuming compressed references.
+     */
+    long estimatedSizeInBytes() {
+        return ComplianceIndex.arrayBytes(keys.length, Long.BYTES)
+                + ComplianceIndex.arrayBytes(values.length, Integer.BYTES);
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[capacity];
+        values = new int[capacity];
+        int mask = capacity - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != 0) {
+                int i = index(oldKeys[j], mask);
+                while (keys[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    private static int index(long key, int mask) {
+        // Sequence ids are consecutive, spread them over the table
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
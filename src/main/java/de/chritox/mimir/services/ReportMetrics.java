@@ -0,0 +1,64 @@
+package de.chritox.mimir.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Meters of the due date computation and the Excel export, published under {@code mimir.report.*}.
+ * <p>
+ * The export meters are tagged with the export mode ({@code in-memory} or {@code streaming}).
+ */
+@Component
+public class ReportMetrics {
+    static final String MODE_IN_MEMORY = "in-memory";
+    static final String MODE_STREAMING = "streaming";
+
+    private final MeterRegistry registry;
+    private final Timer dueTrainings;
+
+    public ReportMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        // Looked up once, the computation runs for every employee of a report
+        this.dueTrainings = Timer.builder("mimir.report.due-trainings")
+                .description("Due date computation for a single employee")
+                .register(registry);
+    }
+
+    Timer dueTrainings() {
+        return dueTrainings;
+    }
+
+    Timer.Sample startExport() {
+        return Timer.start(registry);
+    }
+
+    /**
+     * Records a finished export with the size of the written workbook and the number of sheets and data rows.
+     */
+    void exportCompleted(Timer.Sample sample, String mode, long bytes, int sheets, long rows) {
+        sample.stop(exportTimer(mode, "success"));
+        DistributionSummary.builder("mimir.report.export.size")
+                .description("Size of the written workbook")
+                .baseUnit("bytes")
+                .tag("mode", mode)
+                .register(registry)
+                .record(bytes);
+        Counter.builder("mimir.report.export.sheets").tag("mode", mode).register(registry).increment(sheets);
+        Counter.builder("mimir.report.export.rows").tag("mode", mode).register(registry).increment(rows);
+    }
+
+    void exportFailed(Timer.Sample sample, String mode) {
+        sample.stop(exportTimer(mode, "error"));
+    }
+
+    private Timer exportTimer(String mode, String outcome) {
+        return Timer.builder("mimir.report.export")
+                .description("Excel export of the training needs of all departments")
+                .tag("mode", mode)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
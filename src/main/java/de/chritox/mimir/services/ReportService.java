@@ -3,94 +3,249 @@ package de.chritox.mimir.services;
 import de.chritox.mimir.models.Department;
 import de.chritox.mimir.models.Employee;
 import de.chritox.mimir.models.Training;
-import de.chritox.mimir.models.TrainingSession;
+import de.chritox.mimir.repositories.EmployeeSummary;
+import de.chritox.mimir.services.ComplianceService.DueTraining;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import org.apache.commons.io.output.CountingOutputStream;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class ReportService {
+    /** Number of rows kept in memory per sheet by the streaming export. */
+    private static final int STREAMING_WINDOW_SIZE = 100;
+    private static final DateTimeFormatter TIMELINE_MONTH_FORMAT = DateTimeFormatter.ofPattern("MM/yyyy");
+    
     private final DepartmentService departmentService;
     private final EmployeeService employeeService;
     private final TrainingSessionService trainingSessionService;
+    private final ComplianceService complianceService;
+    private final ExecutorService reportExecutor;
+    private final ReportMetrics reportMetrics;
 
+    /**
+     * Returns the due trainings of an employee whose mandatory trainings and attended sessions are loaded.
+     * Reports over many employees should call {@link DueDateKernel#computeDueTrainings} with a reused buffer.
+     */
     public Map<Training, LocalDate> getDueTrainingsForEmployee(Employee employee, LocalDate targetDate) {
-        Map<Training, LocalDate> dueTrainings = new HashMap<>();
-        
-        if (employee.getMandatoryTrainings() == null || employee.getMandatoryTrainings().isEmpty()) {
+        return reportMetrics.dueTrainings().record(() -> {
+            DueDateKernel.Buffer buffer = new DueDateKernel.Buffer();
+            DueDateKernel.computeDueTrainings(employee, DueDateKernel.toEpochDay(targetDate), buffer);
+            Map<Training, LocalDate> dueTrainings = new HashMap<>();
+            for (int i = 0; i < buffer.size(); i++) {
+                if (buffer.isDue(i)) {
+                    dueTrainings.put(buffer.training(i), LocalDate.ofEpochDay(buffer.dueDate(i)));
+                }
+            }
             return dueTrainings;
-        }
+        });
+    }
+    
+    /**
+     * Builds the training-needs workbook in memory.
+     * <p>
+     * The rows of every department are loaded and computed in parallel on the report executor.
+     * The sheets are assembled on the calling thread in department order, so the output does not
+     * depend on which department finishes first.
+     */
+    public byte[] generateDepartmentTrainingReport(LocalDate targetDate) throws IOException {
+        Timer.Sample sample = reportMetrics.startExport();
+        List<Department> departments = departmentService.findAll();
+        List<CompletableFuture<List<EmployeeDueTrainings>>> departmentRows = departments.stream()
+                .map(department -> CompletableFuture.supplyAsync(
+                        () -> loadDepartmentRows(department.getId(), targetDate), reportExecutor))
+                .toList();
         
-        for (Training training : employee.getMandatoryTrainings()) {
-            LocalDate lastAttended = getLastAttendedDate(employee, training);
+        try (Workbook workbook = ReportStyles.openTemplateWorkbook();
+             ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
             
-            if (lastAttended == null) {
-                // Never attended - due immediately
-                dueTrainings.put(training, targetDate);
-            } else if (training.getInterval() != null) {
-                // Calculate next due date
-                LocalDate nextDueDate = lastAttended.plusMonths(training.getInterval());
-                if (!nextDueDate.isAfter(targetDate)) {
-                    dueTrainings.put(training, nextDueDate);
-                }
+            // Styles are shared by all sheets
+            ReportStyles styles = ReportStyles.fromTemplate(workbook);
+            
+            long rowCount = 0;
+            for (int i = 0; i < departments.size(); i++) {
+                List<EmployeeDueTrainings> rows = departmentRows.get(i).join();
+                rowCount += createDepartmentSheet(workbook, departments.get(i), rows.size(), rows, targetDate, styles,
+                        ExportProgress.NONE);
             }
+            
+            workbook.write(outputStream);
+            byte[] excelData = outputStream.toByteArray();
+            reportMetrics.exportCompleted(sample, ReportMetrics.MODE_IN_MEMORY, excelData.length,
+                    departments.size(), rowCount);
+            return excelData;
+        } catch (IOException | RuntimeException e) {
+            reportMetrics.exportFailed(sample, ReportMetrics.MODE_IN_MEMORY);
+            throw e;
+        } finally {
+            // Stop pending work if a department failed or the workbook could not be written
+            departmentRows.forEach(rows -> rows.cancel(false));
         }
-        
-        return dueTrainings;
     }
     
-    private LocalDate getLastAttendedDate(Employee employee, Training training) {
-        if (employee.getAttendedSessions() == null) {
-            return null;
-        }
+    private List<EmployeeDueTrainings> loadDepartmentRows(Long departmentId, LocalDate targetDate) {
+        Map<Long, List<DueTraining>> dueTrainings =
+                complianceService.getDueTrainingDetailsForDepartment(departmentId, targetDate);
+        return employeeService.findByDepartmentId(departmentId).stream()
+                .map(employee -> new EmployeeDueTrainings(employee.getName(),
+                        dueTrainings.getOrDefault(employee.getId(), List.of())))
+                .toList();
+    }
+    
+    /**
+     * Streaming variant of {@link #generateDepartmentTrainingReport(LocalDate)}.
+     * <p>
+     * Employees are scrolled per department and rows are flushed to temporary files by a windowed
+     * {@link SXSSFWorkbook}, so heap usage does not grow with the number of rows. The workbook is
+     * written directly to the given stream.
+     */
+    @Transactional(readOnly = true)
+    public void writeDepartmentTrainingReport(LocalDate targetDate, OutputStream outputStream) throws IOException {
+        writeDepartmentTrainingReport(targetDate, null, outputStream, ExportProgress.NONE);
+    }
+    
+    /**
+     * Streaming export limited to a single department, or covering all departments if {@code departmentId} is
+     * {@code null}. The progress is reported per written row and department.
+     */
+    @Transactional(readOnly = true)
+    public void writeDepartmentTrainingReport(LocalDate targetDate, Long departmentId, OutputStream outputStream,
+                                              ExportProgress progress) throws IOException {
+        Timer.Sample sample = reportMetrics.startExport();
+        List<Department> departments = departmentId != null
+                ? List.of(departmentService.findById(departmentId)
+                        .orElseThrow(() -> new IllegalArgumentException("Invalid department Id: " + departmentId)))
+                : departmentService.findAll();
+        progress.started(departments.size());
         
-        return employee.getAttendedSessions().stream()
-                .filter(session -> session.getTraining() != null && 
-                                 session.getTraining().getId().equals(training.getId()))
-                .map(TrainingSession::getDate)
-                .max(LocalDate::compareTo)
-                .orElse(null);
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(ReportStyles.openTemplateWorkbook(), STREAMING_WINDOW_SIZE)) {
+            workbook.setCompressTempFiles(true);
+            
+            // Styles are shared by all sheets
+            ReportStyles styles = ReportStyles.fromTemplate(workbook);
+            
+            long rowCount = 0;
+            for (Department department : departments) {
+                Map<Long, List<DueTraining>> dueTrainings =
+                        complianceService.getDueTrainingDetailsForDepartment(department.getId(), targetDate);
+                long employeeCount = employeeService.countByDepartmentId(department.getId());
+                
+                try (Stream<EmployeeSummary> employees = employeeService.streamByDepartmentId(department.getId())) {
+                    Iterable<EmployeeDueTrainings> rows = employees
+                            .map(employee -> new EmployeeDueTrainings(employee.getName(),
+                                    dueTrainings.getOrDefault(employee.getId(), List.of())))
+                            ::iterator;
+                    rowCount += createDepartmentSheet(workbook, department, employeeCount, rows, targetDate, styles,
+                            progress);
+                }
+                progress.departmentWritten();
+            }
+            
+            CountingOutputStream countingStream = new CountingOutputStream(outputStream);
+            workbook.write(countingStream);
+            reportMetrics.exportCompleted(sample, ReportMetrics.MODE_STREAMING, countingStream.getByteCount(),
+                    departments.size(), rowCount);
+        } catch (IOException | RuntimeException e) {
+            reportMetrics.exportFailed(sample, ReportMetrics.MODE_STREAMING);
+            throw e;
+        }
     }
     
-    public byte[] generateDepartmentTrainingReport(LocalDate targetDate) throws IOException {
-        List<Department> departments = departmentService.findAll();
+    /**
+     * Builds a workbook with the due timeline: one row per department and training with the trainings overdue on
+     * the start date and the ones becoming due in each month of the horizon.
+     */
+    public byte[] generateDueTimelineReport(LocalDate startDate, int months) throws IOException {
+        DueTimeline timeline = complianceService.getDueTimeline(startDate, months);
         
-        try (Workbook workbook = new XSSFWorkbook();
+        try (Workbook workbook = ReportStyles.openTemplateWorkbook();
              ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
             
-            // Create styles
-            CellStyle headerStyle = createHeaderStyle(workbook);
-            CellStyle dateStyle = createDateStyle(workbook);
+            ReportStyles styles = ReportStyles.fromTemplate(workbook);
+            Sheet sheet = workbook.createSheet("Fälligkeiten");
+            int rowNum = 0;
             
-            for (Department department : departments) {
-                List<Employee> employees = employeeService.findByDepartmentId(department.getId());
-                createDepartmentSheet(workbook, department, employees, targetDate, headerStyle, dateStyle);
+            Row titleRow = sheet.createRow(rowNum++);
+            Cell titleCell = titleRow.createCell(0);
+            titleCell.setCellValue("Fälligkeitsvorschau");
+            titleCell.setCellStyle(styles.title());
+            
+            Row dateRow = sheet.createRow(rowNum++);
+            dateRow.createCell(0).setCellValue("Ab:");
+            Cell startDateCell = dateRow.createCell(1);
+            startDateCell.setCellValue(startDate);
+            startDateCell.setCellStyle(styles.date());
+            
+            // Empty row
+            rowNum++;
+            
+            Row headerRow = sheet.createRow(rowNum++);
+            List<String> headers = new ArrayList<>(List.of("Abteilung", "Schulung", "Überfällig"));
+            timeline.months().forEach(month -> headers.add(TIMELINE_MONTH_FORMAT.format(month)));
+            headers.add("Gesamt");
+            for (int i = 0; i < headers.size(); i++) {
+                Cell cell = headerRow.createCell(i);
+                cell.setCellValue(headers.get(i));
+                cell.setCellStyle(styles.header());
             }
             
+            for (DueTimeline.Entry entry : timeline.entries()) {
+                Row row = sheet.createRow(rowNum++);
+                int column = 0;
+                row.createCell(column++).setCellValue(
+                        entry.departmentId() != null ? entry.department() : "Ohne Abteilung");
+                row.createCell(column++).setCellValue(entry.training());
+                Cell overdueCell = row.createCell(column++);
+                overdueCell.setCellValue(entry.overdue());
+                if (entry.overdue() > 0) {
+                    overdueCell.setCellStyle(styles.overdue());
+                }
+                for (int due : entry.dueByMonth()) {
+                    row.createCell(column++).setCellValue(due);
+                }
+                row.createCell(column).setCellValue(entry.total());
+            }
+            
+            sheet.setColumnWidth(0, 6000);  // Department
+            sheet.setColumnWidth(1, 8000);  // Training
+            sheet.createFreezePane(2, 4);
+            
             workbook.write(outputStream);
             return outputStream.toByteArray();
         }
     }
     
-    private void createDepartmentSheet(Workbook workbook, Department department, 
-                                      List<Employee> employees, LocalDate targetDate,
-                                      CellStyle headerStyle, CellStyle dateStyle) {
+    /**
+     * Adds the sheet of one department and returns the number of data rows written.
+     */
+    private int createDepartmentSheet(Workbook workbook, Department department, 
+                                      long employeeCount, Iterable<EmployeeDueTrainings> employees,
+                                      LocalDate targetDate, ReportStyles styles, ExportProgress progress) {
         Sheet sheet = workbook.createSheet(sanitizeSheetName(department.getName()));
         
         // Title and summary section
-        CellStyle titleStyle = createTitleStyle(workbook);
-        CellStyle normalStyle = createNormalStyle(workbook);
-        CellStyle overdueStyle = createOverdueStyle(workbook);
-        CellStyle dueStyle = createDueStyle(workbook);
-        CellStyle currentStyle = createCurrentStyle(workbook);
+        CellStyle titleStyle = styles.title();
+        CellStyle headerStyle = styles.header();
+        CellStyle normalStyle = styles.normal();
+        CellStyle dateStyle = styles.date();
+        CellStyle overdueStyle = styles.overdue();
+        CellStyle dueStyle = styles.due();
+        CellStyle currentStyle = styles.current();
         
         int rowNum = 0;
         
@@ -111,7 +266,7 @@ public class ReportService {
         // Employee count
         Row countRow = sheet.createRow(rowNum++);
         countRow.createCell(0).setCellValue("Anzahl Mitarbeiter:");
-        countRow.createCell(1).setCellValue(employees.size());
+        countRow.createCell(1).setCellValue(employeeCount);
         
         // Empty row
         rowNum++;
@@ -126,13 +281,11 @@ public class ReportService {
         }
         
         // Data rows
-        for (Employee employee : employees) {
-            Map<Training, LocalDate> dueTrainings = getDueTrainingsForEmployee(employee, targetDate);
-            
-            if (dueTrainings.isEmpty()) {
+        for (EmployeeDueTrainings employee : employees) {
+            if (employee.dueTrainings().isEmpty()) {
                 Row row = sheet.createRow(rowNum++);
                 Cell nameCell = row.createCell(0);
-                nameCell.setCellValue(employee.getName());
+                nameCell.setCellValue(employee.name());
                 nameCell.setCellStyle(normalStyle);
                 
                 Cell trainingCell = row.createCell(1);
@@ -145,21 +298,21 @@ public class ReportService {
                 Cell statusCell = row.createCell(4);
                 statusCell.setCellValue("Aktuell");
                 statusCell.setCellStyle(currentStyle);
+                progress.rowWritten();
             } else {
-                for (Map.Entry<Training, LocalDate> entry : dueTrainings.entrySet()) {
-                    Training training = entry.getKey();
-                    LocalDate dueDate = entry.getValue();
-                    LocalDate lastAttended = getLastAttendedDate(employee, training);
+                for (DueTraining dueTraining : employee.dueTrainings()) {
+                    LocalDate dueDate = dueTraining.dueDate();
+                    LocalDate lastAttended = dueTraining.lastAttended();
                     boolean isOverdue = dueDate.isBefore(LocalDate.now());
                     
                     Row row = sheet.createRow(rowNum++);
                     
                     Cell nameCell = row.createCell(0);
-                    nameCell.setCellValue(employee.getName());
+                    nameCell.setCellValue(employee.name());
                     nameCell.setCellStyle(normalStyle);
                     
                     Cell trainingCell = row.createCell(1);
-                    trainingCell.setCellValue(training.getTitle());
+                    trainingCell.setCellValue(dueTraining.training().getTitle());
                     trainingCell.setCellStyle(normalStyle);
                     
                     Cell lastAttendedCell = row.createCell(2);
@@ -178,6 +331,7 @@ public class ReportService {
                     Cell statusCell = row.createCell(4);
                     statusCell.setCellValue(isOverdue ? "Überfällig" : "Fällig");
                     statusCell.setCellStyle(isOverdue ? overdueStyle : dueStyle);
+                    progress.rowWritten();
                 }
             }
         }
@@ -191,107 +345,8 @@ public class ReportService {
         
         // Freeze panes (freeze header row)
         sheet.createFreezePane(0, 5);
-    }
-    
-    private CellStyle createTitleStyle(Workbook workbook) {
-        CellStyle style = workbook.createCellStyle();
-        Font font = workbook.createFont();
-        font.setBold(true);
-        font.setFontHeightInPoints((short) 16);
-        style.setFont(font);
-        style.setAlignment(HorizontalAlignment.LEFT);
-        style.setVerticalAlignment(VerticalAlignment.CENTER);
-        return style;
-    }
-    
-    private CellStyle createHeaderStyle(Workbook workbook) {
-        CellStyle style = workbook.createCellStyle();
-        Font font = workbook.createFont();
-        font.setBold(true);
-        font.setColor(IndexedColors.WHITE.getIndex());
-        style.setFont(font);
-        style.setFillForegroundColor(IndexedColors.DARK_BLUE.getIndex());
-        style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-        style.setBorderBottom(BorderStyle.MEDIUM);
-        style.setBorderTop(BorderStyle.MEDIUM);
-        style.setBorderLeft(BorderStyle.THIN);
-        style.setBorderRight(BorderStyle.THIN);
-        style.setAlignment(HorizontalAlignment.CENTER);
-        style.setVerticalAlignment(VerticalAlignment.CENTER);
-        return style;
-    }
-    
-    private CellStyle createNormalStyle(Workbook workbook) {
-        CellStyle style = workbook.createCellStyle();
-        style.setBorderBottom(BorderStyle.THIN);
-        style.setBorderTop(BorderStyle.THIN);
-        style.setBorderLeft(BorderStyle.THIN);
-        style.setBorderRight(BorderStyle.THIN);
-        style.setVerticalAlignment(VerticalAlignment.TOP);
-        style.setWrapText(true);
-        return style;
-    }
-    
-    private CellStyle createDateStyle(Workbook workbook) {
-        CellStyle style = workbook.createCellStyle();
-        CreationHelper createHelper = workbook.getCreationHelper();
-        style.setDataFormat(createHelper.createDataFormat().getFormat("dd.mm.yyyy"));
-        style.setBorderBottom(BorderStyle.THIN);
-        style.setBorderTop(BorderStyle.THIN);
-        style.setBorderLeft(BorderStyle.THIN);
-        style.setBorderRight(BorderStyle.THIN);
-        style.setVerticalAlignment(VerticalAlignment.TOP);
-        return style;
-    }
-    
-    private CellStyle createOverdueStyle(Workbook workbook) {
-        CellStyle style = workbook.createCellStyle();
-        Font font = workbook.createFont();
-        font.setBold(true);
-        font.setColor(IndexedColors.WHITE.getIndex());
-        style.setFont(font);
-        style.setFillForegroundColor(IndexedColors.RED.getIndex());
-        style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-        style.setBorderBottom(BorderStyle.THIN);
-        style.setBorderTop(BorderStyle.THIN);
-        style.setBorderLeft(BorderStyle.THIN);
-        style.setBorderRight(BorderStyle.THIN);
-        style.setAlignment(HorizontalAlignment.CENTER);
-        style.setVerticalAlignment(VerticalAlignment.CENTER);
-        return style;
-    }
-    
-    private CellStyle createDueStyle(Workbook workbook) {
-        CellStyle style = workbook.createCellStyle();
-        Font font = workbook.createFont();
-        font.setBold(true);
-        style.setFont(font);
-        style.setFillForegroundColor(IndexedColors.LIGHT_ORANGE.getIndex());
-        style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-        style.setBorderBottom(BorderStyle.THIN);
-        style.setBorderTop(BorderStyle.THIN);
-        style.setBorderLeft(BorderStyle.THIN);
-        style.setBorderRight(BorderStyle.THIN);
-        style.setAlignment(HorizontalAlignment.CENTER);
-        style.setVerticalAlignment(VerticalAlignment.CENTER);
-        return style;
-    }
-    
-    private CellStyle createCurrentStyle(Workbook workbook) {
-        CellStyle style = workbook.createCellStyle();
-        Font font = workbook.createFont();
-        font.setBold(true);
-        font.setColor(IndexedColors.WHITE.getIndex());
-        style.setFont(font);
-        style.setFillForegroundColor(IndexedColors.GREEN.getIndex());
-        style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-        style.setBorderBottom(BorderStyle.THIN);
-        style.setBorderTop(BorderStyle.THIN);
-        style.setBorderLeft(BorderStyle.THIN);
-        style.setBorderRight(BorderStyle.THIN);
-        style.setAlignment(HorizontalAlignment.CENTER);
-        style.setVerticalAlignment(VerticalAlignment.CENTER);
-        return style;
+        
+        return rowNum - 5;
     }
     
     private String sanitizeSheetName(String name) {
@@ -301,4 +356,7 @@ public class ReportService {
         String sanitized = name.replaceAll("[\\\\/?*\\[\\]]", "_");
         return sanitized.length() > 31 ? sanitized.substring(0, 31) : sanitized;
     }
+    
+    private record EmployeeDueTrainings(String name, List<DueTraining> dueTrainings) {
+    }
 }
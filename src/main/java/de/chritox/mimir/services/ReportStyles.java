@@ -0,0 +1,154 @@
+package de.chritox.mimir.services;
+
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Cell styles of the training report, created once per workbook and shared by all sheets.
+ * <p>
+ * Every {@code createCellStyle}/{@code createFont} call adds a record to styles.xml, so styles must
+ * not be created per sheet or per row. Exports start from a pre-built template workbook that already
+ * contains all styles; {@link #create(Workbook)} is available for workbooks that do not.
+ */
+record ReportStyles(CellStyle title, CellStyle header, CellStyle normal, CellStyle date,
+                    CellStyle overdue, CellStyle due, CellStyle current) {
+
+    /**
+     * Creates all report styles and their fonts in the given workbook.
+     */
+    static ReportStyles create(Workbook workbook) {
+        Font titleFont = workbook.createFont();
+        titleFont.setBold(true);
+        titleFont.setFontHeightInPoints((short) 16);
+
+        Font boldFont = workbook.createFont();
+        boldFont.setBold(true);
+
+        Font boldWhiteFont = workbook.createFont();
+        boldWhiteFont.setBold(true);
+        boldWhiteFont.setColor(IndexedColors.WHITE.getIndex());
+
+        return new ReportStyles(
+                createTitleStyle(workbook, titleFont),
+                createHeaderStyle(workbook, boldWhiteFont),
+                createNormalStyle(workbook),
+                createDateStyle(workbook),
+                createStatusStyle(workbook, boldWhiteFont, IndexedColors.RED),
+                createStatusStyle(workbook, boldFont, IndexedColors.LIGHT_ORANGE),
+                createStatusStyle(workbook, boldWhiteFont, IndexedColors.GREEN));
+    }
+
+    /**
+     * Opens a new, empty workbook that already contains all report styles.
+     * Use {@link #fromTemplate(Workbook)} to look them up, also when the workbook is wrapped in a streaming workbook.
+     */
+    static XSSFWorkbook openTemplateWorkbook() throws IOException {
+        return new XSSFWorkbook(new ByteArrayInputStream(Template.INSTANCE.bytes));
+    }
+
+    /**
+     * Returns the report styles of a workbook opened with {@link #openTemplateWorkbook()}.
+     */
+    static ReportStyles fromTemplate(Workbook workbook) {
+        short[] indexes = Template.INSTANCE.styleIndexes;
+        return new ReportStyles(
+                workbook.getCellStyleAt(indexes[0]),
+                workbook.getCellStyleAt(indexes[1]),
+                workbook.getCellStyleAt(indexes[2]),
+                workbook.getCellStyleAt(indexes[3]),
+                workbook.getCellStyleAt(indexes[4]),
+                workbook.getCellStyleAt(indexes[5]),
+                workbook.getCellStyleAt(indexes[6]));
+    }
+
+    private short[] indexes() {
+        return new short[]{
+                title.getIndex(), header.getIndex(), normal.getIndex(), date.getIndex(),
+                overdue.getIndex(), due.getIndex(), current.getIndex()};
+    }
+
+    private static CellStyle createTitleStyle(Workbook workbook, Font font) {
+        CellStyle style = workbook.createCellStyle();
+        style.setFont(font);
+        style.setAlignment(HorizontalAlignment.LEFT);
+        style.setVerticalAlignment(VerticalAlignment.CENTER);
+        return style;
+    }
+
+    private static CellStyle createHeaderStyle(Workbook workbook, Font font) {
+        CellStyle style = workbook.createCellStyle();
+        style.setFont(font);
+        style.setFillForegroundColor(IndexedColors.DARK_BLUE.getIndex());
+        style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+        style.setBorderBottom(BorderStyle.MEDIUM);
+        style.setBorderTop(BorderStyle.MEDIUM);
+        style.setBorderLeft(BorderStyle.THIN);
+        style.setBorderRight(BorderStyle.THIN);
+        style.setAlignment(HorizontalAlignment.CENTER);
+        style.setVerticalAlignment(VerticalAlignment.CENTER);
+        return style;
+    }
+
+    private static CellStyle createNormalStyle(Workbook workbook) {
+        CellStyle style = workbook.createCellStyle();
+        style.setBorderBottom(BorderStyle.THIN);
+        style.setBorderTop(BorderStyle.THIN);
+        style.setBorderLeft(BorderStyle.THIN);
+        style.setBorderRight(BorderStyle.THIN);
+        style.setVerticalAlignment(VerticalAlignment.TOP);
+        style.setWrapText(true);
+        return style;
+    }
+
+    private static CellStyle createDateStyle(Workbook workbook) {
+        CellStyle style = workbook.createCellStyle();
+        CreationHelper createHelper = workbook.getCreationHelper();
+        style.setDataFormat(createHelper.createDataFormat().getFormat("dd.mm.yyyy"));
+        style.setBorderBottom(BorderStyle.THIN);
+        style.setBorderTop(BorderStyle.THIN);
+        style.setBorderLeft(BorderStyle.THIN);
+        style.setBorderRight(BorderStyle.THIN);
+        style.setVerticalAlignment(VerticalAlignment.TOP);
+        return style;
+    }
+
+    private static CellStyle createStatusStyle(Workbook workbook, Font font, IndexedColors fillColor) {
+        CellStyle style = workbook.createCellStyle();
+        style.setFont(font);
+        style.setFillForegroundColor(fillColor.getIndex());
+        style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+        style.setBorderBottom(BorderStyle.THIN);
+        style.setBorderTop(BorderStyle.THIN);
+        style.setBorderLeft(BorderStyle.THIN);
+        style.setBorderRight(BorderStyle.THIN);
+        style.setAlignment(HorizontalAlignment.CENTER);
+        style.setVerticalAlignment(VerticalAlignment.CENTER);
+        return style;
+    }
+
+    /**
+     * The serialized template workbook, built once on first use.
+     */
+    private static final class Template {
+        private static final Template INSTANCE = new Template();
+
+        private final byte[] bytes;
+        private final short[] styleIndexes;
+
+        private Template() {
+            try (XSSFWorkbook workbook = new XSSFWorkbook();
+                 ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
+                styleIndexes = create(workbook).indexes();
+                workbook.write(outputStream);
+                bytes = outputStream.toByteArray();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not build report template workbook", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package de.chritox.mimir.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads the rows of an uploaded table one after another, without holding the whole file in memory.
+ */
+public interface RowReader {
+
+    /**
+     * Receives the cells of every non-empty row, the header included. Row numbers start at 1 as in a spreadsheet.
+     */
+    @FunctionalInterface
+    interface RowHandler {
+        void row(int rowNumber, List<String> cells);
+    }
+
+    void read(InputStream inputStream, RowHandler handler) throws IOException;
+
+    /**
+     * Returns the reader for the file's extension, {@code .csv} or {@code .xlsx}.
+     */
+    static RowReader forFilename(String filename) {
+        String name = filename != null ? filename.toLowerCase(Locale.ROOT) : "";
+        if (name.endsWith(".csv")) {
+            return new CsvRowReader();
+        }
+        if (name.endsWith(".xlsx")) {
+            return new XlsxRowReader();
+        }
+        throw new IllegalArgumentException("Nicht unterstütztes Dateiformat, erwartet wird CSV oder XLSX: "
+                + filename);
+    }
+}
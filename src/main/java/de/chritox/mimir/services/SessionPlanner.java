@@ -0,0 +1,187 @@
+package de.chritox.mimir.services;
+
+import de.chritox.mimir.models.Employee;
+import de.chritox.mimir.models.Training;
+import de.chritox.mimir.models.TrainingSession;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Proposes training sessions for the employees whose mandatory trainings become due within a horizon.
+ * <p>
+ * The due trainings are read from the {@link ComplianceIndex}. Every employee has to attend between the start
+ * date and the training's due date, employees already overdue as early as possible. Since any employees can
+ * share a session held no later than the earliest of their due dates, the due employees of a training are sorted
+ * by due date and cut into full classes; every class gets the latest available date before its earliest due
+ * date. This needs the fewest possible sessions, one per started class, and holds them as late as allowed so that
+ * the next due date moves out as far as possible. Employees due before the first available date join the
+ * earliest session. The cost is dominated by sorting the due employees once per training.
+ * <p>
+ * The result are unsaved drafts for {@link TrainingSessionService#saveAll}.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class SessionPlanner {
+    private final ComplianceIndex complianceIndex;
+    private final TrainingService trainingService;
+    private final EmployeeService employeeService;
+
+    /**
+     * Input of a plan.
+     *
+     * @param startDate           the earliest date to plan for, today if {@code null}
+     * @param until               end of the horizon; employees due on or before this date are planned
+     * @param dates               dates on which sessions can be held; dates before the start date are ignored
+     * @param defaultMaxClassSize maximum participants of a session, unless given per training
+     * @param maxClassSizes       maximum participants of a session by training id, may be {@code null}
+     */
+    public record Request(LocalDate startDate, LocalDate until, List<LocalDate> dates, int defaultMaxClassSize,
+                          Map<Long, Integer> maxClassSizes) {
+    }
+
+    /**
+     * Returns unsaved sessions covering every employee due within the horizon, ordered by date and training.
+     *
+     * @throws IllegalArgumentException if the request has no horizon, no usable date or a class size below one
+     */
+    public List<TrainingSession> plan(Request request) {
+        LocalDate startDate = request.startDate() != null ? request.startDate() : LocalDate.now();
+        if (request.until() == null || request.until().isBefore(startDate)) {
+            throw new IllegalArgumentException("Invalid horizon: " + request.until());
+        }
+        int[] dates = request.dates() == null ? new int[0] : request.dates().stream()
+                .filter(date -> date != null && !date.isBefore(startDate))
+                .mapToInt(DueDateKernel::toEpochDay)
+                .sorted()
+                .distinct()
+                .toArray();
+        if (dates.length == 0) {
+            throw new IllegalArgumentException("No available date on or after " + startDate);
+        }
+        Map<Long, Integer> maxClassSizes = request.maxClassSizes() != null ? request.maxClassSizes() : Map.of();
+        Map<Long, Training> trainings = trainingService.findAll().stream()
+                .collect(Collectors.toMap(Training::getId, Function.identity()));
+        for (Training training : trainings.values()) {
+            if (maxClassSize(request, maxClassSizes, training.getId()) < 1) {
+                throw new IllegalArgumentException("Invalid max class size for training Id: " + training.getId());
+            }
+        }
+
+        int start = DueDateKernel.toEpochDay(startDate);
+        Map<Long, DueEmployees> dueEmployees = new HashMap<>();
+        complianceIndex.forEachDue(null, request.until(), (employeeId, trainingId, lastAttended, dueDate) -> {
+            if (trainings.containsKey(trainingId)) {
+                int deadline = lastAttended == ComplianceIndex.NEVER_ATTENDED ? start : Math.max(dueDate, start);
+                dueEmployees.computeIfAbsent(trainingId, id -> new DueEmployees()).add(employeeId, deadline - start);
+            }
+        });
+
+        List<Group> groups = new ArrayList<>();
+        Set<Long> employeeIds = new HashSet<>();
+        dueEmployees.forEach((trainingId, due) -> {
+            for (Group group : group(due, start, dates, maxClassSize(request, maxClassSizes, trainingId))) {
+                groups.add(new Group(trainingId, group.date(), group.employeeIds()));
+                for (long employeeId : group.employeeIds()) {
+                    employeeIds.add(employeeId);
+                }
+            }
+        });
+
+        Map<Long, Employee> employees = employeeService.findAllById(employeeIds).stream()
+                .collect(Collectors.toMap(Employee::getId, Function.identity()));
+        List<TrainingSession> sessions = new ArrayList<>(groups.size());
+        for (Group group : groups) {
+            Set<Employee> participants = new HashSet<>();
+            for (long employeeId : group.employeeIds()) {
+                Employee employee = employees.get(employeeId);
+                if (employee != null) {
+                    participants.add(employee);
+                }
+            }
+            if (!participants.isEmpty()) {
+                sessions.add(new TrainingSession(null, trainings.get(group.trainingId()),
+                        LocalDate.ofEpochDay(group.date()), participants));
+            }
+        }
+        sessions.sort(Comparator.comparing(TrainingSession::getDate)
+                .thenComparing(session -> session.getTraining().getTitle(),
+                        Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+                .thenComparing(session -> session.getTraining().getId()));
+        return sessions;
+    }
+
+    private static int maxClassSize(Request request, Map<Long, Integer> maxClassSizes, Long trainingId) {
+        Integer maxClassSize = maxClassSizes.get(trainingId);
+        return maxClassSize != null ? maxClassSize : request.defaultMaxClassSize();
+    }
+
+    /**
+     * Cuts the due employees of one training into classes of at most {@code maxClassSize}, see the class comment.
+     *
+     * @param start the start date as epoch day; the deadlines are relative to it
+     * @param dates the available dates as sorted epoch days, none before the start date
+     */
+    static List<Group> group(DueEmployees due, int start, int[] dates, int maxClassSize) {
+        // Deadline in the upper half and position in the lower half, sorted without boxing
+        long[] order = new long[due.size];
+        for (int i = 0; i < due.size; i++) {
+            order[i] = (long) due.deadlines[i] << 32 | i;
+        }
+        Arrays.sort(order);
+
+        List<Group> groups = new ArrayList<>((due.size + maxClassSize - 1) / maxClassSize);
+        for (int first = 0; first < order.length; first += maxClassSize) {
+            int earliestDeadline = start + (int) (order[first] >>> 32);
+            int index = Arrays.binarySearch(dates, earliestDeadline);
+            if (index < 0) {
+                // Latest date before the deadline, or the earliest date if all are later
+                index = Math.max(-index - 2, 0);
+            }
+            long[] employeeIds = new long[Math.min(maxClassSize, order.length - first)];
+            for (int i = 0; i < employeeIds.length; i++) {
+                employeeIds[i] = due.employeeIds[(int) order[first + i]];
+            }
+            groups.add(new Group(null, dates[index], employeeIds));
+        }
+        return groups;
+    }
+
+    /**
+     * Employees of one training with their deadline in days after the start date.
+     */
+    static final class DueEmployees {
+        private long[] employeeIds = new long[16];
+        private int[] deadlines = new int[16];
+        private int size;
+
+        void add(long employeeId, int deadline) {
+            if (size == employeeIds.length) {
+                employeeIds = Arrays.copyOf(employeeIds, size * 2);
+                deadlines = Arrays.copyOf(deadlines, size * 2);
+            }
+            employeeIds[size] = employeeId;
+            deadlines[size] = deadline;
+            size++;
+        }
+    }
+
+    /**
+     * One proposed session; the training is only set once the groups of all trainings are collected.
+     */
+    record Group(Long trainingId, int date, long[] employeeIds) {
+    }
+}
@@ -3,16 +3,22 @@ package de.chritox.mimir.services;
 import de.chritox.mimir.models.Training;
 import de.chritox.mimir.repositories.TrainingRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class TrainingService {
     private final TrainingRepository trainingRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ComplianceCache complianceCache;
 
     public List<Training> findAll() {
         return trainingRepository.findAll();
@@ -22,13 +28,30 @@ public class TrainingService {
         return trainingRepository.findById(id);
     }
 
+    public List<Training> findAllById(Collection<Long> ids) {
+        return trainingRepository.findAllById(ids);
+    }
+
     @Transactional
     public Training save(Training training) {
-        return trainingRepository.save(training);
+        // Read before merging, the merge copies the new state into the managed instance
+        Training existing = training.getId() != null ? trainingRepository.findById(training.getId()).orElse(null) : null;
+        Integer previousInterval = existing != null ? existing.getInterval() : null;
+        Training saved = trainingRepository.saveAndFlush(training);
+        if (existing != null && !Objects.equals(previousInterval, saved.getInterval())) {
+            eventPublisher.publishEvent(new ComplianceChange.IntervalChanged(saved.getId()));
+        }
+        if (existing != null) {
+            // Cached results of every department may contain the training
+            complianceCache.evictAll();
+        }
+        return saved;
     }
 
     @Transactional
     public void deleteById(Long id) {
+        eventPublisher.publishEvent(new ComplianceChange.TrainingDeleted(id));
         trainingRepository.deleteById(id);
+        complianceCache.evictAll();
     }
 }
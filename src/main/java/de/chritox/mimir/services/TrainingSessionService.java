@@ -1,43 +1,160 @@
 package de.chritox.mimir.services;
 
 import de.chritox.mimir.models.TrainingSession;
+import de.chritox.mimir.repositories.SessionParticipant;
+import de.chritox.mimir.repositories.TrainingSessionListItem;
 import de.chritox.mimir.repositories.TrainingSessionRepository;
+import de.chritox.mimir.repositories.TrainingSessionSpecifications;
+import de.chritox.mimir.repositories.TrainingSessionSummary;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class TrainingSessionService {
     private final TrainingSessionRepository trainingSessionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EmployeeService employeeService;
+    private final ComplianceCache complianceCache;
 
     public List<TrainingSession> findAll() {
         return trainingSessionRepository.findAll();
     }
 
+    /**
+     * Returns one page of the filtered session list. Filters that are {@code null} are ignored.
+     */
+    public Page<TrainingSessionListItem> findPage(Long trainingId, Long departmentId, LocalDate from, LocalDate to,
+                                                 Pageable pageable) {
+        Page<TrainingSessionSummary> page = trainingSessionRepository.findBy(
+                filter(trainingId, departmentId, from, to), query -> query
+                        .as(TrainingSessionSummary.class)
+                        .page(pageable));
+        Map<Long, TrainingSessionListItem> items = listItems(page.getContent());
+        return page.map(session -> items.get(session.getId()));
+    }
+
+    /**
+     * Returns the sessions following the given keyset position in the given order, which has to end with the id.
+     * Unlike {@link #findPage}, the cost does not grow with the position in the list.
+     */
+    public Window<TrainingSessionListItem> findWindow(Long trainingId, Long departmentId, LocalDate from,
+                                                      LocalDate to, Sort sort, ScrollPosition position, int size) {
+        Window<TrainingSessionSummary> window = trainingSessionRepository.findBy(
+                filter(trainingId, departmentId, from, to), query -> query
+                        .as(TrainingSessionSummary.class)
+                        .sortBy(sort)
+                        .limit(size)
+                        .scroll(position));
+        Map<Long, TrainingSessionListItem> items = listItems(window.getContent());
+        return window.map(session -> items.get(session.getId()));
+    }
+
     public Optional<TrainingSession> findById(Long id) {
         return trainingSessionRepository.findById(id);
     }
 
+    public Optional<TrainingSession> findWithParticipantsById(Long id) {
+        return trainingSessionRepository.findWithParticipantsById(id);
+    }
+
     public List<TrainingSession> findByTrainingId(Long trainingId) {
         return trainingSessionRepository.findByTrainingId(trainingId);
     }
 
-    public List<TrainingSession> findUpcoming() {
-        return trainingSessionRepository.findByDateAfter(LocalDate.now());
+    public List<TrainingSessionListItem> findUpcoming() {
+        return trainingSessionRepository.findListItemsByDateAfter(LocalDate.now());
     }
 
     @Transactional
     public TrainingSession save(TrainingSession session) {
-        return trainingSessionRepository.save(session);
+        return saveAll(List.of(session)).get(0);
+    }
+
+    /**
+     * Saves several sessions with a single flush, e.g. the drafts of the {@link SessionPlanner}. The compliance
+     * status is recomputed once per affected training, however many sessions of it are saved.
+     */
+    @Transactional
+    public List<TrainingSession> saveAll(Collection<TrainingSession> sessions) {
+        // Participants removed from a session, and the training it was moved from, are affected as well
+        Map<Long, Set<Long>> affectedEmployeeIds = new HashMap<>();
+        List<Long> existingIds = sessions.stream().map(TrainingSession::getId).filter(Objects::nonNull).toList();
+        if (!existingIds.isEmpty()) {
+            List<SessionParticipant> previous = trainingSessionRepository.findParticipantsBySessionIdIn(existingIds);
+            for (SessionParticipant participant : previous) {
+                affectedEmployeeIds.computeIfAbsent(participant.trainingId(), id -> new HashSet<>())
+                        .add(participant.employeeId());
+            }
+        }
+        List<TrainingSession> saved = trainingSessionRepository.saveAll(sessions);
+        trainingSessionRepository.flush();
+        for (TrainingSession session : saved) {
+            if (session.getTraining() != null) {
+                Set<Long> employeeIds = affectedEmployeeIds.computeIfAbsent(session.getTraining().getId(),
+                        id -> new HashSet<>());
+                session.getParticipants().forEach(participant -> employeeIds.add(participant.getId()));
+            }
+        }
+        Set<Long> allEmployeeIds = new HashSet<>();
+        affectedEmployeeIds.forEach((trainingId, employeeIds) -> {
+            eventPublisher.publishEvent(new ComplianceChange.SessionChanged(Set.of(trainingId), employeeIds));
+            allEmployeeIds.addAll(employeeIds);
+        });
+        complianceCache.evictDepartments(employeeService.findDepartmentIds(allEmployeeIds));
+        return saved;
     }
 
     @Transactional
     public void deleteById(Long id) {
+        List<Long> participantIds = trainingSessionRepository.findParticipantIds(id);
+        Optional<Long> trainingId = trainingSessionRepository.findTrainingId(id);
         trainingSessionRepository.deleteById(id);
+        trainingSessionRepository.flush();
+        eventPublisher.publishEvent(new ComplianceChange.SessionChanged(trainingId.map(Set::of).orElse(Set.of()),
+                new HashSet<>(participantIds)));
+        complianceCache.evictDepartments(employeeService.findDepartmentIds(participantIds));
+    }
+
+    /**
+     * Loads the list rows of the given sessions with one query, keyed by id.
+     */
+    private Map<Long, TrainingSessionListItem> listItems(List<TrainingSessionSummary> sessions) {
+        if (sessions.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> ids = sessions.stream().map(TrainingSessionSummary::getId).toList();
+        return trainingSessionRepository.findListItemsByIdIn(ids).stream()
+                .collect(Collectors.toMap(TrainingSessionListItem::id, Function.identity()));
+    }
+
+    private static Specification<TrainingSession> filter(Long trainingId, Long departmentId,
+                                                         LocalDate from, LocalDate to) {
+        return Specification.allOf(
+                TrainingSessionSpecifications.forTraining(trainingId),
+                TrainingSessionSpecifications.withParticipantFromDepartment(departmentId),
+                TrainingSessionSpecifications.onOrAfter(from),
+                TrainingSessionSpecifications.onOrBefore(to));
     }
 }
@@ -0,0 +1,69 @@
+package de.chritox.mimir.services;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Defers in-memory updates until the current transaction has committed, so they never reflect a state that
+ * is rolled back.
+ */
+final class TransactionCallbacks {
+    /**
+     * Order of updates that derived state such as cached results is computed from; they run first.
+     */
+    static final int SOURCE_ORDER = 0;
+
+    private TransactionCallbacks() {
+    }
+
+    /**
+     * Runs the action after the commit, or immediately without a transaction.
+     */
+    static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Returns the object collecting changes of the current transaction under the given key, creating it on first
+     * use. Once the transaction has committed, the collected changes are passed to {@code afterCommit}.
+     * Requires an active transaction.
+     */
+    static <T> T collect(Object key, Supplier<T> factory, int order, Consumer<T> afterCommit) {
+        @SuppressWarnings("unchecked")
+        T collected = (T) TransactionSynchronizationManager.getResource(key);
+        if (collected == null) {
+            T created = factory.get();
+            TransactionSynchronizationManager.bindResource(key, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public int getOrder() {
+                    return order;
+                }
+
+                @Override
+                public void afterCommit() {
+                    afterCommit.accept(created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(key);
+                }
+            });
+            collected = created;
+        }
+        return collected;
+    }
+}
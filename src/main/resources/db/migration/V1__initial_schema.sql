@@ -0,0 +1,75 @@
+-- The schema as Hibernate created it before the migrations took over. Databases created back then are baselined
+-- at version 0, so every statement only creates what is missing. Constraint names are the ones Hibernate generated.
+
+create sequence if not exists department_seq start with 1 increment by 50;
+create sequence if not exists employee_seq start with 1 increment by 50;
+create sequence if not exists training_seq start with 1 increment by 50;
+create sequence if not exists training_session_seq start with 1 increment by 50;
+
+create table if not exists department (
+    id bigint not null,
+    description varchar(255),
+    name varchar(255),
+    primary key (id)
+);
+
+create table if not exists training (
+    id bigint not null,
+    interval_months integer,
+    description varchar(255),
+    title varchar(255),
+    primary key (id)
+);
+
+create table if not exists employee (
+    id bigint not null,
+    department_id bigint,
+    name varchar(255),
+    primary key (id)
+);
+
+create table if not exists training_session (
+    id bigint not null,
+    date date,
+    training_id bigint,
+    primary key (id)
+);
+
+create table if not exists mandatory_training (
+    employee_id bigint not null,
+    training_id bigint not null,
+    primary key (employee_id, training_id)
+);
+
+create table if not exists training_session_participants (
+    employee_id bigint not null,
+    session_id bigint not null,
+    primary key (employee_id, session_id)
+);
+
+create table if not exists compliance_status (
+    employee_id bigint not null,
+    training_id bigint not null,
+    last_attended date,
+    next_due date,
+    primary key (employee_id, training_id)
+);
+
+create index if not exists idx_compliance_status_next_due on compliance_status (next_due);
+
+alter table employee add constraint if not exists FKbejtwvg9bxus2mffsm3swj3u9
+    foreign key (department_id) references department;
+alter table training_session add constraint if not exists FK9yqvlr0vjx0wjnmp4wtreqtsn
+    foreign key (training_id) references training;
+alter table mandatory_training add constraint if not exists FKtk5wi4n10x2sj37fwjf318t6h
+    foreign key (employee_id) references employee;
+alter table mandatory_training add constraint if not exists FKrc6vrh4bqwsw311bvry4ontb6
+    foreign key (training_id) references training;
+alter table training_session_participants add constraint if not exists FK7nwndtovpkt2nchjy3mjm3ndj
+    foreign key (employee_id) references employee;
+alter table training_session_participants add constraint if not exists FKh34oh4vo7hei1se3mwavhga2d
+    foreign key (session_id) references training_session;
+alter table compliance_status add constraint if not exists FK5bm7epmw7o3a9jw2x3wg5tp4p
+    foreign key (employee_id) references employee;
+alter table compliance_status add constraint if not exists FK908bxy733p6uwifr8vn6ne92c
+    foreign key (training_id) references training;
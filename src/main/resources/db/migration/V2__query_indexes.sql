@@ -0,0 +1,16 @@
+-- Indexes for the list and report queries. They cover the columns these queries read, so H2 answers them from the
+-- index alone; every index also contains the primary key of its table.
+
+-- Upcoming sessions and the session list by date, which pages newest first
+create index idx_training_session_date on training_session (date, training_id);
+
+-- Sessions of a training, and the last attendance per training when computing due dates
+create index idx_training_session_training on training_session (training_id, date);
+
+-- Employees of a department for the employee list and the department reports
+create index idx_employee_department on employee (department_id, name);
+
+-- The join tables are keyed by employee, these serve the lookups from the other side
+create unique index idx_training_session_participants_session
+    on training_session_participants (session_id, employee_id);
+create unique index idx_mandatory_training_training on mandatory_training (training_id, employee_id);
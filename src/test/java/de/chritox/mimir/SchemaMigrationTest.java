@@ -0,0 +1,55 @@
+package de.chritox.mimir;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Migrates a database as {@code ddl-auto=update} created it before the migrations owned the schema, with
+ * identity columns and without sequences.
+ */
+class SchemaMigrationTest {
+
+    @Test
+    void testMigratesDatabaseCreatedByHibernate() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:legacy;DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        for (String statement : List.of(
+                "create table department (id bigint generated by default as identity primary key,"
+                        + " description varchar(255), name varchar(255))",
+                "create table training (id bigint generated by default as identity primary key,"
+                        + " interval_months integer, description varchar(255), title varchar(255))",
+                "create table employee (id bigint generated by default as identity primary key,"
+                        + " department_id bigint, name varchar(255),"
+                        + " constraint FKbejtwvg9bxus2mffsm3swj3u9 foreign key (department_id) references department)",
+                "insert into department (name) values ('Lager')",
+                "insert into employee (name, department_id) values ('Max Mustermann', 1)")) {
+            jdbcTemplate.execute(statement);
+        }
+
+        Flyway.configure()
+                .dataSource(dataSource)
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+
+        assertEquals(List.of("0", "1", "2"), jdbcTemplate.queryForList(
+                "select \"version\" from \"flyway_schema_history\" where \"version\" is not null"
+                        + " order by \"installed_rank\"", String.class));
+        assertEquals("Max Mustermann", jdbcTemplate.queryForObject("select name from employee", String.class));
+        assertEquals(4, jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.sequences where sequence_name like '%_SEQ'", Long.class));
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from information_schema.table_constraints"
+                + " where constraint_name = 'FKBEJTWVG9BXUS2MFFSM3SWJ3U9'", Long.class));
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from information_schema.indexes"
+                + " where index_name = 'IDX_EMPLOYEE_DEPARTMENT'", Long.class));
+        // The identity column still takes the ids assigned from the sequences
+        jdbcTemplate.update("insert into employee (id, name) values (51, 'Erika Musterfrau')");
+    }
+}
@@ -0,0 +1,48 @@
+package de.chritox.mimir.config;
+
+import de.chritox.mimir.services.ComplianceStatusService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ComplianceStatusConfigTest {
+
+    private final ComplianceStatusConfig complianceStatusConfig = new ComplianceStatusConfig();
+
+    @Mock
+    private ComplianceStatusService complianceStatusService;
+
+    @Test
+    void testInitializer_LoadsIndexFromExistingTable() {
+        when(complianceStatusService.count()).thenReturn(3L);
+
+        complianceStatusConfig.complianceStatusInitializer(complianceStatusService, false)
+                .afterSingletonsInstantiated();
+
+        verify(complianceStatusService).loadIndex();
+        verify(complianceStatusService, never()).rebuild();
+    }
+
+    @Test
+    void testInitializer_RebuildsEmptyTable() {
+        when(complianceStatusService.count()).thenReturn(0L);
+
+        complianceStatusConfig.complianceStatusInitializer(complianceStatusService, false)
+                .afterSingletonsInstantiated();
+
+        verify(complianceStatusService).rebuild();
+        verify(complianceStatusService, never()).loadIndex();
+    }
+
+    @Test
+    void testInitializer_RebuildsIfRequested() {
+        complianceStatusConfig.complianceStatusInitializer(complianceStatusService, true)
+                .afterSingletonsInstantiated();
+
+        verify(complianceStatusService).rebuild();
+    }
+}
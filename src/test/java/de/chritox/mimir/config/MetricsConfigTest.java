@@ -0,0 +1,55 @@
+package de.chritox.mimir.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:metrics")
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class MetricsConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testRecordsStatementsPerRequest() throws Exception {
+        mockMvc.perform(get("/reports/training-needs")).andExpect(status().isOk());
+
+        var statements = meterRegistry.get("mimir.http.server.statements")
+                .tag("uri", "/reports/training-needs").summary();
+        assertEquals(1, statements.count());
+        assertTrue(statements.totalAmount() > 0);
+    }
+
+    @Test
+    void testExposesHibernateMetrics() throws Exception {
+        mockMvc.perform(get("/actuator/metrics/hibernate.statements")).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/metrics/hibernate.entities.loads")).andExpect(status().isOk());
+    }
+
+    @Test
+    void testExposesPrometheusScrapeEndpoint() throws Exception {
+        mockMvc.perform(get("/reports/training-needs/export")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("mimir_report_export_seconds_count")))
+                .andExpect(content().string(containsString("hibernate_query_executions_total")))
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket")));
+    }
+}
@@ -0,0 +1,41 @@
+package de.chritox.mimir.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportConfigTest {
+
+    private final ReportConfig reportConfig = new ReportConfig();
+
+    @Test
+    void testExecutorsUsePlatformThreadsByDefault() throws Exception {
+        MockEnvironment environment = new MockEnvironment();
+
+        assertRunsOnVirtualThread(false, "report-1", reportConfig.reportExecutor(2, environment));
+        assertRunsOnVirtualThread(false, "export-1", reportConfig.exportExecutor(1, 1, environment));
+    }
+
+    @Test
+    void testExecutorsUseVirtualThreadsIfEnabled() throws Exception {
+        MockEnvironment environment = new MockEnvironment().withProperty("spring.threads.virtual.enabled", "true");
+
+        assertRunsOnVirtualThread(true, "report-1", reportConfig.reportExecutor(2, environment));
+        assertRunsOnVirtualThread(true, "export-1", reportConfig.exportExecutor(1, 1, environment));
+    }
+
+    private static void assertRunsOnVirtualThread(boolean virtual, String name, ExecutorService executor)
+            throws Exception {
+        try {
+            Future<Thread> thread = executor.submit(Thread::currentThread);
+            assertEquals(virtual, thread.get().isVirtual());
+            assertEquals(name, thread.get().getName());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
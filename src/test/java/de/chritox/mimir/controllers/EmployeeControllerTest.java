@@ -3,22 +3,35 @@ package de.chritox.mimir.controllers;
 import de.chritox.mimir.models.Department;
 import de.chritox.mimir.models.Employee;
 import de.chritox.mimir.models.Training;
+import de.chritox.mimir.repositories.EmployeeListItem;
 import de.chritox.mimir.services.DepartmentService;
 import de.chritox.mimir.services.EmployeeService;
 import de.chritox.mimir.services.TrainingService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -39,6 +52,7 @@ class EmployeeControllerTest {
     private TrainingService trainingService;
 
     private Employee testEmployee;
+    private EmployeeListItem testListItem;
     private Department testDepartment;
     private Training testTraining;
 
@@ -61,18 +75,86 @@ class EmployeeControllerTest {
         testEmployee.setDepartment(testDepartment);
         testEmployee.setMandatoryTrainings(new HashSet<>());
         testEmployee.setAttendedSessions(new HashSet<>());
+
+        testListItem = new EmployeeListItem(1L, "Max Mustermann", "IT", 0);
     }
 
     @Test
     void testListEmployees() throws Exception {
-        when(employeeService.findAll()).thenReturn(List.of(testEmployee));
+        when(employeeService.findPage(isNull(), isNull(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(testListItem)));
 
         mockMvc.perform(get("/employees"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("employees/list"))
-                .andExpect(model().attributeExists("employees"));
+                .andExpect(model().attributeExists("employees"))
+                .andExpect(model().attributeExists("page"));
+
+        verify(employeeService, times(1)).findPage(isNull(), isNull(),
+                eq(PageRequest.of(0, 50, Sort.by("name", "id"))));
+        verify(employeeService, never()).findAll();
+    }
+
+    @Test
+    void testListEmployees_FilteredAndSorted() throws Exception {
+        when(employeeService.findPage(eq(1L), eq(2L), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(testListItem)));
+
+        mockMvc.perform(get("/employees")
+                        .param("departmentId", "1")
+                        .param("trainingId", "2")
+                        .param("page", "3")
+                        .param("size", "20")
+                        .param("sort", "name,desc"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("selectedDepartmentId", 1L))
+                .andExpect(model().attribute("selectedTrainingId", 2L));
 
-        verify(employeeService, times(1)).findAll();
+        verify(employeeService, times(1)).findPage(1L, 2L,
+                PageRequest.of(3, 20, Sort.by(Sort.Direction.DESC, "name", "id")));
+    }
+
+    @Test
+    void testListEmployees_NextPageContinuesAfterLastRow() throws Exception {
+        EmployeeListItem last = new EmployeeListItem(9L, "Zoe Zimmermann", null, 0);
+        when(employeeService.findPage(isNull(), isNull(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(testListItem, last), PageRequest.of(0, 2), 5));
+
+        mockMvc.perform(get("/employees").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("next", last))
+                .andExpect(content().string(containsString("afterName=Zoe%20Zimmermann&amp;afterId=9")));
+    }
+
+    @Test
+    void testListEmployees_SortedById() throws Exception {
+        when(employeeService.findPage(isNull(), isNull(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(testListItem)));
+
+        mockMvc.perform(get("/employees").param("sort", "id,asc"))
+                .andExpect(status().isOk());
+
+        verify(employeeService, times(1)).findPage(null, null, PageRequest.of(0, 50, Sort.by("id")));
+    }
+
+    @Test
+    void testListEmployees_Keyset() throws Exception {
+        when(employeeService.findWindow(isNull(), isNull(), any(Sort.class), any(ScrollPosition.class), eq(50)))
+                .thenReturn(Window.from(List.of(testListItem), ScrollPosition::offset, true));
+
+        mockMvc.perform(get("/employees")
+                        .param("afterName", "Anna Schmidt")
+                        .param("afterId", "7")
+                        .param("sort", "name,desc"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("employees/list"))
+                .andExpect(model().attribute("employees", List.of(testListItem)))
+                .andExpect(model().attribute("next", testListItem))
+                .andExpect(model().attributeDoesNotExist("page"));
+
+        verify(employeeService, times(1)).findWindow(null, null, Sort.by(Sort.Direction.DESC, "name", "id"),
+                ScrollPosition.forward(Map.of("name", "Anna Schmidt", "id", 7L)), 50);
+        verify(employeeService, never()).findPage(any(), any(), any());
     }
 
     @Test
@@ -104,9 +186,31 @@ class EmployeeControllerTest {
         verify(employeeService, times(1)).save(any(Employee.class));
     }
 
+    @Test
+    void testCreateEmployee_ResolvesMandatoryTrainingsWithOneQuery() throws Exception {
+        Training otherTraining = new Training();
+        otherTraining.setId(2L);
+        otherTraining.setTitle("Brandschutz");
+        otherTraining.setInterval(24);
+        when(trainingService.findAllById(List.of(1L, 2L))).thenReturn(List.of(testTraining, otherTraining));
+        when(employeeService.save(any(Employee.class))).thenReturn(testEmployee);
+
+        mockMvc.perform(post("/employees/save")
+                        .param("name", "Max Mustermann")
+                        .param("department.id", "1")
+                        .param("mandatoryTrainings", "1", "2"))
+                .andExpect(status().is3xxRedirection());
+
+        ArgumentCaptor<Employee> employee = ArgumentCaptor.forClass(Employee.class);
+        verify(employeeService).save(employee.capture());
+        assertEquals(Set.of(testTraining, otherTraining), employee.getValue().getMandatoryTrainings());
+        verify(trainingService, times(1)).findAllById(any());
+        verify(trainingService, never()).findById(any());
+    }
+
     @Test
     void testShowEditForm() throws Exception {
-        when(employeeService.findById(1L)).thenReturn(Optional.of(testEmployee));
+        when(employeeService.findWithMandatoryTrainingsById(1L)).thenReturn(Optional.of(testEmployee));
         when(departmentService.findAll()).thenReturn(List.of(testDepartment));
         when(trainingService.findAll()).thenReturn(List.of(testTraining));
 
@@ -117,19 +221,19 @@ class EmployeeControllerTest {
                 .andExpect(model().attributeExists("departments"))
                 .andExpect(model().attributeExists("trainings"));
 
-        verify(employeeService, times(1)).findById(1L);
+        verify(employeeService, times(1)).findWithMandatoryTrainingsById(1L);
     }
 
     @Test
     void testDetailView() throws Exception {
-        when(employeeService.findById(1L)).thenReturn(Optional.of(testEmployee));
+        when(employeeService.findWithComplianceDataById(1L)).thenReturn(Optional.of(testEmployee));
 
         mockMvc.perform(get("/employees/1"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("employees/detail"))
                 .andExpect(model().attributeExists("employee"));
 
-        verify(employeeService, times(1)).findById(1L);
+        verify(employeeService, times(1)).findWithComplianceDataById(1L);
     }
 
     @Test
@@ -0,0 +1,187 @@
+package de.chritox.mimir.controllers;
+
+import de.chritox.mimir.services.ExportJob;
+import de.chritox.mimir.services.ExportJobService;
+import de.chritox.mimir.services.EmployeeService;
+import de.chritox.mimir.services.TrainingService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = ExportJobController.class)
+class ExportJobControllerTest {
+
+    private static final LocalDate TARGET_DATE = LocalDate.parse("2026-01-15");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ExportJobService exportJobService;
+
+    @MockBean
+    private TrainingService trainingService;
+
+    @MockBean
+    private EmployeeService employeeService;
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void testEnqueue_ReturnsAcceptedWithStatusLocation() throws Exception {
+        ExportJob job = job(ExportJob.State.QUEUED, null);
+        when(exportJobService.enqueue(TARGET_DATE, 1L)).thenReturn(job);
+
+        mockMvc.perform(post("/reports/training-needs/export/jobs")
+                        .param("targetDate", "2026-01-15")
+                        .param("departmentId", "1"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/reports/training-needs/export/jobs/job-1"))
+                .andExpect(jsonPath("$.id").value("job-1"))
+                .andExpect(jsonPath("$.state").value("QUEUED"))
+                .andExpect(jsonPath("$.targetDate").value("2026-01-15"));
+    }
+
+    @Test
+    void testEnqueue_QueueFull() throws Exception {
+        when(exportJobService.enqueue(any(), any())).thenThrow(new RejectedExecutionException());
+
+        mockMvc.perform(post("/reports/training-needs/export/jobs"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists("Retry-After"));
+    }
+
+    @Test
+    void testStatus() throws Exception {
+        ExportJob job = job(ExportJob.State.RUNNING, null);
+        when(exportJobService.findById("job-1")).thenReturn(Optional.of(job));
+
+        mockMvc.perform(get("/reports/training-needs/export/jobs/job-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("RUNNING"))
+                .andExpect(jsonPath("$.departmentsDone").value(1))
+                .andExpect(jsonPath("$.rows").value(42));
+    }
+
+    @Test
+    void testStatus_UnknownJob() throws Exception {
+        when(exportJobService.findById("unknown")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/reports/training-needs/export/jobs/unknown"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/reports/training-needs/export/jobs/unknown/download"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testEvents_StreamsStatusUntilFinished() throws Exception {
+        ExportJob job = job(ExportJob.State.DONE, null);
+        doAnswer(invocation -> {
+            invocation.<Consumer<ExportJob.Status>>getArgument(0).accept(job.getStatus());
+            return null;
+        }).when(job).subscribe(any(Consumer.class));
+        when(exportJobService.findById("job-1")).thenReturn(Optional.of(job));
+
+        MvcResult result = mockMvc.perform(get("/reports/training-needs/export/jobs/job-1/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String events = result.getResponse().getContentAsString();
+        assertTrue(events.contains("event:status"));
+        assertTrue(events.contains("\"state\":\"DONE\""));
+    }
+
+    @Test
+    void testDownload_NotFinished() throws Exception {
+        ExportJob job = job(ExportJob.State.RUNNING, null);
+        when(exportJobService.findById("job-1")).thenReturn(Optional.of(job));
+
+        mockMvc.perform(get("/reports/training-needs/export/jobs/job-1/download"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void testDownload_ServesFile() throws Exception {
+        byte[] workbook = {1, 2, 3, 4, 5};
+        Path file = Files.write(tempDir.resolve("export.xlsx"), workbook);
+        ExportJob job = job(ExportJob.State.DONE, file);
+        when(exportJobService.findById("job-1")).thenReturn(Optional.of(job));
+        when(exportJobService.download(job)).thenReturn(Optional.of(file));
+
+        mockMvc.perform(get("/reports/training-needs/export/jobs/job-1/download"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+                .andExpect(header().string("Content-Disposition",
+                        containsString("filename=\"schulungsbedarf_2026-01-15.xlsx\"")))
+                .andExpect(header().longValue("Content-Length", workbook.length))
+                .andExpect(content().bytes(workbook));
+    }
+
+    @Test
+    void testDownload_Discarded() throws Exception {
+        ExportJob job = job(ExportJob.State.DONE, null);
+        when(exportJobService.findById("job-1")).thenReturn(Optional.of(job));
+        when(exportJobService.download(job)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/reports/training-needs/export/jobs/job-1/download"))
+                .andExpect(status().isGone());
+    }
+
+    @Test
+    void testDownload_FileDeleted() throws Exception {
+        Path file = tempDir.resolve("deleted.xlsx");
+        ExportJob job = job(ExportJob.State.DONE, file);
+        when(exportJobService.findById("job-1")).thenReturn(Optional.of(job));
+        when(exportJobService.download(job)).thenReturn(Optional.of(file));
+
+        mockMvc.perform(get("/reports/training-needs/export/jobs/job-1/download"))
+                .andExpect(status().isGone());
+    }
+
+    @Test
+    void testDownload_UsesSendfileWhenSupported() throws Exception {
+        Path file = Files.write(tempDir.resolve("export.xlsx"), new byte[]{1, 2, 3});
+        ExportJob job = job(ExportJob.State.DONE, file);
+        when(exportJobService.findById("job-1")).thenReturn(Optional.of(job));
+        when(exportJobService.download(job)).thenReturn(Optional.of(file));
+
+        mockMvc.perform(get("/reports/training-needs/export/jobs/job-1/download")
+                        .requestAttr("org.apache.tomcat.sendfile.support", Boolean.TRUE))
+                .andExpect(status().isOk())
+                .andExpect(request().attribute("org.apache.tomcat.sendfile.filename", file.toAbsolutePath().toString()))
+                .andExpect(request().attribute("org.apache.tomcat.sendfile.end", 3L))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    private static ExportJob job(ExportJob.State state, Path file) {
+        ExportJob job = mock(ExportJob.class);
+        when(job.getId()).thenReturn("job-1");
+        when(job.getTargetDate()).thenReturn(TARGET_DATE);
+        when(job.getStatus()).thenReturn(new ExportJob.Status("job-1", state, TARGET_DATE, 1L, 1, 2, 42, null));
+        when(job.isDone()).thenReturn(state == ExportJob.State.DONE);
+        when(job.getFile()).thenReturn(file);
+        return job;
+    }
+}
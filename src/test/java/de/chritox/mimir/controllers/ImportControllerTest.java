@@ -0,0 +1,81 @@
+package de.chritox.mimir.controllers;
+
+import de.chritox.mimir.services.EmployeeService;
+import de.chritox.mimir.services.ImportResult;
+import de.chritox.mimir.services.ImportService;
+import de.chritox.mimir.services.TrainingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ImportController.class)
+class ImportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ImportService importService;
+
+    @MockBean
+    private TrainingService trainingService;
+
+    @MockBean
+    private EmployeeService employeeService;
+
+    @Test
+    void testShowForm() throws Exception {
+        mockMvc.perform(get("/import"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("import/form"));
+    }
+
+    @Test
+    void testImportAttendances_ShowsResultAndRowErrors() throws Exception {
+        ImportResult result = new ImportResult(3, 1, 1, 1,
+                List.of(new ImportResult.RowError(4, "Unbekannter Mitarbeiter: Paul Weber")));
+        when(importService.importAttendances(eq("teilnahmen.csv"), any())).thenReturn(result);
+
+        mockMvc.perform(multipart("/import/attendances")
+                        .file(new MockMultipartFile("file", "teilnahmen.csv", "text/csv", "Mitarbeiter".getBytes())))
+                .andExpect(status().isOk())
+                .andExpect(view().name("import/form"))
+                .andExpect(model().attribute("result", result))
+                .andExpect(content().string(containsString("Unbekannter Mitarbeiter: Paul Weber")));
+    }
+
+    @Test
+    void testImportEmployees_ShowsError() throws Exception {
+        when(importService.importEmployees(any(), any()))
+                .thenThrow(new IllegalArgumentException("Die Spalte 'Name' fehlt"));
+
+        mockMvc.perform(multipart("/import/employees")
+                        .file(new MockMultipartFile("file", "mitarbeiter.csv", "text/csv", "Abteilung".getBytes())))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("error", "Die Spalte 'Name' fehlt"))
+                .andExpect(model().attributeDoesNotExist("result"));
+    }
+
+    @Test
+    void testImportEmployees_EmptyFile() throws Exception {
+        mockMvc.perform(multipart("/import/employees")
+                        .file(new MockMultipartFile("file", "mitarbeiter.csv", "text/csv", new byte[0])))
+                .andExpect(status().isOk())
+                .andExpect(model().attributeExists("error"));
+
+        verifyNoInteractions(importService);
+    }
+}
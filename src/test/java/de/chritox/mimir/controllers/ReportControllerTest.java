@@ -1,9 +1,10 @@
 package de.chritox.mimir.controllers;
 
 import de.chritox.mimir.models.Department;
-import de.chritox.mimir.models.Employee;
-import de.chritox.mimir.models.Training;
+import de.chritox.mimir.repositories.EmployeeRow;
+import de.chritox.mimir.services.ComplianceService;
 import de.chritox.mimir.services.DepartmentService;
+import de.chritox.mimir.services.DueTimeline;
 import de.chritox.mimir.services.EmployeeService;
 import de.chritox.mimir.services.ReportService;
 import de.chritox.mimir.services.TrainingService;
@@ -15,13 +16,17 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.*;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -39,6 +44,9 @@ class ReportControllerTest {
 
     @MockBean
     private ReportService reportService;
+
+    @MockBean
+    private ComplianceService complianceService;
     
     @MockBean
     private TrainingService trainingService;
@@ -47,8 +55,7 @@ class ReportControllerTest {
     private TrainingSessionService trainingSessionService;
 
     private Department testDepartment;
-    private Employee testEmployee;
-    private Training testTraining;
+    private EmployeeRow testEmployeeRow;
 
     @BeforeEach
     void setUp() {
@@ -57,24 +64,14 @@ class ReportControllerTest {
         testDepartment.setName("IT");
         testDepartment.setDescription("IT Department");
 
-        testTraining = new Training();
-        testTraining.setId(1L);
-        testTraining.setTitle("Erste Hilfe");
-        testTraining.setInterval(24);
-
-        testEmployee = new Employee();
-        testEmployee.setId(1L);
-        testEmployee.setName("Max Mustermann");
-        testEmployee.setDepartment(testDepartment);
-        testEmployee.setMandatoryTrainings(new HashSet<>(Set.of(testTraining)));
-        testEmployee.setAttendedSessions(new HashSet<>());
+        testEmployeeRow = new EmployeeRow(1L, "Max Mustermann", 1L, "IT");
     }
 
     @Test
     void testTrainingNeeds_NoDepartmentSelected() throws Exception {
         when(departmentService.findAll()).thenReturn(List.of(testDepartment));
-        when(employeeService.findByDepartmentId(1L)).thenReturn(List.of(testEmployee));
-        when(reportService.getDueTrainingsForEmployee(any(), any())).thenReturn(new HashMap<>());
+        when(employeeService.findAllRows()).thenReturn(List.of(testEmployeeRow));
+        when(complianceService.getDueTrainings(any())).thenReturn(new HashMap<>());
 
         mockMvc.perform(get("/reports/training-needs"))
                 .andExpect(status().isOk())
@@ -83,18 +80,21 @@ class ReportControllerTest {
                 .andExpect(model().attributeExists("targetDate"))
                 .andExpect(model().attributeExists("departmentEmployees"))
                 .andExpect(model().attributeExists("allDueTrainings"))
+                .andExpect(model().attribute("departmentEmployees", Map.of(1L, List.of(testEmployeeRow))))
                 .andExpect(model().attribute("selectedDepartmentId", (Object) null));
 
         verify(departmentService, times(1)).findAll();
-        verify(employeeService, times(1)).findByDepartmentId(1L);
+        verify(employeeService, times(1)).findAllRows();
+        verify(complianceService, times(1)).getDueTrainings(any(LocalDate.class));
+        verify(reportService, never()).getDueTrainingsForEmployee(any(), any());
     }
 
     @Test
     void testTrainingNeeds_WithDepartmentSelected() throws Exception {
         when(departmentService.findAll()).thenReturn(List.of(testDepartment));
         when(departmentService.findById(1L)).thenReturn(Optional.of(testDepartment));
-        when(employeeService.findByDepartmentId(1L)).thenReturn(List.of(testEmployee));
-        when(reportService.getDueTrainingsForEmployee(any(Employee.class), any(LocalDate.class)))
+        when(employeeService.findRowsByDepartmentId(1L)).thenReturn(List.of(testEmployeeRow));
+        when(complianceService.getDueTrainingsForDepartment(eq(1L), any(LocalDate.class)))
                 .thenReturn(new HashMap<>());
 
         mockMvc.perform(get("/reports/training-needs")
@@ -109,16 +109,16 @@ class ReportControllerTest {
 
         verify(departmentService, times(1)).findAll();
         verify(departmentService, times(1)).findById(1L);
-        verify(employeeService, times(1)).findByDepartmentId(1L);
-        verify(reportService, times(1)).getDueTrainingsForEmployee(eq(testEmployee), any(LocalDate.class));
+        verify(employeeService, times(1)).findRowsByDepartmentId(1L);
+        verify(complianceService, times(1)).getDueTrainingsForDepartment(eq(1L), any(LocalDate.class));
     }
 
     @Test
     void testTrainingNeeds_WithCustomTargetDate() throws Exception {
         when(departmentService.findAll()).thenReturn(List.of(testDepartment));
         when(departmentService.findById(1L)).thenReturn(Optional.of(testDepartment));
-        when(employeeService.findByDepartmentId(1L)).thenReturn(List.of(testEmployee));
-        when(reportService.getDueTrainingsForEmployee(any(Employee.class), any(LocalDate.class)))
+        when(employeeService.findRowsByDepartmentId(1L)).thenReturn(List.of(testEmployeeRow));
+        when(complianceService.getDueTrainingsForDepartment(eq(1L), any(LocalDate.class)))
                 .thenReturn(new HashMap<>());
 
         mockMvc.perform(get("/reports/training-needs")
@@ -128,22 +128,17 @@ class ReportControllerTest {
                 .andExpect(view().name("reports/training-needs"))
                 .andExpect(model().attribute("targetDate", LocalDate.parse("2026-01-15")));
 
-        verify(reportService, times(1)).getDueTrainingsForEmployee(eq(testEmployee), eq(LocalDate.parse("2026-01-15")));
+        verify(complianceService, times(1)).getDueTrainingsForDepartment(1L, LocalDate.parse("2026-01-15"));
     }
 
     @Test
     void testTrainingNeeds_WithMultipleEmployees() throws Exception {
-        Employee employee2 = new Employee();
-        employee2.setId(2L);
-        employee2.setName("Anna Schmidt");
-        employee2.setDepartment(testDepartment);
-        employee2.setMandatoryTrainings(new HashSet<>());
-        employee2.setAttendedSessions(new HashSet<>());
+        EmployeeRow employee2 = new EmployeeRow(2L, "Anna Schmidt", 1L, "IT");
 
         when(departmentService.findAll()).thenReturn(List.of(testDepartment));
         when(departmentService.findById(1L)).thenReturn(Optional.of(testDepartment));
-        when(employeeService.findByDepartmentId(1L)).thenReturn(List.of(testEmployee, employee2));
-        when(reportService.getDueTrainingsForEmployee(any(Employee.class), any(LocalDate.class)))
+        when(employeeService.findRowsByDepartmentId(1L)).thenReturn(List.of(testEmployeeRow, employee2));
+        when(complianceService.getDueTrainingsForDepartment(eq(1L), any(LocalDate.class)))
                 .thenReturn(new HashMap<>());
 
         mockMvc.perform(get("/reports/training-needs")
@@ -151,7 +146,9 @@ class ReportControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(view().name("reports/training-needs"));
 
-        verify(reportService, times(2)).getDueTrainingsForEmployee(any(Employee.class), any(LocalDate.class));
+        // One set-based computation for the whole department, not one per employee
+        verify(complianceService, times(1)).getDueTrainingsForDepartment(eq(1L), any(LocalDate.class));
+        verify(reportService, never()).getDueTrainingsForEmployee(any(), any());
     }
 
     @Test
@@ -199,4 +196,84 @@ class ReportControllerTest {
 
         verify(reportService, times(1)).generateDepartmentTrainingReport(any(LocalDate.class));
     }
+
+    @Test
+    void testStreamTrainingNeeds_WritesWorkbookToResponse() throws Exception {
+        byte[] mockExcelData = new byte[]{1, 2, 3, 4, 5};
+        LocalDate customDate = LocalDate.parse("2026-01-15");
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(1).write(mockExcelData);
+            return null;
+        }).when(reportService).writeDepartmentTrainingReport(eq(customDate), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/reports/training-needs/export/stream")
+                        .param("targetDate", "2026-01-15"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+                .andExpect(header().string("Content-Disposition",
+                        "form-data; name=\"attachment\"; filename=\"schulungsbedarf_2026-01-15.xlsx\""))
+                .andExpect(content().bytes(mockExcelData));
+
+        verify(reportService, never()).generateDepartmentTrainingReport(any(LocalDate.class));
+    }
+
+    @Test
+    void testDueTimeline_ReturnsJson() throws Exception {
+        LocalDate startDate = LocalDate.parse("2026-01-15");
+        DueTimeline timeline = new DueTimeline(startDate, List.of(YearMonth.of(2026, 1), YearMonth.of(2026, 2)),
+                List.of(new DueTimeline.Entry(1L, "IT", 2L, "Erste Hilfe", 3, List.of(0, 4))));
+        when(complianceService.getDueTimeline(startDate, 2)).thenReturn(timeline);
+
+        mockMvc.perform(get("/reports/timeline")
+                        .param("startDate", "2026-01-15")
+                        .param("months", "2"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.startDate").value("2026-01-15"))
+                .andExpect(jsonPath("$.months[1]").value("2026-02"))
+                .andExpect(jsonPath("$.entries[0].department").value("IT"))
+                .andExpect(jsonPath("$.entries[0].overdue").value(3))
+                .andExpect(jsonPath("$.entries[0].dueByMonth[1]").value(4))
+                .andExpect(jsonPath("$.entries[0].total").value(7));
+    }
+
+    @Test
+    void testDueTimeline_DefaultsToTwelveMonths() throws Exception {
+        when(complianceService.getDueTimeline(any(LocalDate.class), eq(12)))
+                .thenReturn(new DueTimeline(LocalDate.now(), List.of(), List.of()));
+
+        mockMvc.perform(get("/reports/timeline"))
+                .andExpect(status().isOk());
+
+        verify(complianceService).getDueTimeline(LocalDate.now(), 12);
+    }
+
+    @Test
+    void testDueTimeline_RejectsInvalidHorizon() throws Exception {
+        mockMvc.perform(get("/reports/timeline").param("months", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/reports/timeline/export").param("months", "121"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(complianceService, reportService);
+    }
+
+    @Test
+    void testExportDueTimeline() throws Exception {
+        byte[] mockExcelData = new byte[]{1, 2, 3, 4, 5};
+        when(reportService.generateDueTimelineReport(LocalDate.parse("2026-01-15"), 24)).thenReturn(mockExcelData);
+
+        mockMvc.perform(get("/reports/timeline/export")
+                        .param("startDate", "2026-01-15")
+                        .param("months", "24"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+                .andExpect(header().string("Content-Disposition",
+                        "form-data; name=\"attachment\"; filename=\"faelligkeiten_2026-01-15.xlsx\""))
+                .andExpect(content().bytes(mockExcelData));
+    }
 }
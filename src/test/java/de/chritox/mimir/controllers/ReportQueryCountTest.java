@@ -0,0 +1,162 @@
+package de.chritox.mimir.controllers;
+
+import de.chritox.mimir.models.Department;
+import de.chritox.mimir.models.Employee;
+import de.chritox.mimir.models.Training;
+import de.chritox.mimir.models.TrainingSession;
+import de.chritox.mimir.repositories.DepartmentRepository;
+import de.chritox.mimir.repositories.EmployeeRepository;
+import de.chritox.mimir.repositories.TrainingRepository;
+import de.chritox.mimir.repositories.TrainingSessionRepository;
+import de.chritox.mimir.services.ComplianceStatusService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards the report pages against N+1 queries: the number of SQL statements per request must not
+ * depend on the number of employees, trainings or sessions.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:report-query-count",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReportQueryCountTest {
+
+    private static final int DEPARTMENTS = 3;
+    private static final int EMPLOYEES_PER_DEPARTMENT = 20;
+    private static final int TRAININGS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private TrainingRepository trainingRepository;
+
+    @Autowired
+    private TrainingSessionRepository trainingSessionRepository;
+
+    @Autowired
+    private ComplianceStatusService complianceStatusService;
+
+    private Statistics statistics;
+    private Department firstDepartment;
+    private Employee firstEmployee;
+
+    @BeforeAll
+    void seed() {
+        List<Training> trainings = new ArrayList<>();
+        for (int t = 0; t < TRAININGS; t++) {
+            trainings.add(trainingRepository.save(new Training(null, 12 * (t + 1), "Schulung " + t, null)));
+        }
+
+        List<Employee> employees = new ArrayList<>();
+        for (int d = 0; d < DEPARTMENTS; d++) {
+            Department department = departmentRepository.save(new Department(null, "Abteilung " + d, null));
+            if (firstDepartment == null) {
+                firstDepartment = department;
+            }
+            for (int e = 0; e < EMPLOYEES_PER_DEPARTMENT; e++) {
+                Employee employee = new Employee();
+                employee.setName("Mitarbeiter " + d + "-" + e);
+                employee.setDepartment(department);
+                employee.getMandatoryTrainings().addAll(trainings);
+                employees.add(employeeRepository.save(employee));
+            }
+        }
+        firstEmployee = employees.get(0);
+
+        for (Training training : trainings) {
+            for (int year = 1; year <= 3; year++) {
+                TrainingSession session = new TrainingSession();
+                session.setTraining(training);
+                session.setDate(LocalDate.now().minusYears(year));
+                session.getParticipants().addAll(employees);
+                trainingSessionRepository.save(session);
+            }
+        }
+        complianceStatusService.rebuild();
+    }
+
+    @BeforeEach
+    void resetStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testTrainingNeedsAllDepartments() throws Exception {
+        assertStatementCount(get("/reports/training-needs"), 5);
+    }
+
+    @Test
+    void testTrainingNeedsSingleDepartment() throws Exception {
+        assertStatementCount(get("/reports/training-needs")
+                .param("departmentId", firstDepartment.getId().toString()), 5);
+    }
+
+    @Test
+    void testPrintAllDepartments() throws Exception {
+        assertStatementCount(get("/reports/training-needs/print"), 5);
+    }
+
+    @Test
+    void testPrintDepartment() throws Exception {
+        assertStatementCount(get("/reports/training-needs/print-department")
+                .param("departmentId", firstDepartment.getId().toString()), 5);
+    }
+
+    @Test
+    void testEmployeeTrainingReport() throws Exception {
+        assertStatementCount(get("/reports/employee-training-report")
+                .param("employeeId", firstEmployee.getId().toString()), 2);
+    }
+
+    @Test
+    void testPrintEmployeeReport() throws Exception {
+        assertStatementCount(get("/reports/employee-training-report/print")
+                .param("employeeId", firstEmployee.getId().toString()), 1);
+    }
+
+    @Test
+    void testExportTrainingNeeds() throws Exception {
+        // Four statements per department, independent of the number of employees
+        assertStatementCount(get("/reports/training-needs/export"), 1 + 4 * DEPARTMENTS);
+    }
+
+    private void assertStatementCount(MockHttpServletRequestBuilder request, long maxStatements) throws Exception {
+        mockMvc.perform(request).andExpect(status().isOk());
+
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= maxStatements,
+                "Expected at most " + maxStatements + " SQL statements but got " + statements);
+    }
+}
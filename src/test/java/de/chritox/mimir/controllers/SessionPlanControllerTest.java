@@ -0,0 +1,95 @@
+package de.chritox.mimir.controllers;
+
+import de.chritox.mimir.models.Employee;
+import de.chritox.mimir.models.Training;
+import de.chritox.mimir.models.TrainingSession;
+import de.chritox.mimir.services.EmployeeService;
+import de.chritox.mimir.services.SessionPlanner;
+import de.chritox.mimir.services.TrainingService;
+import de.chritox.mimir.services.TrainingSessionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = SessionPlanController.class)
+class SessionPlanControllerTest {
+
+    private static final String REQUEST = """
+            {"startDate": "2026-01-15", "until": "2026-06-30", "dates": ["2026-02-01", "2026-03-01"],
+             "defaultMaxClassSize": 20, "maxClassSizes": {"1": 10}}""";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private SessionPlanner sessionPlanner;
+
+    @MockBean
+    private TrainingSessionService trainingSessionService;
+
+    @MockBean
+    private TrainingService trainingService;
+
+    @MockBean
+    private EmployeeService employeeService;
+
+    @Test
+    void testPreview_ReturnsProposedSessions() throws Exception {
+        when(sessionPlanner.plan(new SessionPlanner.Request(LocalDate.parse("2026-01-15"),
+                LocalDate.parse("2026-06-30"), List.of(LocalDate.parse("2026-02-01"), LocalDate.parse("2026-03-01")),
+                20, Map.of(1L, 10)))).thenReturn(List.of(session(null)));
+
+        mockMvc.perform(post("/sessions/plan").contentType(MediaType.APPLICATION_JSON).content(REQUEST))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").doesNotExist())
+                .andExpect(jsonPath("$[0].training").value("Erste Hilfe"))
+                .andExpect(jsonPath("$[0].date").value("2026-02-01"))
+                .andExpect(jsonPath("$[0].participantIds[0]").value(7))
+                .andExpect(jsonPath("$[0].participantIds[1]").value(8));
+
+        verifyNoInteractions(trainingSessionService);
+    }
+
+    @Test
+    void testPreview_InvalidRequest() throws Exception {
+        when(sessionPlanner.plan(any())).thenThrow(new IllegalArgumentException("No available date"));
+
+        mockMvc.perform(post("/sessions/plan").contentType(MediaType.APPLICATION_JSON).content(REQUEST))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testSave_SavesAllSessionsAtOnce() throws Exception {
+        List<TrainingSession> drafts = List.of(session(null));
+        when(sessionPlanner.plan(any())).thenReturn(drafts);
+        when(trainingSessionService.saveAll(drafts)).thenReturn(List.of(session(42L)));
+
+        mockMvc.perform(post("/sessions/plan/save").contentType(MediaType.APPLICATION_JSON).content(REQUEST))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$[0].id").value(42));
+
+        verify(trainingSessionService, times(1)).saveAll(drafts);
+    }
+
+    private static TrainingSession session(Long id) {
+        Employee first = new Employee();
+        first.setId(8L);
+        Employee second = new Employee();
+        second.setId(7L);
+        return new TrainingSession(id, new Training(1L, 12, "Erste Hilfe", null), LocalDate.parse("2026-02-01"),
+                Set.of(first, second));
+    }
+}
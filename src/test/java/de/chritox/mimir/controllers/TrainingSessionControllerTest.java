@@ -3,23 +3,40 @@ package de.chritox.mimir.controllers;
 import de.chritox.mimir.models.Employee;
 import de.chritox.mimir.models.Training;
 import de.chritox.mimir.models.TrainingSession;
+import de.chritox.mimir.repositories.EmployeeRow;
+import de.chritox.mimir.repositories.TrainingSessionListItem;
+import de.chritox.mimir.services.DepartmentService;
 import de.chritox.mimir.services.EmployeeService;
 import de.chritox.mimir.services.TrainingService;
 import de.chritox.mimir.services.TrainingSessionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -39,9 +56,14 @@ class TrainingSessionControllerTest {
     @MockBean
     private EmployeeService employeeService;
 
+    @MockBean
+    private DepartmentService departmentService;
+
     private Training testTraining;
     private Employee testEmployee;
     private TrainingSession testSession;
+    private TrainingSessionListItem testListItem;
+    private EmployeeRow testEmployeeRow;
 
     @BeforeEach
     void setUp() {
@@ -62,24 +84,80 @@ class TrainingSessionControllerTest {
         testSession.setTraining(testTraining);
         testSession.setDate(LocalDate.now().plusDays(7));
         testSession.setParticipants(new HashSet<>());
+
+        testListItem = new TrainingSessionListItem(1L, testSession.getDate(), "Test Schulung", 0);
+        testEmployeeRow = new EmployeeRow(1L, "Max Mustermann", null, null);
     }
 
     @Test
     void testListSessions() throws Exception {
-        when(sessionService.findAll()).thenReturn(List.of(testSession));
+        when(sessionService.findPage(isNull(), isNull(), isNull(), isNull(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(testListItem)));
 
         mockMvc.perform(get("/sessions"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("sessions/list"))
-                .andExpect(model().attributeExists("sessions"));
+                .andExpect(model().attributeExists("sessions"))
+                .andExpect(model().attributeExists("page"));
+
+        verify(sessionService, times(1)).findPage(isNull(), isNull(), isNull(), isNull(),
+                eq(PageRequest.of(0, 50, Sort.by(Sort.Direction.DESC, "date", "id"))));
+        verify(sessionService, never()).findAll();
+    }
+
+    @Test
+    void testListSessions_FilteredByTrainingDepartmentAndDateRange() throws Exception {
+        LocalDate from = LocalDate.parse("2025-01-01");
+        LocalDate to = LocalDate.parse("2025-12-31");
+        when(sessionService.findPage(eq(1L), eq(2L), eq(from), eq(to), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(testListItem)));
+
+        mockMvc.perform(get("/sessions")
+                        .param("trainingId", "1")
+                        .param("departmentId", "2")
+                        .param("from", "2025-01-01")
+                        .param("to", "2025-12-31"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("from", from))
+                .andExpect(model().attribute("to", to));
 
-        verify(sessionService, times(1)).findAll();
+        verify(sessionService, times(1)).findPage(eq(1L), eq(2L), eq(from), eq(to), any(Pageable.class));
+    }
+
+    @Test
+    void testListSessions_SortedWithIdTieBreaker() throws Exception {
+        when(sessionService.findPage(isNull(), isNull(), isNull(), isNull(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(testListItem)));
+
+        mockMvc.perform(get("/sessions").param("sort", "date,asc"))
+                .andExpect(status().isOk());
+
+        verify(sessionService, times(1)).findPage(null, null, null, null,
+                PageRequest.of(0, 50, Sort.by(Sort.Direction.ASC, "date", "id")));
+    }
+
+    @Test
+    void testListSessions_Keyset() throws Exception {
+        when(sessionService.findWindow(isNull(), isNull(), isNull(), isNull(), any(Sort.class), any(ScrollPosition.class),
+                eq(50)))
+                .thenReturn(Window.from(List.of(testListItem), ScrollPosition::offset, false));
+
+        mockMvc.perform(get("/sessions")
+                        .param("afterDate", "2025-06-30")
+                        .param("afterId", "42"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("sessions", List.of(testListItem)))
+                .andExpect(model().attributeDoesNotExist("next"))
+                .andExpect(model().attributeDoesNotExist("page"));
+
+        verify(sessionService, times(1)).findWindow(null, null, null, null,
+                Sort.by(Sort.Direction.DESC, "date", "id"), ScrollPosition.forward(Map.of("date", LocalDate.parse("2025-06-30"), "id", 42L)), 50);
     }
 
     @Test
     void testShowCreateForm() throws Exception {
         when(trainingService.findAll()).thenReturn(List.of(testTraining));
-        when(employeeService.findAll()).thenReturn(List.of(testEmployee));
+        when(employeeService.findAllRows()).thenReturn(List.of(testEmployeeRow));
 
         mockMvc.perform(get("/sessions/new"))
                 .andExpect(status().isOk())
@@ -89,13 +167,13 @@ class TrainingSessionControllerTest {
                 .andExpect(model().attributeExists("employees"));
 
         verify(trainingService, times(1)).findAll();
-        verify(employeeService, times(1)).findAll();
+        verify(employeeService, times(1)).findAllRows();
     }
 
     @Test
     void testCreateSession() throws Exception {
         when(trainingService.findById(1L)).thenReturn(Optional.of(testTraining));
-        when(employeeService.findById(1L)).thenReturn(Optional.of(testEmployee));
+        when(employeeService.findAllById(List.of(1L))).thenReturn(List.of(testEmployee));
         when(sessionService.save(any(TrainingSession.class))).thenReturn(testSession);
 
         mockMvc.perform(post("/sessions/save")
@@ -105,14 +183,45 @@ class TrainingSessionControllerTest {
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/sessions"));
 
-        verify(sessionService, times(1)).save(any(TrainingSession.class));
+        ArgumentCaptor<TrainingSession> session = ArgumentCaptor.forClass(TrainingSession.class);
+        verify(sessionService, times(1)).save(session.capture());
+        assertEquals(testTraining, session.getValue().getTraining());
+        assertEquals(Set.of(testEmployee), session.getValue().getParticipants());
+    }
+
+    @Test
+    void testCreateSession_ResolvesParticipantsWithOneQuery() throws Exception {
+        List<Employee> employees = new ArrayList<>();
+        String[] ids = new String[300];
+        for (int i = 0; i < ids.length; i++) {
+            Employee employee = new Employee();
+            employee.setId(i + 1L);
+            employee.setName("Mitarbeiter " + (i + 1));
+            employees.add(employee);
+            ids[i] = String.valueOf(i + 1);
+        }
+        when(trainingService.findById(1L)).thenReturn(Optional.of(testTraining));
+        when(employeeService.findAllById(any())).thenReturn(employees);
+        when(sessionService.save(any(TrainingSession.class))).thenReturn(testSession);
+
+        mockMvc.perform(post("/sessions/save")
+                        .param("training", "1")
+                        .param("date", LocalDate.now().plusDays(7).toString())
+                        .param("participants", ids))
+                .andExpect(status().is3xxRedirection());
+
+        ArgumentCaptor<TrainingSession> session = ArgumentCaptor.forClass(TrainingSession.class);
+        verify(sessionService).save(session.capture());
+        assertEquals(300, session.getValue().getParticipants().size());
+        verify(employeeService, times(1)).findAllById(any());
+        verify(employeeService, never()).findById(any());
     }
 
     @Test
     void testShowEditForm() throws Exception {
-        when(sessionService.findById(1L)).thenReturn(Optional.of(testSession));
+        when(sessionService.findWithParticipantsById(1L)).thenReturn(Optional.of(testSession));
         when(trainingService.findAll()).thenReturn(List.of(testTraining));
-        when(employeeService.findAll()).thenReturn(List.of(testEmployee));
+        when(employeeService.findAllRows()).thenReturn(List.of(testEmployeeRow));
 
         mockMvc.perform(get("/sessions/edit/1"))
                 .andExpect(status().isOk())
@@ -121,19 +230,37 @@ class TrainingSessionControllerTest {
                 .andExpect(model().attributeExists("trainings"))
                 .andExpect(model().attributeExists("employees"));
 
-        verify(sessionService, times(1)).findById(1L);
+        verify(sessionService, times(1)).findWithParticipantsById(1L);
+    }
+
+    @Test
+    void testShowEditForm_ChecksParticipantsWithoutLookups() throws Exception {
+        EmployeeRow otherEmployee = new EmployeeRow(2L, "Erika Musterfrau", null, null);
+        testSession.getParticipants().add(testEmployee);
+        when(sessionService.findWithParticipantsById(1L)).thenReturn(Optional.of(testSession));
+        when(trainingService.findAll()).thenReturn(List.of(testTraining));
+        when(employeeService.findAllRows()).thenReturn(List.of(testEmployeeRow, otherEmployee));
+
+        String html = mockMvc.perform(get("/sessions/edit/1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(html.matches("(?s).*id=\"employee1\"[^>]*checked.*"));
+        assertFalse(html.matches("(?s).*id=\"employee2\"[^>]*checked.*"));
+        verify(employeeService, never()).findById(any());
+        verify(employeeService, never()).findAllById(any());
     }
 
     @Test
     void testDetailView() throws Exception {
-        when(sessionService.findById(1L)).thenReturn(Optional.of(testSession));
+        when(sessionService.findWithParticipantsById(1L)).thenReturn(Optional.of(testSession));
 
         mockMvc.perform(get("/sessions/1"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("sessions/detail"))
                 .andExpect(model().attributeExists("trainingSession"));
 
-        verify(sessionService, times(1)).findById(1L);
+        verify(sessionService, times(1)).findWithParticipantsById(1L);
     }
 
     @Test
@@ -149,7 +276,7 @@ class TrainingSessionControllerTest {
 
     @Test
     void testUpcomingSessions() throws Exception {
-        when(sessionService.findUpcoming()).thenReturn(List.of(testSession));
+        when(sessionService.findUpcoming()).thenReturn(List.of(testListItem));
 
         mockMvc.perform(get("/sessions/upcoming"))
                 .andExpect(status().isOk())
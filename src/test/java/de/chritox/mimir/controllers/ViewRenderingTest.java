@@ -0,0 +1,127 @@
+package de.chritox.mimir.controllers;
+
+import de.chritox.mimir.models.Department;
+import de.chritox.mimir.models.Employee;
+import de.chritox.mimir.models.Training;
+import de.chritox.mimir.models.TrainingSession;
+import de.chritox.mimir.repositories.DepartmentRepository;
+import de.chritox.mimir.repositories.EmployeeRepository;
+import de.chritox.mimir.repositories.TrainingRepository;
+import de.chritox.mimir.repositories.TrainingSessionRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Renders the list, detail and form pages without open-in-view, so every association a template reads must be
+ * loaded by the controller.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:view-rendering",
+        "spring.jpa.open-in-view=false"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ViewRenderingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private Department department;
+    private Employee employee;
+    private TrainingSession pastSession;
+    private TrainingSession upcomingSession;
+
+    @BeforeAll
+    void seed(@Autowired DepartmentRepository departmentRepository,
+              @Autowired EmployeeRepository employeeRepository,
+              @Autowired TrainingRepository trainingRepository,
+              @Autowired TrainingSessionRepository trainingSessionRepository) {
+        Training training = trainingRepository.save(new Training(null, 12, "Erste Hilfe", null));
+        department = departmentRepository.save(new Department(null, "Lager", null));
+
+        employee = new Employee();
+        employee.setName("Max Mustermann");
+        employee.setDepartment(department);
+        employee.getMandatoryTrainings().add(training);
+        employee = employeeRepository.save(employee);
+
+        Employee other = new Employee();
+        other.setName("Erika Musterfrau");
+        other.setDepartment(department);
+        other = employeeRepository.save(other);
+
+        pastSession = new TrainingSession();
+        pastSession.setTraining(training);
+        pastSession.setDate(LocalDate.now().minusMonths(3));
+        pastSession.getParticipants().addAll(List.of(employee, other));
+        pastSession = trainingSessionRepository.save(pastSession);
+
+        upcomingSession = new TrainingSession();
+        upcomingSession.setTraining(training);
+        upcomingSession.setDate(LocalDate.now().plusMonths(1));
+        upcomingSession.getParticipants().add(employee);
+        upcomingSession = trainingSessionRepository.save(upcomingSession);
+    }
+
+    @Test
+    void testEmployeePages() throws Exception {
+        assertRenders(get("/employees"), "Lager");
+        assertRenders(get("/employees").param("afterName", "A").param("afterId", "0"), "Max Mustermann");
+        assertRenders(get("/employees").param("sort", "name,desc").param("afterName", "Z").param("afterId", "0"),
+                "Max Mustermann");
+        assertRenders(get("/employees/" + employee.getId()), "Erste Hilfe");
+        assertRenders(get("/employees/edit/" + employee.getId()), "Max Mustermann");
+        assertRenders(get("/employees/new"), "Lager");
+    }
+
+    @Test
+    void testSessionPages() throws Exception {
+        assertRenders(get("/sessions"), "Erste Hilfe");
+        assertRenders(get("/sessions")
+                .param("afterDate", LocalDate.now().plusYears(1).toString())
+                .param("afterId", "0"), "Erste Hilfe");
+        assertRenders(get("/sessions")
+                .param("sort", "date,asc")
+                .param("afterDate", LocalDate.now().minusYears(10).toString())
+                .param("afterId", "0"), "Erste Hilfe");
+        assertRenders(get("/sessions/upcoming"), "Erste Hilfe");
+        assertRenders(get("/sessions/" + pastSession.getId()), "Erika Musterfrau");
+        assertRenders(get("/sessions/edit/" + upcomingSession.getId()), "Erika Musterfrau");
+        assertRenders(get("/sessions/new"), "Lager");
+    }
+
+    @Test
+    void testDepartmentPages() throws Exception {
+        assertRenders(get("/departments"), "Lager");
+        assertRenders(get("/departments/" + department.getId()), "Erika Musterfrau");
+    }
+
+    @Test
+    void testReportPages() throws Exception {
+        assertRenders(get("/reports/training-needs"), "Max Mustermann");
+        assertRenders(get("/reports/training-needs").param("departmentId", department.getId().toString()),
+                "Max Mustermann");
+        assertRenders(get("/reports/employee-training-report")
+                .param("employeeId", employee.getId().toString()), "Max Mustermann");
+    }
+
+    private void assertRenders(MockHttpServletRequestBuilder request, String text) throws Exception {
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(text)));
+    }
+}
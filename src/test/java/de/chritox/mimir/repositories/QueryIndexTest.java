@@ -0,0 +1,77 @@
+package de.chritox.mimir.repositories;
+
+import de.chritox.mimir.services.DataGenerator;
+import de.chritox.mimir.services.DataGeneratorService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks with H2's EXPLAIN that the list and report queries use the indexes of the migrations. The statements
+ * select the same columns as the SQL Hibernate generates for the repository methods.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:query-indexes")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryIndexTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void generate(@Autowired DataGeneratorService dataGeneratorService) {
+        dataGeneratorService.generate(new DataGenerator.Settings(5, 500, 10, 4, 2, 7L, LocalDate.of(2025, 6, 1)));
+        jdbcTemplate.execute("analyze");
+    }
+
+    @Test
+    void testUpcomingSessions() {
+        assertUsesIndex("idx_training_session_date",
+                "select id, date, training_id from training_session where date > date '2025-01-01'");
+    }
+
+    @Test
+    void testSessionWindow() {
+        assertUsesIndex("idx_training_session_date",
+                "select id, date, training_id from training_session order by date desc, id desc limit 20");
+    }
+
+    @Test
+    void testFindByTrainingId() {
+        assertUsesIndex("idx_training_session_training",
+                "select id, date, training_id from training_session where training_id = 1");
+    }
+
+    @Test
+    void testFindByDepartmentId() {
+        assertUsesIndex("idx_employee_department",
+                "select id, department_id, name from employee where department_id = 1");
+        assertUsesIndex("idx_employee_department",
+                "select id, name from employee where department_id = 1 order by id");
+    }
+
+    @Test
+    void testFindParticipantIds() {
+        assertUsesIndex("idx_training_session_participants_session",
+                "select employee_id from training_session_participants where session_id = 1");
+    }
+
+    @Test
+    void testEmployeesWithMandatoryTraining() {
+        assertUsesIndex("idx_mandatory_training_training",
+                "select employee_id from mandatory_training where training_id = 1");
+    }
+
+    private void assertUsesIndex(String index, String sql) {
+        String plan = jdbcTemplate.queryForObject("explain " + sql, String.class);
+        assertTrue(plan != null && plan.contains("/* PUBLIC." + index.toUpperCase(Locale.ROOT)),
+                () -> "Expected " + index + " in\n" + plan);
+    }
+}
@@ -0,0 +1,97 @@
+package de.chritox.mimir.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComplianceCacheTest {
+
+    private static final LocalDate TARGET_DATE = LocalDate.of(2025, 6, 1);
+
+    private ComplianceCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ComplianceCache(100, Duration.ofMinutes(10));
+        loads = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testEvictDepartments_KeepsOtherDepartments() {
+        load(1L);
+        load(2L);
+        load(null);
+
+        cache.evictDepartments(List.of(1L));
+        load(1L);
+        load(2L);
+        load(null);
+
+        // Department 1 and the company-wide result were computed again
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void testEvictAll() {
+        load(1L);
+        load(2L);
+
+        cache.evictAll();
+        load(1L);
+        load(2L);
+
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void testEviction_WaitsForCommit() {
+        load(1L);
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.evictDepartments(List.of(1L));
+        load(1L);
+        assertEquals(1, loads.get());
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        load(1L);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testGet_DoesNotCacheResultComputedDuringEviction() {
+        cache.get(ComplianceCache.View.DETAILS, 1L, TARGET_DATE, () -> {
+            loads.incrementAndGet();
+            cache.evictDepartments(List.of(2L));
+            return "stale";
+        });
+        load(1L);
+
+        assertEquals(2, loads.get());
+    }
+
+    private void load(Long departmentId) {
+        cache.get(ComplianceCache.View.DETAILS, departmentId, TARGET_DATE, () -> {
+            loads.incrementAndGet();
+            return "result";
+        });
+    }
+}
@@ -0,0 +1,171 @@
+package de.chritox.mimir.services;
+
+import de.chritox.mimir.models.Department;
+import de.chritox.mimir.models.Employee;
+import de.chritox.mimir.models.Training;
+import de.chritox.mimir.models.TrainingSession;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Checks that the changes of a transaction reach the in-memory index in one pass after the commit, and that only
+ * the affected trainings of the affected employees are read again.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:compliance-change")
+@RecordApplicationEvents
+class ComplianceChangeTest {
+
+    private static final int PARTICIPANTS = 500;
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @SpyBean
+    private ComplianceIndex complianceIndex;
+
+    @Autowired
+    private ComplianceService complianceService;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private TrainingService trainingService;
+
+    @Autowired
+    private TrainingSessionService trainingSessionService;
+
+    @Autowired
+    private SessionPlanner sessionPlanner;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    private TransactionTemplate transactionTemplate;
+    private Training yearly;
+    private Training once;
+    private Department department;
+    private List<Employee> employees;
+
+    @BeforeEach
+    void seed() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        yearly = trainingService.save(new Training(null, 12, "Unterweisung", null));
+        once = trainingService.save(new Training(null, null, "Einführung", null));
+        department = departmentService.save(new Department(null, "Abteilung", null));
+        employees = transactionTemplate.execute(status -> {
+            List<Employee> saved = new ArrayList<>();
+            for (int i = 0; i < PARTICIPANTS; i++) {
+                Employee employee = new Employee();
+                employee.setName("Mitarbeiter " + i);
+                employee.setDepartment(department);
+                employee.getMandatoryTrainings().addAll(Set.of(yearly, once));
+                saved.add(employeeService.save(employee));
+            }
+            return saved;
+        });
+        clearInvocations(complianceIndex);
+    }
+
+    @Test
+    void testSessionSaved_ReloadsOnlyItsTraining() {
+        saveSession(yearly, TODAY.minusMonths(1), employees);
+
+        verify(complianceIndex).replaceTraining(eq(yearly.getId()), argThat(ids -> ids.size() == PARTICIPANTS),
+                any());
+        verify(complianceIndex, never()).replaceEmployees(any(), any());
+        Set<Training> dueTrainings = complianceService.getDueTrainingsForDepartment(department.getId(), TODAY)
+                .get(employees.get(0).getId()).keySet();
+        assertEquals(Set.of(once), dueTrainings);
+    }
+
+    @Test
+    void testChangesOfOneTransaction_AppliedOnceAfterCommit() {
+        transactionTemplate.executeWithoutResult(status -> {
+            saveSession(yearly, TODAY.minusMonths(2), employees.subList(0, 300));
+            saveSession(yearly, TODAY.minusMonths(1), employees.subList(200, PARTICIPANTS));
+            saveSession(once, TODAY.minusYears(1), employees.subList(0, 10));
+            verifyNoInteractions(complianceIndex);
+        });
+
+        verify(complianceIndex).replaceTraining(eq(yearly.getId()), argThat(ids -> ids.size() == PARTICIPANTS),
+                any());
+        verify(complianceIndex).replaceTraining(eq(once.getId()), argThat(ids -> ids.size() == 10), any());
+        assertFalse(complianceService.getDueTrainingsForDepartment(department.getId(), TODAY)
+                .containsKey(employees.get(0).getId()));
+    }
+
+    @Test
+    void testEmployeesSavedInOneTransaction_ReloadedTogether() {
+        transactionTemplate.executeWithoutResult(status -> employees.subList(0, 20).forEach(employee -> {
+            Employee loaded = employeeService.findById(employee.getId()).orElseThrow();
+            loaded.setMandatoryTrainings(new HashSet<>(Set.of(once)));
+            employeeService.save(loaded);
+        }));
+
+        verify(complianceIndex).replaceEmployees(argThat(ids -> ids.size() == 20), any());
+    }
+
+    @Test
+    void testPlannedSessions_SavedInOneBatch() {
+        List<TrainingSession> drafts = sessionPlanner.plan(new SessionPlanner.Request(TODAY, TODAY,
+                List.of(TODAY), 40, null));
+
+        // Employees seeded by the other tests are planned as well
+        assertEquals(13, drafts.stream().filter(session -> session.getTraining().equals(yearly)).count());
+        assertEquals(13, drafts.stream().filter(session -> session.getTraining().equals(once)).count());
+        trainingSessionService.saveAll(drafts);
+
+        // One recomputation per training, not per session
+        assertEquals(drafts.stream().map(TrainingSession::getTraining).distinct().count(),
+                events.stream(ComplianceChange.SessionChanged.class).count());
+        verify(complianceIndex).replaceTraining(eq(yearly.getId()), argThat(ids -> ids.size() == PARTICIPANTS),
+                any());
+        verify(complianceIndex).replaceTraining(eq(once.getId()), argThat(ids -> ids.size() == PARTICIPANTS),
+                any());
+        assertTrue(drafts.stream().allMatch(session -> session.getId() != null));
+        assertFalse(complianceService.getDueTrainingsForDepartment(department.getId(), TODAY)
+                .containsKey(employees.get(0).getId()));
+    }
+
+    @Test
+    void testRolledBack_IndexUnchanged() {
+        transactionTemplate.executeWithoutResult(status -> {
+            saveSession(yearly, TODAY.minusMonths(1), employees);
+            status.setRollbackOnly();
+        });
+
+        verifyNoInteractions(complianceIndex);
+        assertTrue(complianceService.getDueTrainingsForDepartment(department.getId(), TODAY)
+                .get(employees.get(0).getId()).containsKey(yearly));
+    }
+
+    private void saveSession(Training training, LocalDate date, List<Employee> participants) {
+        TrainingSession session = new TrainingSession();
+        session.setTraining(training);
+        session.setDate(date);
+        session.getParticipants().addAll(participants);
+        trainingSessionService.save(session);
+    }
+}
@@ -0,0 +1,197 @@
+package de.chritox.mimir.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComplianceIndexTest {
+
+    private static final LocalDate TARGET_DATE = LocalDate.of(2025, 6, 1);
+    private static final LocalDate LAST_YEAR = LocalDate.of(2024, 3, 15);
+
+    private ComplianceIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ComplianceIndex();
+        ComplianceIndex.Batch batch = new ComplianceIndex.Batch();
+        // Training 1 every 12 months, training 2 once
+        batch.add(10L, 1L, 1L, 12, LAST_YEAR);
+        batch.add(10L, 1L, 2L, null, null);
+        batch.add(11L, 1L, 1L, 12, TARGET_DATE.minusMonths(1));
+        batch.add(11L, 1L, 2L, null, LAST_YEAR);
+        batch.add(20L, 2L, 1L, 12, null);
+        index.replaceAll(batch);
+    }
+
+    @Test
+    void testForEachDue() {
+        assertEquals(List.of(
+                due(10L, 1L, LAST_YEAR, LAST_YEAR.plusMonths(12)),
+                due(10L, 2L, null, TARGET_DATE),
+                due(20L, 1L, null, TARGET_DATE)), findDue(null, TARGET_DATE));
+        assertEquals(List.of(due(20L, 1L, null, TARGET_DATE)), findDue(2L, TARGET_DATE));
+        assertEquals(List.of(), findDue(3L, TARGET_DATE));
+    }
+
+    @Test
+    void testForEachDue_DueOnTargetDate() {
+        LocalDate dueDate = LAST_YEAR.plusMonths(12);
+
+        assertEquals(List.of(due(10L, 2L, null, dueDate.minusDays(1))), findDue(1L, dueDate.minusDays(1)));
+        assertEquals(List.of(due(10L, 1L, LAST_YEAR, dueDate), due(10L, 2L, null, dueDate)),
+                findDue(1L, dueDate));
+    }
+
+    @Test
+    void testReplaceEmployees() {
+        ComplianceIndex.Batch batch = new ComplianceIndex.Batch();
+        batch.add(11L, 2L, 1L, 12, null);
+        batch.add(30L, 2L, 1L, 12, null);
+
+        // Employee 10 has no rows left
+        index.replaceEmployees(Set.of(10L, 11L, 30L), batch);
+
+        assertEquals(3, index.size());
+        assertEquals(List.of(), findDue(1L, TARGET_DATE));
+        assertEquals(Set.of(due(11L, 1L, null, TARGET_DATE), due(20L, 1L, null, TARGET_DATE),
+                due(30L, 1L, null, TARGET_DATE)), Set.copyOf(findDue(2L, TARGET_DATE)));
+    }
+
+    @Test
+    void testReplaceTraining_KeepsTrainingOrder() {
+        ComplianceIndex.Batch rebuilt = new ComplianceIndex.Batch();
+        rebuilt.add(10L, 1L, 2L, null, null);
+        rebuilt.add(10L, 1L, 3L, null, null);
+        index.replaceAll(rebuilt);
+        ComplianceIndex.Batch batch = new ComplianceIndex.Batch();
+        batch.add(10L, 1L, 1L, 12, null);
+
+        index.replaceTraining(1L, List.of(10L), batch);
+
+        // Same order as after a rebuild
+        assertEquals(List.of(due(10L, 1L, null, TARGET_DATE), due(10L, 2L, null, TARGET_DATE),
+                due(10L, 3L, null, TARGET_DATE)), findDue(1L, TARGET_DATE));
+    }
+
+    @Test
+    void testRemoveEmployees() {
+        index.removeEmployees(List.of(10L, 99L));
+
+        assertEquals(2, index.size());
+        assertEquals(List.of(due(20L, 1L, null, TARGET_DATE)), findDue(null, TARGET_DATE));
+    }
+
+    @Test
+    void testUpdateInterval() {
+        index.updateInterval(1L, 6);
+
+        assertEquals(List.of(
+                due(10L, 1L, LAST_YEAR, LAST_YEAR.plusMonths(6)),
+                due(10L, 2L, null, TARGET_DATE)), findDue(1L, TARGET_DATE));
+
+        index.updateInterval(2L, 12);
+
+        assertEquals(List.of(
+                due(10L, 1L, LAST_YEAR, LAST_YEAR.plusMonths(6)),
+                due(10L, 2L, null, TARGET_DATE),
+                due(11L, 2L, LAST_YEAR, LAST_YEAR.plusMonths(12))), findDue(1L, TARGET_DATE));
+
+        index.updateInterval(1L, null);
+
+        assertEquals(List.of(due(10L, 2L, null, TARGET_DATE), due(11L, 2L, LAST_YEAR, LAST_YEAR.plusMonths(12))),
+                findDue(1L, TARGET_DATE));
+    }
+
+    @Test
+    void testRemoveTraining() {
+        index.removeTraining(1L);
+
+        assertEquals(List.of(due(10L, 2L, null, TARGET_DATE)), findDue(null, TARGET_DATE));
+    }
+
+    @Test
+    void testDueDateAtEndOfMonth() {
+        ComplianceIndex.Batch batch = new ComplianceIndex.Batch();
+        batch.add(10L, 1L, 1L, 1, LocalDate.of(2024, 1, 31));
+        index.replaceAll(batch);
+
+        assertEquals(List.of(due(10L, 1L, LocalDate.of(2024, 1, 31), LocalDate.of(2024, 2, 29))),
+                findDue(1L, LocalDate.of(2024, 3, 1)));
+    }
+
+    @Test
+    void testCountDueByMonth() {
+        // Employee 11 is due again on 2026-05-01, in the twelfth month
+        Map<String, List<Integer>> counts = countDue(TARGET_DATE, 12);
+
+        assertEquals(Map.of(
+                "1/1", List.of(1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1),
+                "1/2", List.of(1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0),
+                "2/1", List.of(1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0)), counts);
+        assertEquals(List.of(1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0), countDue(TARGET_DATE, 11).get("1/1"));
+    }
+
+    @Test
+    void testCountDueByMonth_StartsWithinMonth() {
+        LocalDate dueDate = LAST_YEAR.plusMonths(12);
+
+        assertEquals(List.of(0, 1), countDue(dueDate.withDayOfMonth(1), 1).get("1/1"));
+        assertEquals(List.of(0, 1), countDue(dueDate, 1).get("1/1"));
+        assertEquals(List.of(1, 0), countDue(dueDate.plusDays(1), 1).get("1/1"));
+        assertEquals(List.of(0, 0, 1), countDue(dueDate.minusMonths(1), 2).get("1/1"));
+    }
+
+    @Test
+    void testCountDueByMonth_WithoutDepartment() {
+        ComplianceIndex.Batch batch = new ComplianceIndex.Batch();
+        batch.add(10L, null, 1L, 12, null);
+        batch.add(11L, null, 1L, 12, TARGET_DATE.minusMonths(12));
+        index.replaceAll(batch);
+
+        assertEquals(Map.of("null/1", List.of(1, 1, 0)), countDue(TARGET_DATE, 2));
+        assertThrows(IllegalArgumentException.class, () -> countDue(TARGET_DATE, 0));
+    }
+
+    @Test
+    void testMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        index.bindTo(registry);
+
+        assertEquals(3, registry.get("mimir.compliance.index.employees").gauge().value());
+        assertEquals(index.estimatedSizeInBytes(), registry.get("mimir.compliance.index.memory").gauge().value());
+    }
+
+    private List<Due> findDue(Long departmentId, LocalDate targetDate) {
+        List<Due> due = new ArrayList<>();
+        index.forEachDue(departmentId, targetDate, (employeeId, trainingId, lastAttended, dueDate) ->
+                due.add(new Due(employeeId, trainingId,
+                        lastAttended == ComplianceIndex.NEVER_ATTENDED ? null : LocalDate.ofEpochDay(lastAttended),
+                        LocalDate.ofEpochDay(dueDate))));
+        return due;
+    }
+
+    private Map<String, List<Integer>> countDue(LocalDate startDate, int months) {
+        Map<String, List<Integer>> counts = new HashMap<>();
+        index.countDueByMonth(startDate, months, (departmentId, trainingId, dueCounts) ->
+                counts.put(departmentId + "/" + trainingId, Arrays.stream(dueCounts).boxed().toList()));
+        return counts;
+    }
+
+    private static Due due(long employeeId, long trainingId, LocalDate lastAttended, LocalDate dueDate) {
+        return new Due(employeeId, trainingId, lastAttended, dueDate);
+    }
+
+    private record Due(long employeeId, long trainingId, LocalDate lastAttended, LocalDate dueDate) {
+    }
+}
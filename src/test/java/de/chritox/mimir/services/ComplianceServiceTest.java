@@ -0,0 +1,161 @@
+package de.chritox.mimir.services;
+
+import de.chritox.mimir.models.Department;
+import de.chritox.mimir.models.Training;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ComplianceServiceTest {
+
+    @Mock
+    private TrainingService trainingService;
+
+    @Mock
+    private DepartmentService departmentService;
+
+    private ComplianceIndex complianceIndex;
+    private ComplianceService complianceService;
+
+    private Training firstAid;
+    private Training fireSafety;
+
+    @BeforeEach
+    void setUp() {
+        complianceIndex = new ComplianceIndex();
+        complianceService = new ComplianceService(complianceIndex, trainingService, departmentService,
+                new ComplianceCache(100, Duration.ofMinutes(10)));
+
+        firstAid = new Training();
+        firstAid.setId(1L);
+        firstAid.setTitle("Erste Hilfe");
+        firstAid.setInterval(24);
+
+        fireSafety = new Training();
+        fireSafety.setId(2L);
+        fireSafety.setTitle("Brandschutz");
+        fireSafety.setInterval(null);
+
+        lenient().when(trainingService.findAll()).thenReturn(List.of(firstAid, fireSafety));
+    }
+
+    @Test
+    void testGetDueTrainingsForDepartment_NeverAttended() {
+        LocalDate targetDate = LocalDate.now();
+        index(batch -> batch.add(10L, 1L, 1L, 24, null));
+
+        Map<Long, Map<Training, LocalDate>> dueTrainings =
+                complianceService.getDueTrainingsForDepartment(1L, targetDate);
+
+        assertEquals(Map.of(firstAid, targetDate), dueTrainings.get(10L));
+    }
+
+    @Test
+    void testGetDueTrainingsForDepartment_AttendedButOverdue() {
+        LocalDate targetDate = LocalDate.now();
+        LocalDate lastAttended = targetDate.minusMonths(25);
+        index(batch -> batch.add(10L, 1L, 1L, 24, lastAttended));
+
+        Map<Long, Map<Training, LocalDate>> dueTrainings =
+                complianceService.getDueTrainingsForDepartment(1L, targetDate);
+
+        assertEquals(Map.of(firstAid, lastAttended.plusMonths(24)), dueTrainings.get(10L));
+    }
+
+    @Test
+    void testGetDueTrainingDetailsForDepartment_GroupsByEmployee() {
+        LocalDate targetDate = LocalDate.now();
+        LocalDate lastAttended = targetDate.minusMonths(30);
+        index(batch -> {
+            batch.add(10L, 1L, 1L, 24, lastAttended);
+            batch.add(10L, 1L, 2L, null, null);
+            batch.add(11L, 1L, 2L, null, null);
+            batch.add(12L, 2L, 2L, null, null);
+        });
+
+        Map<Long, List<ComplianceService.DueTraining>> dueTrainings =
+                complianceService.getDueTrainingDetailsForDepartment(1L, targetDate);
+
+        assertEquals(2, dueTrainings.size());
+        assertEquals(List.of(
+                new ComplianceService.DueTraining(firstAid, lastAttended, lastAttended.plusMonths(24)),
+                new ComplianceService.DueTraining(fireSafety, null, targetDate)), dueTrainings.get(10L));
+        assertEquals(List.of(new ComplianceService.DueTraining(fireSafety, null, targetDate)), dueTrainings.get(11L));
+    }
+
+    @Test
+    void testGetDueTrainings_ContainsAllDepartments() {
+        LocalDate targetDate = LocalDate.now();
+        index(batch -> {
+            batch.add(10L, 1L, 1L, 24, null);
+            batch.add(11L, 2L, 1L, 24, targetDate.minusMonths(1));
+            batch.add(12L, null, 2L, null, null);
+        });
+
+        Map<Long, Map<Training, LocalDate>> dueTrainings = complianceService.getDueTrainings(targetDate);
+
+        assertEquals(2, dueTrainings.size());
+        assertEquals(Map.of(firstAid, targetDate), dueTrainings.get(10L));
+        assertEquals(Map.of(fireSafety, targetDate), dueTrainings.get(12L));
+    }
+
+    @Test
+    void testGetDueTrainingsForDepartment_ServedFromCache() {
+        LocalDate targetDate = LocalDate.now();
+        index(batch -> batch.add(10L, 1L, 1L, 24, null));
+
+        Map<Long, Map<Training, LocalDate>> first = complianceService.getDueTrainingsForDepartment(1L, targetDate);
+        Map<Long, Map<Training, LocalDate>> second = complianceService.getDueTrainingsForDepartment(1L, targetDate);
+        complianceService.getDueTrainingDetailsForDepartment(1L, targetDate);
+        complianceService.getDueTrainingsForDepartment(1L, targetDate.plusDays(1));
+
+        assertSame(first, second);
+        verify(trainingService, times(2)).findAll();
+        assertThrows(UnsupportedOperationException.class, () -> first.get(10L).put(fireSafety, targetDate));
+    }
+
+    @Test
+    void testGetDueTimeline() {
+        LocalDate startDate = LocalDate.of(2025, 1, 10);
+        Department production = new Department(1L, "Produktion", null);
+        Department administration = new Department(2L, "Verwaltung", null);
+        when(departmentService.findAll()).thenReturn(List.of(administration, production));
+        index(batch -> {
+            batch.add(10L, 2L, 1L, 24, LocalDate.of(2023, 2, 28));
+            batch.add(10L, 2L, 2L, null, null);
+            batch.add(11L, 1L, 1L, 24, LocalDate.of(2023, 3, 1));
+            batch.add(12L, 1L, 1L, 24, LocalDate.of(2024, 1, 1));
+            batch.add(13L, null, 1L, 24, null);
+        });
+
+        DueTimeline timeline = complianceService.getDueTimeline(startDate, 3);
+
+        assertEquals(List.of(YearMonth.of(2025, 1), YearMonth.of(2025, 2), YearMonth.of(2025, 3)),
+                timeline.months());
+        assertEquals(List.of(
+                new DueTimeline.Entry(1L, "Produktion", 1L, "Erste Hilfe", 0, List.of(0, 0, 1)),
+                new DueTimeline.Entry(2L, "Verwaltung", 2L, "Brandschutz", 1, List.of(0, 0, 0)),
+                new DueTimeline.Entry(2L, "Verwaltung", 1L, "Erste Hilfe", 0, List.of(0, 1, 0)),
+                new DueTimeline.Entry(null, null, 1L, "Erste Hilfe", 1, List.of(0, 0, 0))), timeline.entries());
+        assertEquals(1, timeline.entries().get(0).total());
+    }
+
+    private void index(Consumer<ComplianceIndex.Batch> rows) {
+        ComplianceIndex.Batch batch = new ComplianceIndex.Batch();
+        rows.accept(batch);
+        complianceIndex.replaceAll(batch);
+    }
+}
@@ -0,0 +1,229 @@
+package de.chritox.mimir.services;
+
+import de.chritox.mimir.models.ComplianceStatus;
+import de.chritox.mimir.models.Department;
+import de.chritox.mimir.models.Employee;
+import de.chritox.mimir.models.Training;
+import de.chritox.mimir.models.TrainingSession;
+import de.chritox.mimir.repositories.ComplianceStatusRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Checks that the incrementally maintained compliance status table always yields the same due trainings
+ * as the report logic that walks an employee's attended sessions. The checks read through the result cache,
+ * so they also cover its eviction by the writing services.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:compliance-status")
+class ComplianceStatusConsistencyTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+    private static final List<LocalDate> TARGET_DATES =
+            List.of(TODAY.minusYears(1), TODAY, TODAY.plusMonths(6), TODAY.plusYears(3));
+
+    @Autowired
+    private ComplianceService complianceService;
+
+    @Autowired
+    private ComplianceStatusService complianceStatusService;
+
+    @Autowired
+    private ComplianceStatusRepository complianceStatusRepository;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private TrainingService trainingService;
+
+    @Autowired
+    private TrainingSessionService trainingSessionService;
+
+    private Training yearly;
+    private Training biennial;
+    private Training once;
+    private List<Employee> employees;
+
+    @BeforeEach
+    void seed() {
+        yearly = trainingService.save(new Training(null, 12, "Unterweisung", null));
+        biennial = trainingService.save(new Training(null, 24, "Erste Hilfe", null));
+        once = trainingService.save(new Training(null, null, "Einführung", null));
+
+        employees = new ArrayList<>();
+        for (int d = 0; d < 2; d++) {
+            Department department = departmentService.save(new Department(null, "Abteilung " + d, null));
+            for (int e = 0; e < 4; e++) {
+                Employee employee = new Employee();
+                employee.setName("Mitarbeiter " + d + "-" + e);
+                employee.setDepartment(department);
+                employee.getMandatoryTrainings().addAll(e % 2 == 0 ? Set.of(yearly, once) : Set.of(yearly, biennial));
+                employees.add(employeeService.save(employee));
+            }
+        }
+
+        saveSession(yearly, TODAY.minusMonths(14), employees.subList(0, 4));
+        saveSession(yearly, TODAY.minusMonths(3), employees.subList(2, 6));
+        saveSession(biennial, TODAY.minusMonths(20), employees);
+        saveSession(once, TODAY.minusYears(4), employees.subList(0, 2));
+    }
+
+    @Test
+    void testInitialState() {
+        assertConsistent();
+    }
+
+    @Test
+    void testSessionChanged() {
+        TrainingSession session = saveSession(yearly, TODAY.minusMonths(1), employees.subList(0, 3));
+        assertConsistent();
+
+        // Move the session and replace its participants; removed participants fall back to older sessions
+        session.setDate(TODAY.minusMonths(13));
+        session.setParticipants(Set.of(employees.get(6), employees.get(7)));
+        trainingSessionService.save(session);
+        assertConsistent();
+
+        session.setTraining(biennial);
+        trainingSessionService.save(session);
+        assertConsistent();
+    }
+
+    @Test
+    void testSessionDeleted() {
+        TrainingSession session = saveSession(biennial, TODAY.minusMonths(2), employees.subList(1, 5));
+        assertConsistent();
+
+        trainingSessionService.deleteById(session.getId());
+        assertConsistent();
+    }
+
+    @Test
+    void testMandatoryTrainingsChanged() {
+        Employee employee = employeeService.findById(employees.get(0).getId()).orElseThrow();
+        employee.setMandatoryTrainings(Set.of(biennial));
+        employeeService.save(employee);
+        assertConsistent();
+
+        employee.setMandatoryTrainings(Set.of(yearly, biennial, once));
+        employeeService.save(employee);
+        assertConsistent();
+    }
+
+    @Test
+    void testIntervalChanged() {
+        yearly.setInterval(6);
+        yearly = trainingService.save(yearly);
+        assertConsistent();
+
+        once.setInterval(36);
+        once = trainingService.save(once);
+        assertConsistent();
+
+        biennial.setInterval(null);
+        biennial = trainingService.save(biennial);
+        assertConsistent();
+    }
+
+    @Test
+    void testEmployeeDeleted() {
+        Employee employee = new Employee();
+        employee.setName("Aushilfe");
+        employee.getMandatoryTrainings().add(yearly);
+        employee = employeeService.save(employee);
+        assertConsistent();
+
+        employeeService.deleteById(employee.getId());
+        assertConsistent();
+    }
+
+    @Test
+    void testEmployeeMovedToOtherDepartment() {
+        Employee employee = employeeService.findById(employees.get(0).getId()).orElseThrow();
+        Long previousDepartmentId = employee.getDepartment().getId();
+        Department other = employees.get(7).getDepartment();
+        assertConsistent();
+
+        employee.setDepartment(other);
+        employeeService.save(employee);
+
+        assertConsistent();
+        assertFalse(complianceService.getDueTrainingsForDepartment(previousDepartmentId, TODAY)
+                .containsKey(employee.getId()));
+    }
+
+    @Test
+    void testDueDateAtEndOfMonth() {
+        Training monthly = trainingService.save(new Training(null, 1, "Monatlich", null));
+        Employee employee = employeeService.findById(employees.get(0).getId()).orElseThrow();
+        employee.setMandatoryTrainings(Set.of(monthly));
+        employeeService.save(employee);
+        saveSession(monthly, LocalDate.of(2024, 1, 31), List.of(employee));
+
+        Map<Training, LocalDate> dueTrainings = complianceService
+                .getDueTrainingsForDepartment(employee.getDepartment().getId(), LocalDate.of(2024, 3, 1))
+                .get(employee.getId());
+
+        assertEquals(LocalDate.of(2024, 2, 29), dueTrainings.get(monthly));
+    }
+
+    @Test
+    void testRebuildMatchesIncrementalUpdates() {
+        Set<List<Object>> incremental = snapshot();
+
+        complianceStatusService.rebuild();
+
+        assertEquals(incremental, snapshot());
+    }
+
+    private TrainingSession saveSession(Training training, LocalDate date, List<Employee> participants) {
+        TrainingSession session = new TrainingSession();
+        session.setTraining(training);
+        session.setDate(date);
+        session.getParticipants().addAll(participants);
+        return trainingSessionService.save(session);
+    }
+
+    private void assertConsistent() {
+        for (LocalDate targetDate : TARGET_DATES) {
+            Map<Long, Map<Training, LocalDate>> materialized = complianceService.getDueTrainings(targetDate);
+            for (Employee employee : employeeService.findAll()) {
+                Employee loaded = employeeService.findWithComplianceDataById(employee.getId()).orElseThrow();
+                Map<Training, LocalDate> expected = reportService.getDueTrainingsForEmployee(loaded, targetDate);
+                assertEquals(expected, materialized.getOrDefault(employee.getId(), Map.of()),
+                        "Due trainings of " + employee.getName() + " on " + targetDate);
+                if (employee.getDepartment() != null) {
+                    assertEquals(expected, complianceService
+                                    .getDueTrainingsForDepartment(employee.getDepartment().getId(), targetDate)
+                                    .getOrDefault(employee.getId(), Map.of()),
+                            "Department due trainings of " + employee.getName() + " on " + targetDate);
+                }
+            }
+        }
+    }
+
+    private Set<List<Object>> snapshot() {
+        return complianceStatusRepository.findAll().stream()
+                .map((ComplianceStatus status) -> List.<Object>of(status.getId(),
+                        String.valueOf(status.getLastAttended()), String.valueOf(status.getNextDue())))
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,42 @@
+package de.chritox.mimir.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CsvRowReaderTest {
+
+    @Test
+    void testRead_SemicolonWithQuotes() throws IOException {
+        List<String> rows = read("\uFEFFName;Abteilung\r\n"
+                + "\"Meier; Hans\";\"Lager \"\"Nord\"\"\"\r\n"
+                + "\r\n"
+                + "\"Zeile\nzwei\";\r\n"
+                + " Erika ;Lager\n");
+
+        assertEquals(List.of(
+                "1:[Name, Abteilung]",
+                "2:[Meier; Hans, Lager \"Nord\"]",
+                "4:[Zeile\nzwei, ]",
+                "6:[Erika, Lager]"), rows);
+    }
+
+    @Test
+    void testRead_CommaAndTab() throws IOException {
+        assertEquals(List.of("1:[Name, Datum]", "2:[Max, 2025-01-15]"), read("Name,Datum\nMax,2025-01-15\n"));
+        assertEquals(List.of("1:[Name, Datum]", "2:[Max, 15.01.2025]"), read("Name\tDatum\nMax\t15.01.2025"));
+    }
+
+    private static List<String> read(String content) throws IOException {
+        List<String> rows = new ArrayList<>();
+        new CsvRowReader().read(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)),
+                (rowNumber, cells) -> rows.add(rowNumber + ":" + cells));
+        return rows;
+    }
+}
@@ -0,0 +1,114 @@
+package de.chritox.mimir.services;
+
+import de.chritox.mimir.models.Employee;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:data-generator")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DataGeneratorServiceTest {
+
+    private static final DataGenerator.Settings SETTINGS =
+            new DataGenerator.Settings(4, 300, 10, 4, 3, 7L, LocalDate.of(2025, 6, 1));
+
+    @Autowired
+    private DataGeneratorService dataGeneratorService;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private ComplianceStatusService complianceStatusService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void generate() {
+        dataGeneratorService.generate(SETTINGS);
+    }
+
+    @Test
+    void testGeneratedRows() {
+        assertEquals(4, count("department"));
+        assertEquals(300, count("employee"));
+        assertEquals(10, count("training"));
+        assertEquals(10 * 3 * 12, count("training_session"));
+        assertEquals(300 * 4, count("mandatory_training"));
+        assertTrue(count("training_session_participants") > 300);
+        assertEquals(300 * 4, complianceStatusService.count());
+    }
+
+    @Test
+    void testSameSeedGeneratesSameRows() {
+        CountingSink first = new CountingSink();
+        CountingSink second = new CountingSink();
+        new DataGenerator(SETTINGS).generate(first);
+        new DataGenerator(SETTINGS).generate(second);
+
+        assertEquals(count("training_session_participants"), first.participants);
+        assertEquals(first.participants, second.participants);
+        assertEquals(first.checksum, second.checksum);
+    }
+
+    @Test
+    void testNewEntitiesContinueAfterGeneratedIds() {
+        Employee employee = new Employee();
+        employee.setName("Neu");
+
+        assertEquals(301L, employeeService.save(employee).getId());
+        employeeService.deleteById(301L);
+    }
+
+    @Test
+    void testRefusesNonEmptyDatabase() {
+        assertThrows(IllegalStateException.class, () -> dataGeneratorService.generate(SETTINGS));
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("select count(*) from " + table, Long.class);
+    }
+
+    private static class CountingSink implements DataGenerator.Sink {
+        private long participants;
+        private long checksum;
+
+        @Override
+        public void department(long id, String name) {
+        }
+
+        @Override
+        public void training(long id, String title, Integer interval) {
+            checksum = 31 * checksum + (interval != null ? interval : 0);
+        }
+
+        @Override
+        public void session(long id, long trainingId, LocalDate date) {
+            checksum = 31 * checksum + date.toEpochDay();
+        }
+
+        @Override
+        public void employee(long id, String name, long departmentId) {
+            checksum = 31 * checksum + departmentId;
+        }
+
+        @Override
+        public void mandatoryTraining(long employeeId, long trainingId) {
+            checksum = 31 * checksum + trainingId;
+        }
+
+        @Override
+        public void participant(long sessionId, long employeeId) {
+            participants++;
+            checksum = 31 * checksum + sessionId;
+        }
+    }
+}
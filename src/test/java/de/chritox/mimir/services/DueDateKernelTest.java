@@ -0,0 +1,89 @@
+package de.chritox.mimir.services;
+
+import de.chritox.mimir.models.Employee;
+import de.chritox.mimir.models.Training;
+import de.chritox.mimir.models.TrainingSession;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DueDateKernelTest {
+
+    private static final LocalDate TARGET_DATE = LocalDate.of(2025, 6, 1);
+
+    @Test
+    void testAddMonths_MatchesLocalDate() {
+        Random random = new Random(42);
+        int first = DueDateKernel.toEpochDay(LocalDate.of(1850, 1, 1));
+        int last = DueDateKernel.toEpochDay(LocalDate.of(2350, 1, 1));
+        for (int i = 0; i < 100_000; i++) {
+            int day = first + random.nextInt(last - first);
+            int months = random.nextInt(121);
+            assertEquals(LocalDate.ofEpochDay(day).plusMonths(months).toEpochDay(),
+                    DueDateKernel.addMonths(day, months), () -> LocalDate.ofEpochDay(day) + " plus " + months);
+        }
+    }
+
+    @Test
+    void testAddMonths_ClampsToEndOfMonth() {
+        assertEquals(LocalDate.of(2024, 2, 29), add(LocalDate.of(2024, 1, 31), 1));
+        assertEquals(LocalDate.of(2025, 2, 28), add(LocalDate.of(2024, 2, 29), 12));
+        // Last month of the table, and beyond it
+        assertEquals(LocalDate.of(2299, 12, 30), add(LocalDate.of(2299, 11, 30), 1));
+        assertEquals(LocalDate.of(2300, 1, 31), add(LocalDate.of(2299, 12, 31), 1));
+    }
+
+    @Test
+    void testDueDate() {
+        int target = DueDateKernel.toEpochDay(TARGET_DATE);
+        int lastAttended = DueDateKernel.toEpochDay(TARGET_DATE.minusMonths(12));
+
+        assertEquals(target, DueDateKernel.dueDate(DueDateKernel.NEVER_ATTENDED, DueDateKernel.NO_INTERVAL, target));
+        assertEquals(DueDateKernel.NOT_DUE, DueDateKernel.dueDate(lastAttended, DueDateKernel.NO_INTERVAL, target));
+        assertEquals(target, DueDateKernel.dueDate(lastAttended, 12, target));
+        assertEquals(DueDateKernel.NOT_DUE, DueDateKernel.dueDate(lastAttended, 13, target));
+    }
+
+    @Test
+    void testComputeDueTrainings_ReusesBuffer() {
+        Training yearly = new Training(1L, 12, "Unterweisung", null);
+        Training once = new Training(2L, null, "Einführung", null);
+        Employee employee = new Employee();
+        employee.setMandatoryTrainings(Set.of(yearly, once));
+        employee.setAttendedSessions(Set.of(session(yearly, TARGET_DATE.minusMonths(18)),
+                session(yearly, TARGET_DATE.minusMonths(13)), session(once, TARGET_DATE.minusYears(5))));
+        DueDateKernel.Buffer buffer = new DueDateKernel.Buffer();
+
+        assertEquals(1, DueDateKernel.computeDueTrainings(employee, DueDateKernel.toEpochDay(TARGET_DATE), buffer));
+        assertEquals(2, buffer.size());
+        int yearlyIndex = buffer.training(0) == yearly ? 0 : 1;
+        assertTrue(buffer.isDue(yearlyIndex));
+        assertEquals(TARGET_DATE.minusMonths(1), LocalDate.ofEpochDay(buffer.dueDate(yearlyIndex)));
+        assertEquals(TARGET_DATE.minusMonths(13), LocalDate.ofEpochDay(buffer.lastAttended(yearlyIndex)));
+        assertFalse(buffer.isDue(1 - yearlyIndex));
+
+        Employee newcomer = new Employee();
+        newcomer.setMandatoryTrainings(Set.of(once));
+
+        assertEquals(1, DueDateKernel.computeDueTrainings(newcomer, DueDateKernel.toEpochDay(TARGET_DATE), buffer));
+        assertEquals(1, buffer.size());
+        assertEquals(once, buffer.training(0));
+        assertEquals(DueDateKernel.NEVER_ATTENDED, buffer.lastAttended(0));
+        assertEquals(TARGET_DATE, LocalDate.ofEpochDay(buffer.dueDate(0)));
+    }
+
+    private static LocalDate add(LocalDate date, int months) {
+        return LocalDate.ofEpochDay(DueDateKernel.addMonths(DueDateKernel.toEpochDay(date), months));
+    }
+
+    private static TrainingSession session(Training training, LocalDate date) {
+        TrainingSession session = new TrainingSession();
+        session.setTraining(training);
+        session.setDate(date);
+        return session;
+    }
+}
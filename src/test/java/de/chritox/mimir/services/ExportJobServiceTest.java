@@ -0,0 +1,193 @@
+package de.chritox.mimir.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExportJobServiceTest {
+
+    private static final LocalDate TARGET_DATE = LocalDate.of(2025, 6, 1);
+    private static final byte[] WORKBOOK = {1, 2, 3, 4, 5};
+
+    @Mock
+    private ReportService reportService;
+
+    private ExecutorService exportExecutor;
+
+    private ExportJobService exportJobService;
+
+    @BeforeEach
+    void setUp() {
+        exportExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+        exportJobService = new ExportJobService(reportService, exportExecutor, Duration.ofMinutes(1),
+                Duration.ofMinutes(30));
+    }
+
+    @AfterEach
+    void tearDown() {
+        exportExecutor.shutdownNow();
+        exportJobService.deleteFiles();
+    }
+
+    @Test
+    void testEnqueue_WritesWorkbookToFileAndReportsProgress() throws Exception {
+        doAnswer(invocation -> {
+            ExportProgress progress = invocation.getArgument(3);
+            progress.started(2);
+            for (int i = 0; i < 3; i++) {
+                progress.rowWritten();
+            }
+            progress.departmentWritten();
+            progress.departmentWritten();
+            invocation.<OutputStream>getArgument(2).write(WORKBOOK);
+            return null;
+        }).when(reportService).writeDepartmentTrainingReport(eq(TARGET_DATE), isNull(), any(), any());
+
+        ExportJob job = exportJobService.enqueue(TARGET_DATE, null);
+        List<ExportJob.Status> events = awaitFinished(job);
+
+        ExportJob.Status status = job.getStatus();
+        assertEquals(ExportJob.State.DONE, status.state());
+        assertEquals(2, status.departmentsDone());
+        assertEquals(2, status.departmentsTotal());
+        assertEquals(3, status.rows());
+        assertArrayEquals(WORKBOOK, Files.readAllBytes(job.getFile()));
+        assertEquals(ExportJob.State.DONE, events.get(events.size() - 1).state());
+        assertEquals(job, exportJobService.findById(job.getId()).orElseThrow());
+    }
+
+    @Test
+    void testEnqueue_IdenticalRequestsShareJob() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await();
+            return null;
+        }).when(reportService).writeDepartmentTrainingReport(any(), any(), any(), any());
+
+        ExportJob first = exportJobService.enqueue(TARGET_DATE, 1L);
+        ExportJob second = exportJobService.enqueue(TARGET_DATE, 1L);
+        ExportJob otherDepartment = exportJobService.enqueue(TARGET_DATE, 2L);
+        release.countDown();
+        awaitFinished(first);
+
+        assertSame(first, second);
+        assertNotSame(first, otherDepartment);
+        // Finished jobs are reused within the dedupe window
+        assertSame(first, exportJobService.enqueue(TARGET_DATE, 1L));
+        verify(reportService, times(1)).writeDepartmentTrainingReport(eq(TARGET_DATE), eq(1L), any(), any());
+    }
+
+    @Test
+    void testEnqueue_StartsNewJobAfterDedupeWindow() throws Exception {
+        exportJobService = new ExportJobService(reportService, exportExecutor, Duration.ZERO, Duration.ofMinutes(30));
+
+        ExportJob first = exportJobService.enqueue(TARGET_DATE, null);
+        awaitFinished(first);
+        ExportJob second = exportJobService.enqueue(TARGET_DATE, null);
+        awaitFinished(second);
+
+        assertNotSame(first, second);
+        assertTrue(exportJobService.findById(first.getId()).isPresent());
+    }
+
+    @Test
+    void testEnqueue_FailedJobIsNotReused() throws Exception {
+        doThrow(new IllegalArgumentException("Invalid department Id: 9"))
+                .when(reportService).writeDepartmentTrainingReport(any(), any(), any(), any());
+
+        ExportJob job = exportJobService.enqueue(TARGET_DATE, 9L);
+        awaitFinished(job);
+
+        assertEquals(ExportJob.State.FAILED, job.getStatus().state());
+        assertEquals("Invalid department Id: 9", job.getStatus().error());
+        assertNull(job.getFile());
+        assertNotSame(job, exportJobService.enqueue(TARGET_DATE, 9L));
+    }
+
+    @Test
+    void testDiscardExpired_RemovesExpiredJobsAndFiles() throws Exception {
+        exportJobService = new ExportJobService(reportService, exportExecutor, Duration.ZERO, Duration.ZERO);
+
+        ExportJob job = exportJobService.enqueue(TARGET_DATE, null);
+        awaitFinished(job);
+        Path file = job.getFile();
+        Thread.sleep(5);
+        exportJobService.discardExpired();
+
+        assertTrue(exportJobService.findById(job.getId()).isEmpty());
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void testDownload_UnavailableOnceDiscarded() throws Exception {
+        exportJobService = new ExportJobService(reportService, exportExecutor, Duration.ZERO, Duration.ZERO);
+
+        ExportJob job = exportJobService.enqueue(TARGET_DATE, null);
+        awaitFinished(job);
+        assertEquals(Optional.of(job.getFile()), exportJobService.download(job));
+        assertNotNull(job.getDownloadedAt());
+        Thread.sleep(5);
+        exportJobService.discardExpired();
+
+        assertEquals(Optional.empty(), exportJobService.download(job));
+    }
+
+    @Test
+    void testEnqueue_RejectsJobsBeyondQueueCapacity() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            running.countDown();
+            release.await();
+            return null;
+        }).when(reportService).writeDepartmentTrainingReport(any(), any(), any(), any());
+
+        exportJobService.enqueue(TARGET_DATE, 1L);
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        exportJobService.enqueue(TARGET_DATE, 2L);
+
+        assertThrows(RejectedExecutionException.class, () -> exportJobService.enqueue(TARGET_DATE, 3L));
+        release.countDown();
+    }
+
+    private static List<ExportJob.Status> awaitFinished(ExportJob job) throws InterruptedException, IOException {
+        List<ExportJob.Status> events = new ArrayList<>();
+        CountDownLatch finished = new CountDownLatch(1);
+        job.subscribe(status -> {
+            synchronized (events) {
+                events.add(status);
+            }
+            if (status.state() == ExportJob.State.DONE || status.state() == ExportJob.State.FAILED) {
+                finished.countDown();
+            }
+        });
+        assertTrue(finished.await(5, TimeUnit.SECONDS), "Export did not finish");
+        return events;
+    }
+}
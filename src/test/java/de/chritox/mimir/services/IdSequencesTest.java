@@ -0,0 +1,71 @@
+package de.chritox.mimir.services;
+
+import de.chritox.mimir.models.Department;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:idsequences")
+class IdSequencesTest {
+
+    @Autowired
+    private IdSequences idSequences;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        departmentService.findAll().forEach(department -> departmentService.deleteById(department.getId()));
+    }
+
+    @Test
+    void testRestartAfterExistingIds_ContinuesAfterRowsWithoutSequence() {
+        // Like a database whose ids were assigned by identity columns
+        jdbcTemplate.update("insert into department (id, name) values (1000, 'Lager')");
+
+        idSequences.restartAfterExistingIds();
+
+        assertTrue(idSequences.allocate(IdSequences.DEPARTMENT, 1).get(0) > 1000);
+    }
+
+    @Test
+    void testHighestTakenId_CoversBlockHeldByHibernate() {
+        Department deleted = departmentService.save(new Department(null, "Lager", null));
+        departmentService.deleteById(deleted.getId());
+
+        long highestTakenId = idSequences.highestTakenId(IdSequences.DEPARTMENT);
+        Department saved = departmentService.save(new Department(null, "Vertrieb", null));
+
+        assertTrue(saved.getId() <= highestTakenId);
+    }
+
+    @Test
+    void testRestartAfterExistingIds_NeverMovesBack() {
+        List<Long> before = idSequences.allocate(IdSequences.DEPARTMENT, 1);
+
+        idSequences.restartAfterExistingIds();
+        List<Long> after = idSequences.allocate(IdSequences.DEPARTMENT, 1);
+
+        assertTrue(after.get(0) > before.get(0));
+    }
+
+    @Test
+    void testAllocate_ReservesIdsHibernateDoesNotAssign() {
+        List<Long> ids = idSequences.allocate(IdSequences.DEPARTMENT, 120);
+        Department saved = departmentService.save(new Department(null, "Vertrieb", null));
+
+        assertEquals(120, new HashSet<>(ids).size());
+        assertFalse(ids.contains(saved.getId()));
+    }
+}
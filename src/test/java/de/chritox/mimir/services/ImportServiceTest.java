@@ -0,0 +1,255 @@
+package de.chritox.mimir.services;
+
+import de.chritox.mimir.models.ComplianceStatus;
+import de.chritox.mimir.models.Department;
+import de.chritox.mimir.models.Employee;
+import de.chritox.mimir.models.Training;
+import de.chritox.mimir.models.TrainingSession;
+import de.chritox.mimir.repositories.ComplianceStatusRepository;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Imports run with a batch size of two, so every file is written in several batches.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:import",
+        "mimir.import.batch-size=2"
+})
+class ImportServiceTest {
+
+    @Autowired
+    private ImportService importService;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private TrainingService trainingService;
+
+    @Autowired
+    private TrainingSessionService trainingSessionService;
+
+    @Autowired
+    private ComplianceService complianceService;
+
+    @Autowired
+    private ComplianceStatusService complianceStatusService;
+
+    @Autowired
+    private ComplianceStatusRepository complianceStatusRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Department warehouse;
+    private Training yearly;
+    private Training once;
+
+    @BeforeEach
+    void setUp() {
+        for (String table : List.of("compliance_status", "training_session_participants", "mandatory_training",
+                "training_session", "employee")) {
+            jdbcTemplate.update("delete from " + table);
+        }
+        trainingService.findAll().forEach(training -> trainingService.deleteById(training.getId()));
+        departmentService.findAll().forEach(department -> departmentService.deleteById(department.getId()));
+
+        warehouse = departmentService.save(new Department(null, "Lager", null));
+        yearly = trainingService.save(new Training(null, 12, "Unterweisung", null));
+        once = trainingService.save(new Training(null, null, "Einführung", null));
+    }
+
+    @Test
+    void testImportEmployees_Csv() throws IOException {
+        Employee existing = new Employee();
+        existing.setName("Erika Musterfrau");
+        employeeService.save(existing);
+        assertTrue(complianceService.getDueTrainingsForDepartment(warehouse.getId(), LocalDate.now()).isEmpty());
+
+        ImportResult result = importService.importEmployees("mitarbeiter.csv", csv("""
+                Name;Abteilung;Pflichtschulungen
+                Max Mustermann;Lager;Unterweisung, Einführung
+                "Meier; Hans";lager;
+                Erika Musterfrau;Lager;Unterweisung
+                Anna Schmidt;Vertrieb;Unterweisung
+                Paul Weber;;Brandschutz
+
+                Lena Koch;;unterweisung
+                """));
+
+        assertEquals(6, result.rows());
+        assertEquals(3, result.imported());
+        assertEquals(1, result.skipped());
+        assertEquals(2, result.failed());
+        assertEquals(List.of(new ImportResult.RowError(5, "Unbekannte Abteilung: Vertrieb"),
+                new ImportResult.RowError(6, "Unbekannte Schulung: Brandschutz")), result.errors());
+
+        Employee max = findEmployee("Max Mustermann");
+        assertEquals(warehouse.getId(), max.getDepartment().getId());
+        assertEquals(2, max.getMandatoryTrainings().size());
+        assertEquals(warehouse.getId(), findEmployee("Meier; Hans").getDepartment().getId());
+        assertNull(findEmployee("Lena Koch").getDepartment());
+        assertEquals(4, employeeService.findAll().size());
+
+        // Never attended, so due immediately
+        assertEquals(3, complianceService.getDueTrainings(LocalDate.now()).values().stream()
+                .mapToInt(Map::size)
+                .sum());
+        // The cached result of the department was evicted
+        assertEquals(2, complianceService.getDueTrainingsForDepartment(warehouse.getId(), LocalDate.now())
+                .get(max.getId()).size());
+    }
+
+    @Test
+    void testImportAttendances_Xlsx() throws IOException {
+        Employee max = saveEmployee("Max Mustermann");
+        Employee erika = saveEmployee("Erika Musterfrau");
+        saveEmployee("Hans Meier");
+        saveEmployee("Hans Meier");
+        TrainingSession session = new TrainingSession();
+        session.setTraining(yearly);
+        session.setDate(LocalDate.of(2025, 3, 10));
+        session.getParticipants().add(max);
+        session = trainingSessionService.save(session);
+
+        ImportResult result = importService.importAttendances("teilnahmen.xlsx", xlsx(
+                new Object[]{"Mitarbeiter", "Schulung", "Datum"},
+                new Object[]{"Max Mustermann", "Unterweisung", LocalDate.of(2025, 3, 10)},
+                new Object[]{"Erika Musterfrau", "Unterweisung", LocalDate.of(2025, 3, 10)},
+                new Object[]{"Erika Musterfrau", "Einführung", "12.05.2025"},
+                new Object[]{"Max Mustermann", "Einführung", LocalDate.of(2025, 5, 12)},
+                new Object[]{"max mustermann", "einführung", "2025-05-12"},
+                new Object[]{"Hans Meier", "Unterweisung", LocalDate.of(2025, 3, 10)},
+                new Object[]{"Paul Weber", "Unterweisung", LocalDate.of(2025, 3, 10)},
+                new Object[]{"Erika Musterfrau", "Unterweisung", "März"},
+                new Object[]{"Erika Musterfrau", "Unterweisung", LocalDate.of(2024, 3, 1)}));
+
+        assertEquals(9, result.rows());
+        assertEquals(4, result.imported());
+        assertEquals(2, result.skipped());
+        assertEquals(3, result.failed());
+        assertEquals(List.of(new ImportResult.RowError(7, "Der Mitarbeitername ist nicht eindeutig: Hans Meier"),
+                new ImportResult.RowError(8, "Unbekannter Mitarbeiter: Paul Weber"),
+                new ImportResult.RowError(9, "Ungültiges Datum: März")), result.errors());
+
+        // The existing session is reused, one session is created per other training and date
+        List<TrainingSession> sessions = trainingSessionService.findAll();
+        assertEquals(3, sessions.size());
+        assertEquals(2, participantCount(session.getId()));
+        TrainingSession created = sessions.stream()
+                .filter(s -> s.getTraining().getId().equals(once.getId()))
+                .findFirst().orElseThrow();
+        assertEquals(LocalDate.of(2025, 5, 12), created.getDate());
+        assertEquals(2, participantCount(created.getId()));
+
+        ComplianceStatus status = complianceStatusRepository
+                .findById(new ComplianceStatus.Key(erika.getId(), yearly.getId())).orElseThrow();
+        assertEquals(LocalDate.of(2025, 3, 10), status.getLastAttended());
+        assertEquals(LocalDate.of(2026, 3, 10), status.getNextDue());
+
+        // The rows updated by the import match recomputed ones
+        Set<Map<String, Object>> imported = complianceRows();
+        complianceStatusService.rebuild();
+        assertEquals(complianceRows(), imported);
+    }
+
+    @Test
+    void testImport_MissingColumn() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> importService.importAttendances("teilnahmen.csv", csv("""
+                        Mitarbeiter;Schulung
+                        Max Mustermann;Unterweisung
+                        """)));
+        assertEquals("Die Spalte 'Datum' fehlt", e.getMessage());
+    }
+
+    @Test
+    void testImport_UnsupportedFileType() {
+        assertThrows(IllegalArgumentException.class,
+                () -> importService.importEmployees("mitarbeiter.txt", csv("Name\nMax\n")));
+    }
+
+    private Employee saveEmployee(String name) {
+        Employee employee = new Employee();
+        employee.setName(name);
+        employee.setDepartment(warehouse);
+        employee.getMandatoryTrainings().add(yearly);
+        employee.getMandatoryTrainings().add(once);
+        return employeeService.save(employee);
+    }
+
+    private Employee findEmployee(String name) {
+        return transactionTemplate.execute(status -> {
+            Employee employee = employeeService.findAll().stream()
+                    .filter(e -> e.getName().equals(name))
+                    .findFirst().orElseThrow();
+            employee.getMandatoryTrainings().size();
+            return employee;
+        });
+    }
+
+    private Set<Map<String, Object>> complianceRows() {
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "select employee_id, training_id, last_attended, next_due from compliance_status"));
+    }
+
+    private int participantCount(Long sessionId) {
+        Integer count = jdbcTemplate.queryForObject(
+                "select count(*) from training_session_participants where session_id = ?", Integer.class, sessionId);
+        return count != null ? count : 0;
+    }
+
+    private static InputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static InputStream xlsx(Object[]... rows) throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            XSSFSheet sheet = workbook.createSheet();
+            XSSFCellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.createDataFormat().getFormat("dd.mm.yyyy"));
+            for (int r = 0; r < rows.length; r++) {
+                Row row = sheet.createRow(r);
+                for (int c = 0; c < rows[r].length; c++) {
+                    if (rows[r][c] instanceof LocalDate date) {
+                        row.createCell(c).setCellValue(date);
+                        row.getCell(c).setCellStyle(dateStyle);
+                    } else {
+                        row.createCell(c).setCellValue((String) rows[r][c]);
+                    }
+                }
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            workbook.write(out);
+            return new ByteArrayInputStream(out.toByteArray());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package de.chritox.mimir.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongIntHashMapTest {
+
+    @Test
+    void testPutGetRemove() {
+        LongIntHashMap map = new LongIntHashMap();
+        map.put(1L, 10);
+        map.put(2L, 20);
+        map.put(1L, 11);
+
+        assertEquals(11, map.get(1L));
+        assertEquals(20, map.get(2L));
+        assertEquals(LongIntHashMap.MISSING, map.get(3L));
+        assertEquals(2, map.size());
+
+        map.remove(1L);
+        map.remove(3L);
+        assertEquals(LongIntHashMap.MISSING, map.get(1L));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void testKeyZeroIsRejected() {
+        LongIntHashMap map = new LongIntHashMap();
+
+        assertThrows(IllegalArgumentException.class, () -> map.put(0L, 1));
+        assertEquals(LongIntHashMap.MISSING, map.get(0L));
+    }
+
+    @Test
+    void testMatchesHashMap() {
+        // Few distinct keys, so removals often shift entries of colliding keys
+        Random random = new Random(42);
+        LongIntHashMap map = new LongIntHashMap();
+        Map<Long, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 100_000; i++) {
+            long key = 1 + random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                map.remove(key);
+                expected.remove(key);
+            } else {
+                map.put(key, i);
+                expected.put(key, i);
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (long key = 1; key <= 2_000; key++) {
+            assertEquals(expected.getOrDefault(key, LongIntHashMap.MISSING), map.get(key), "Key " + key);
+        }
+    }
+
+    @Test
+    void testClear() {
+        LongIntHashMap map = new LongIntHashMap();
+        for (long key = 1; key <= 100; key++) {
+            map.put(key, (int) key);
+        }
+
+        map.clear();
+
+        assertEquals(0, map.size());
+        assertEquals(LongIntHashMap.MISSING, map.get(50L));
+    }
+}
@@ -0,0 +1,118 @@
+package de.chritox.mimir.services;
+
+import de.chritox.mimir.models.Department;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.ConfigurableTransactionManager;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that every query method of the services runs in exactly one read-only transaction, so Hibernate
+ * neither keeps snapshots of the loaded entities nor flushes, while the write methods still commit their changes.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:read-only-transactions",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReadOnlyTransactionTest {
+
+    private static final LocalDate TARGET_DATE = LocalDate.of(2026, 1, 1);
+
+    @Autowired
+    private ConfigurableTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private TrainingService trainingService;
+
+    @Autowired
+    private TrainingSessionService trainingSessionService;
+
+    @Autowired
+    private ComplianceService complianceService;
+
+    private final List<Boolean> readOnlyFlags = new CopyOnWriteArrayList<>();
+    private final TransactionExecutionListener listener = new TransactionExecutionListener() {
+        @Override
+        public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+            readOnlyFlags.add(transaction.isReadOnly());
+        }
+    };
+
+    private Statistics statistics;
+    private Long departmentId;
+
+    @BeforeAll
+    void generate(@Autowired DataGeneratorService dataGeneratorService) {
+        dataGeneratorService.generate(new DataGenerator.Settings(2, 50, 5, 3, 2, 7L, LocalDate.of(2025, 6, 1)));
+        departmentId = departmentService.findAll().get(0).getId();
+    }
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        readOnlyFlags.clear();
+        transactionManager.addListener(listener);
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionManager.getTransactionExecutionListeners().remove(listener);
+    }
+
+    @Test
+    void testQueriesRunInOneReadOnlyTransactionPerCall() {
+        departmentService.findAll();
+        trainingService.findAll();
+        employeeService.findByDepartmentId(departmentId);
+        employeeService.findRowsByDepartmentId(departmentId);
+        employeeService.findPage(null, null, PageRequest.of(0, 10, Sort.by("name", "id")));
+        employeeService.findWindow(null, null, Sort.by("name", "id"), ScrollPosition.keyset(), 10);
+        trainingSessionService.findPage(null, null, null, null, PageRequest.of(0, 10, Sort.by("date", "id")));
+        trainingSessionService.findUpcoming();
+        complianceService.getDueTrainings(TARGET_DATE);
+        complianceService.getDueTrainingDetailsForDepartment(departmentId, TARGET_DATE);
+
+        assertEquals(10, readOnlyFlags.size());
+        assertTrue(readOnlyFlags.stream().allMatch(Boolean::booleanValue), () -> "Read-only flags: " + readOnlyFlags);
+        // No query ran outside of these transactions, and none of them flushed
+        assertEquals(10, statistics.getSessionOpenCount());
+        assertEquals(0, statistics.getFlushCount());
+    }
+
+    @Test
+    void testWritesRunInReadWriteTransaction() {
+        Department saved = departmentService.save(new Department(null, "Einkauf", null));
+
+        assertEquals(List.of(false), readOnlyFlags);
+        assertEquals("Einkauf", departmentService.findById(saved.getId()).orElseThrow().getName());
+    }
+}
@@ -0,0 +1,83 @@
+package de.chritox.mimir.services;
+
+import de.chritox.mimir.models.Department;
+import de.chritox.mimir.models.Training;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Trainings and departments are served from Hibernate's second-level and query cache until they are written.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:reference-data-cache")
+class ReferenceDataCacheTest {
+
+    @Autowired
+    private TrainingService trainingService;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Training training;
+
+    @BeforeEach
+    void setUp() {
+        training = trainingService.save(new Training(null, 12, "Unterweisung", null));
+        departmentService.save(new Department(null, "Lager", null));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void testFindAll_ServedFromQueryCache() {
+        trainingService.findAll();
+        departmentService.findAll();
+        statistics.clear();
+
+        List<Training> trainings = trainingService.findAll();
+        departmentService.findAll();
+
+        assertTrue(trainings.stream().anyMatch(t -> t.getId().equals(training.getId())));
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void testFindById_ServedFromSecondLevelCache() {
+        trainingService.findById(training.getId());
+        statistics.clear();
+
+        assertEquals("Unterweisung", trainingService.findById(training.getId()).orElseThrow().getTitle());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getDomainDataRegionStatistics("training").getHitCount());
+    }
+
+    @Test
+    void testWritesInvalidateCachedResults() {
+        trainingService.findAll();
+        trainingService.findById(training.getId());
+
+        training.setTitle("Jährliche Unterweisung");
+        trainingService.save(training);
+        Training added = trainingService.save(new Training(null, null, "Einführung", null));
+
+        List<Training> trainings = trainingService.findAll();
+        assertTrue(trainings.contains(added));
+        assertEquals("Jährliche Unterweisung", trainingService.findById(training.getId()).orElseThrow().getTitle());
+
+        trainingService.deleteById(added.getId());
+        assertFalse(trainingService.findAll().contains(added));
+        assertTrue(trainingService.findById(added.getId()).isEmpty());
+    }
+}
@@ -4,16 +4,29 @@ import de.chritox.mimir.models.Department;
 import de.chritox.mimir.models.Employee;
 import de.chritox.mimir.models.Training;
 import de.chritox.mimir.models.TrainingSession;
+import de.chritox.mimir.repositories.EmployeeSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.*;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -30,7 +43,13 @@ class ReportServiceTest {
     @Mock
     private TrainingSessionService trainingSessionService;
 
-    @InjectMocks
+    @Mock
+    private ComplianceService complianceService;
+
+    private ExecutorService reportExecutor;
+
+    private SimpleMeterRegistry meterRegistry;
+
     private ReportService reportService;
 
     private Training testTraining;
@@ -40,6 +59,11 @@ class ReportServiceTest {
 
     @BeforeEach
     void setUp() {
+        reportExecutor = Executors.newFixedThreadPool(4);
+        meterRegistry = new SimpleMeterRegistry();
+        reportService = new ReportService(departmentService, employeeService, trainingSessionService,
+                complianceService, reportExecutor, new ReportMetrics(meterRegistry));
+
         testDepartment = new Department();
         testDepartment.setId(1L);
         testDepartment.setName("IT");
@@ -65,6 +89,11 @@ class ReportServiceTest {
         testSession.setParticipants(new HashSet<>());
     }
 
+    @AfterEach
+    void tearDown() {
+        reportExecutor.shutdownNow();
+    }
+
     @Test
     void testGetDueTrainingsForEmployee_NeverAttended() {
         LocalDate targetDate = LocalDate.now();
@@ -202,4 +231,207 @@ class ReportServiceTest {
         assertTrue(excelData.length > 0);
         verify(departmentService, times(1)).findAll();
     }
+
+    @Test
+    void testGenerateDepartmentTrainingReport_KeepsDepartmentOrder() throws IOException {
+        List<Department> departments = new ArrayList<>();
+        for (long id = 1; id <= 8; id++) {
+            departments.add(new Department(id, "Abteilung " + id, null));
+        }
+        when(departmentService.findAll()).thenReturn(departments);
+        // The first departments finish last
+        when(employeeService.findByDepartmentId(anyLong())).thenAnswer(invocation -> {
+            long id = invocation.getArgument(0);
+            Thread.sleep((9 - id) * 20);
+            return List.of(testEmployee);
+        });
+
+        byte[] excelData = reportService.generateDepartmentTrainingReport(LocalDate.now());
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(excelData))) {
+            assertEquals(8, workbook.getNumberOfSheets());
+            for (int i = 0; i < 8; i++) {
+                assertEquals("Abteilung " + (i + 1), workbook.getSheetName(i));
+            }
+        }
+    }
+
+    @Test
+    void testGenerateDepartmentTrainingReport_PropagatesDepartmentFailure() {
+        when(departmentService.findAll()).thenReturn(List.of(testDepartment));
+        when(employeeService.findByDepartmentId(1L)).thenThrow(new IllegalStateException("database down"));
+
+        CompletionException exception = assertThrows(CompletionException.class,
+                () -> reportService.generateDepartmentTrainingReport(LocalDate.now()));
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+        assertEquals(1, meterRegistry.get("mimir.report.export").tag("outcome", "error").timer().count());
+    }
+
+    @Test
+    void testGenerateDepartmentTrainingReport_RecordsMetrics() throws IOException {
+        when(departmentService.findAll()).thenReturn(List.of(testDepartment));
+        when(employeeService.findByDepartmentId(1L)).thenReturn(List.of(testEmployee));
+
+        byte[] excelData = reportService.generateDepartmentTrainingReport(LocalDate.now());
+
+        assertEquals(1, meterRegistry.get("mimir.report.export").tags("mode", "in-memory", "outcome", "success")
+                .timer().count());
+        assertEquals(excelData.length, meterRegistry.get("mimir.report.export.size").summary().totalAmount());
+        assertEquals(1, meterRegistry.get("mimir.report.export.sheets").counter().count());
+        assertEquals(1, meterRegistry.get("mimir.report.export.rows").counter().count());
+    }
+
+    @Test
+    void testGenerateDueTimelineReport() throws IOException {
+        LocalDate startDate = LocalDate.of(2025, 11, 3);
+        when(complianceService.getDueTimeline(startDate, 3)).thenReturn(new DueTimeline(startDate,
+                List.of(YearMonth.of(2025, 11), YearMonth.of(2025, 12), YearMonth.of(2026, 1)),
+                List.of(new DueTimeline.Entry(1L, "IT", 1L, "Erste Hilfe", 2, List.of(0, 1, 3)),
+                        new DueTimeline.Entry(null, null, 1L, "Erste Hilfe", 0, List.of(1, 0, 0)))));
+
+        byte[] excelData = reportService.generateDueTimelineReport(startDate, 3);
+
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(excelData))) {
+            Sheet sheet = workbook.getSheet("Fälligkeiten");
+            Row header = sheet.getRow(3);
+            assertEquals("Überfällig", header.getCell(2).getStringCellValue());
+            assertEquals("11/2025", header.getCell(3).getStringCellValue());
+            assertEquals("01/2026", header.getCell(5).getStringCellValue());
+            assertEquals("Gesamt", header.getCell(6).getStringCellValue());
+            assertEquals("IT", sheet.getRow(4).getCell(0).getStringCellValue());
+            assertEquals(2, sheet.getRow(4).getCell(2).getNumericCellValue());
+            assertEquals(3, sheet.getRow(4).getCell(5).getNumericCellValue());
+            assertEquals(6, sheet.getRow(4).getCell(6).getNumericCellValue());
+            assertEquals("Ohne Abteilung", sheet.getRow(5).getCell(0).getStringCellValue());
+        }
+    }
+
+    @Test
+    void testWriteDepartmentTrainingReport_StreamsRows() throws IOException {
+        LocalDate targetDate = LocalDate.now();
+        LocalDate lastAttended = targetDate.minusMonths(25);
+        EmployeeSummary employee2 = employeeSummary(2L, "Anna Schmidt");
+
+        when(departmentService.findAll()).thenReturn(List.of(testDepartment));
+        when(employeeService.countByDepartmentId(1L)).thenReturn(2L);
+        when(employeeService.streamByDepartmentId(1L))
+                .thenReturn(Stream.of(employeeSummary(1L, "Max Mustermann"), employee2));
+        when(complianceService.getDueTrainingDetailsForDepartment(1L, targetDate))
+                .thenReturn(Map.of(1L, List.of(new ComplianceService.DueTraining(
+                        testTraining, lastAttended, lastAttended.plusMonths(24)))));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        reportService.writeDepartmentTrainingReport(targetDate, outputStream);
+
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            assertEquals(1, workbook.getNumberOfSheets());
+            Sheet sheet = workbook.getSheet("IT");
+            assertEquals(2, sheet.getRow(2).getCell(1).getNumericCellValue());
+            assertEquals("Max Mustermann", sheet.getRow(5).getCell(0).getStringCellValue());
+            assertEquals("Erste Hilfe", sheet.getRow(5).getCell(1).getStringCellValue());
+            assertEquals("Überfällig", sheet.getRow(5).getCell(4).getStringCellValue());
+            assertEquals("Anna Schmidt", sheet.getRow(6).getCell(0).getStringCellValue());
+            assertEquals("Aktuell", sheet.getRow(6).getCell(4).getStringCellValue());
+        }
+        verify(employeeService, never()).findByDepartmentId(any());
+        assertEquals(outputStream.size(), meterRegistry.get("mimir.report.export.size").tag("mode", "streaming")
+                .summary().totalAmount());
+        assertEquals(2, meterRegistry.get("mimir.report.export.rows").tag("mode", "streaming").counter().count());
+    }
+
+    @Test
+    void testWriteDepartmentTrainingReport_SingleDepartmentReportsProgress() throws IOException {
+        LocalDate targetDate = LocalDate.now();
+        when(departmentService.findById(1L)).thenReturn(Optional.of(testDepartment));
+        when(employeeService.countByDepartmentId(1L)).thenReturn(2L);
+        when(employeeService.streamByDepartmentId(1L))
+                .thenReturn(Stream.of(employeeSummary(1L, "Max Mustermann"), employeeSummary(2L, "Anna Schmidt")));
+        when(complianceService.getDueTrainingDetailsForDepartment(1L, targetDate)).thenReturn(Map.of());
+        List<String> progress = new ArrayList<>();
+
+        reportService.writeDepartmentTrainingReport(targetDate, 1L, new ByteArrayOutputStream(), new ExportProgress() {
+            @Override
+            public void started(int departments) {
+                progress.add("started " + departments);
+            }
+
+            @Override
+            public void rowWritten() {
+                progress.add("row");
+            }
+
+            @Override
+            public void departmentWritten() {
+                progress.add("department");
+            }
+        });
+
+        assertEquals(List.of("started 1", "row", "row", "department"), progress);
+        verify(departmentService, never()).findAll();
+    }
+
+    @Test
+    void testWriteDepartmentTrainingReport_UnknownDepartment() {
+        when(departmentService.findById(9L)).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> reportService.writeDepartmentTrainingReport(
+                LocalDate.now(), 9L, new ByteArrayOutputStream(), ExportProgress.NONE));
+    }
+
+    @Test
+    void testGenerateDepartmentTrainingReport_SharesStylesAcrossSheets() throws IOException {
+        LocalDate targetDate = LocalDate.now();
+        List<Department> departments = new ArrayList<>();
+        for (long id = 1; id <= 50; id++) {
+            Department department = new Department(id, "Abteilung " + id, null);
+            departments.add(department);
+            when(employeeService.findByDepartmentId(id)).thenReturn(List.of(testEmployee));
+        }
+        when(departmentService.findAll()).thenReturn(departments);
+
+        byte[] excelData = reportService.generateDepartmentTrainingReport(targetDate);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(excelData))) {
+            assertEquals(50, workbook.getNumberOfSheets());
+            // Default style and font plus the seven report styles and their three fonts
+            assertEquals(8, workbook.getNumCellStyles());
+            assertEquals(4, workbook.getNumberOfFonts());
+        }
+    }
+
+    @Test
+    void testWriteDepartmentTrainingReport_SharesStylesAcrossSheets() throws IOException {
+        LocalDate targetDate = LocalDate.now();
+        List<Department> departments = new ArrayList<>();
+        for (long id = 1; id <= 50; id++) {
+            Department department = new Department(id, "Abteilung " + id, null);
+            departments.add(department);
+            when(employeeService.streamByDepartmentId(id))
+                    .thenReturn(Stream.of(employeeSummary(id, "Mitarbeiter " + id)));
+        }
+        when(departmentService.findAll()).thenReturn(departments);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        reportService.writeDepartmentTrainingReport(targetDate, outputStream);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            assertEquals(50, workbook.getNumberOfSheets());
+            assertEquals(8, workbook.getNumCellStyles());
+            assertEquals(4, workbook.getNumberOfFonts());
+        }
+    }
+
+    private static EmployeeSummary employeeSummary(Long id, String name) {
+        return new EmployeeSummary() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
 }
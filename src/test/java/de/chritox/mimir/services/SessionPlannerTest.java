@@ -0,0 +1,162 @@
+package de.chritox.mimir.services;
+
+import de.chritox.mimir.models.Employee;
+import de.chritox.mimir.models.Training;
+import de.chritox.mimir.models.TrainingSession;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SessionPlannerTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 1, 1);
+    private static final LocalDate UNTIL = LocalDate.of(2025, 6, 30);
+
+    @Mock
+    private TrainingService trainingService;
+
+    @Mock
+    private EmployeeService employeeService;
+
+    private ComplianceIndex complianceIndex;
+    private SessionPlanner sessionPlanner;
+
+    private Training firstAid;
+    private Training fireSafety;
+
+    @BeforeEach
+    void setUp() {
+        complianceIndex = new ComplianceIndex();
+        sessionPlanner = new SessionPlanner(complianceIndex, trainingService, employeeService);
+
+        firstAid = new Training(1L, 12, "Erste Hilfe", null);
+        fireSafety = new Training(2L, null, "Brandschutz", null);
+        lenient().when(trainingService.findAll()).thenReturn(List.of(firstAid, fireSafety));
+        lenient().when(employeeService.findAllById(any())).thenAnswer(invocation ->
+                invocation.<Collection<Long>>getArgument(0).stream().map(SessionPlannerTest::employee).toList());
+    }
+
+    @Test
+    void testPlan_LatestDateBeforeEarliestDueDate() {
+        index(batch -> {
+            // Due on 2025-02-10, 2025-03-20, 2025-05-05 and never attended
+            batch.add(10L, 1L, 1L, 12, LocalDate.of(2024, 2, 10));
+            batch.add(11L, 1L, 1L, 12, LocalDate.of(2024, 3, 20));
+            batch.add(12L, 1L, 1L, 12, LocalDate.of(2024, 5, 5));
+            batch.add(13L, 1L, 1L, 12, null);
+            // Due after the horizon
+            batch.add(14L, 1L, 1L, 12, LocalDate.of(2024, 9, 1));
+        });
+
+        List<TrainingSession> sessions = sessionPlanner.plan(new SessionPlanner.Request(START, UNTIL,
+                List.of(LocalDate.of(2025, 1, 15), LocalDate.of(2025, 3, 1), LocalDate.of(2025, 4, 1)), 2, null));
+
+        assertEquals(2, sessions.size());
+        assertSession(sessions.get(0), firstAid, LocalDate.of(2025, 1, 15), 13L, 10L);
+        assertSession(sessions.get(1), firstAid, LocalDate.of(2025, 3, 1), 11L, 12L);
+    }
+
+    @Test
+    void testPlan_ClassSizePerTraining() {
+        index(batch -> {
+            for (long employeeId = 1; employeeId <= 7; employeeId++) {
+                batch.add(employeeId, 1L, 1L, 12, null);
+                batch.add(employeeId, 1L, 2L, null, null);
+            }
+        });
+
+        List<TrainingSession> sessions = sessionPlanner.plan(new SessionPlanner.Request(START, UNTIL,
+                List.of(LocalDate.of(2025, 2, 1)), 3, Map.of(2L, 7)));
+
+        assertEquals(1, sessions.stream().filter(session -> session.getTraining().equals(fireSafety)).count());
+        assertEquals(List.of(3, 3, 1), sessions.stream()
+                .filter(session -> session.getTraining().equals(firstAid))
+                .map(session -> session.getParticipants().size())
+                .toList());
+        assertTrue(sessions.stream().allMatch(session -> session.getId() == null));
+    }
+
+    @Test
+    void testPlan_ThousandsOfEmployees() {
+        int employees = 5000;
+        index(batch -> {
+            for (int i = 1; i <= employees; i++) {
+                batch.add(i, 1L, 1L, 12, lastAttended(i));
+            }
+        });
+        List<LocalDate> dates = START.datesUntil(UNTIL, Period.ofWeeks(1)).toList();
+
+        List<TrainingSession> sessions = sessionPlanner.plan(new SessionPlanner.Request(START, UNTIL, dates, 25,
+                null));
+
+        // One session per started class, and nobody attends after the due date
+        assertEquals(employees / 25, sessions.size());
+        Set<Long> planned = new HashSet<>();
+        for (TrainingSession session : sessions) {
+            for (Employee participant : session.getParticipants()) {
+                assertTrue(planned.add(participant.getId()));
+                assertFalse(session.getDate().isAfter(lastAttended(participant.getId()).plusMonths(12)));
+            }
+        }
+        assertEquals(employees, planned.size());
+    }
+
+    @Test
+    void testPlan_NothingDue() {
+        assertEquals(List.of(), sessionPlanner.plan(new SessionPlanner.Request(START, UNTIL, List.of(START), 10,
+                null)));
+        verify(employeeService).findAllById(Set.of());
+    }
+
+    @Test
+    void testPlan_InvalidRequest() {
+        assertThrows(IllegalArgumentException.class, () -> sessionPlanner.plan(
+                new SessionPlanner.Request(START, START.minusDays(1), List.of(START), 10, null)));
+        assertThrows(IllegalArgumentException.class, () -> sessionPlanner.plan(
+                new SessionPlanner.Request(START, UNTIL, List.of(START.minusDays(1)), 10, null)));
+        assertThrows(IllegalArgumentException.class, () -> sessionPlanner.plan(
+                new SessionPlanner.Request(START, UNTIL, List.of(START), 0, Map.of(1L, 10))));
+    }
+
+    private void assertSession(TrainingSession session, Training training, LocalDate date, Long... participantIds) {
+        assertEquals(training, session.getTraining());
+        assertEquals(date, session.getDate());
+        assertEquals(Set.of(participantIds),
+                session.getParticipants().stream().map(Employee::getId).collect(Collectors.toSet()));
+    }
+
+    private void index(Consumer<ComplianceIndex.Batch> rows) {
+        ComplianceIndex.Batch batch = new ComplianceIndex.Batch();
+        rows.accept(batch);
+        complianceIndex.replaceAll(batch);
+    }
+
+    private static LocalDate lastAttended(long employeeId) {
+        // Due from the start date to the end of the horizon
+        return START.minusMonths(12).plusDays(employeeId % 180);
+    }
+
+    private static Employee employee(Long id) {
+        Employee employee = new Employee();
+        employee.setId(id);
+        employee.setName("Mitarbeiter " + id);
+        return employee;
+    }
+}